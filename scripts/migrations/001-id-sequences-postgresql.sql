@@ -0,0 +1,42 @@
+-- Migrates an existing PostgreSQL deployment (db.init=false) to client-side ID allocation.
+-- Run once, with the application stopped, before starting a version that allocates IDs from
+-- users_seq, books_seq and transactions_seq (see IdAllocator):
+--
+--   psql -d lms -v ON_ERROR_STOP=1 -f scripts/migrations/001-id-sequences-postgresql.sql
+--
+-- Each sequence starts after the highest existing key and keeps INCREMENT BY 100, the block size
+-- the application reserves per round trip. The old column defaults are dropped, because keys are
+-- now always supplied by the application. Running the script again changes nothing.
+
+BEGIN;
+
+DO $$
+DECLARE
+    next_id BIGINT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relkind = 'S' AND relname = 'users_seq') THEN
+        SELECT COALESCE(MAX(user_id), 0) + 1 INTO next_id FROM users;
+        EXECUTE format('CREATE SEQUENCE users_seq START WITH %s INCREMENT BY 100', next_id);
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relkind = 'S' AND relname = 'books_seq') THEN
+        SELECT COALESCE(MAX(book_id), 0) + 1 INTO next_id FROM books;
+        EXECUTE format('CREATE SEQUENCE books_seq START WITH %s INCREMENT BY 100', next_id);
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relkind = 'S' AND relname = 'transactions_seq') THEN
+        SELECT COALESCE(MAX(transaction_id), 0) + 1 INTO next_id FROM transactions;
+        EXECUTE format('CREATE SEQUENCE transactions_seq START WITH %s INCREMENT BY 100', next_id);
+    END IF;
+END
+$$;
+
+-- Identity or serial defaults from the old schema would hand out keys that clash with allocated ones
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN user_id DROP DEFAULT;
+ALTER TABLE books ALTER COLUMN book_id DROP IDENTITY IF EXISTS;
+ALTER TABLE books ALTER COLUMN book_id DROP DEFAULT;
+ALTER TABLE transactions ALTER COLUMN transaction_id DROP IDENTITY IF EXISTS;
+ALTER TABLE transactions ALTER COLUMN transaction_id DROP DEFAULT;
+
+COMMIT;
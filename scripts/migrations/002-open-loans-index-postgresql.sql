@@ -0,0 +1,9 @@
+-- Adds the index the fine accrual job uses to page through unreturned loans in ID order.
+-- Run once before starting a version with the resumable fine accrual job:
+--
+--   psql -d lms -v ON_ERROR_STOP=1 -f scripts/migrations/002-open-loans-index-postgresql.sql
+--
+-- CONCURRENTLY builds the index without blocking loans, so the application may keep running; it
+-- cannot run inside a transaction block. Running the script again changes nothing.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_return_id ON transactions (return_date, transaction_id);
@@ -0,0 +1,21 @@
+-- Spreads the per-category and per-day borrow counts over slot rows, which the application now
+-- updates inside each loan's transaction (see JdbcBorrowStatisticsDao). Run once, with the
+-- application stopped:
+--
+--   psql -d lms -v ON_ERROR_STOP=1 -f scripts/migrations/003-borrow-stats-slots-postgresql.sql
+--
+-- Existing counts stay in slot 0. Afterwards run the rebuild-stats command once, since counts
+-- the previous version had not yet written to the tables may be missing. Running the script
+-- again changes nothing.
+
+BEGIN;
+
+ALTER TABLE category_borrow_stats ADD COLUMN IF NOT EXISTS slot INT NOT NULL DEFAULT 0;
+ALTER TABLE category_borrow_stats DROP CONSTRAINT IF EXISTS category_borrow_stats_pkey;
+ALTER TABLE category_borrow_stats ADD PRIMARY KEY (category_id, slot);
+
+ALTER TABLE daily_loan_stats ADD COLUMN IF NOT EXISTS slot INT NOT NULL DEFAULT 0;
+ALTER TABLE daily_loan_stats DROP CONSTRAINT IF EXISTS daily_loan_stats_pkey;
+ALTER TABLE daily_loan_stats ADD PRIMARY KEY (stat_date, slot);
+
+COMMIT;
@@ -0,0 +1,67 @@
+package com.example.library.cache;
+
+import java.util.Properties;
+
+/**
+ * Settings for an {@link EntityCache}, read from application.properties.
+ */
+public class CacheConfig {
+
+    private final int maxSize;
+    private final long ttlSeconds;
+    private final String evictionPolicy;
+
+    /**
+     * Constructs a CacheConfig with specified settings.
+     *
+     * @param maxSize        The maximum number of entries.
+     * @param ttlSeconds     How long an entry stays valid after it is loaded; 0 means forever.
+     * @param evictionPolicy The eviction policy name, "LRU" or "LFU".
+     */
+    public CacheConfig(int maxSize, long ttlSeconds, String evictionPolicy) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache max size must be at least 1.");
+        }
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttlSeconds;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    /**
+     * Reads cache settings under a key prefix, e.g. {@code cache.books.max.size} for prefix {@code cache.books}.
+     *
+     * @param props  The application properties.
+     * @param prefix The key prefix.
+     * @return The cache settings.
+     */
+    public static CacheConfig fromProperties(Properties props, String prefix) {
+        return new CacheConfig(
+                Integer.parseInt(props.getProperty(prefix + ".max.size", "10000")),
+                Long.parseLong(props.getProperty(prefix + ".ttl.seconds", "300")),
+                props.getProperty(prefix + ".eviction", "LRU")
+        );
+    }
+
+    /**
+     * Creates an empty cache with these settings.
+     *
+     * @param <K> The type of the cache keys.
+     * @param <V> The type of the cached values.
+     * @return A new cache.
+     */
+    public <K, V> EntityCache<K, V> newCache() {
+        return new EntityCache<>(maxSize, ttlSeconds * 1_000_000_000L, EvictionPolicy.named(evictionPolicy));
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String getEvictionPolicy() {
+        return evictionPolicy;
+    }
+}
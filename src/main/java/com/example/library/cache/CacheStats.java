@@ -0,0 +1,84 @@
+package com.example.library.cache;
+
+/**
+ * A point-in-time snapshot of {@link EntityCache} statistics.
+ */
+public class CacheStats {
+
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long loads;
+    private final long totalLoadNanos;
+
+    public CacheStats(int size, long hits, long misses, long evictions, long expirations, long loads, long totalLoadNanos) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.loads = loads;
+        this.totalLoadNanos = totalLoadNanos;
+    }
+
+    // Getters
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    /**
+     * Gets the fraction of lookups that were served from the cache.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the average time spent loading entries from the underlying store on a miss.
+     *
+     * @return The average load time in microseconds, or 0 if nothing has been loaded.
+     */
+    public double getAverageLoadMicros() {
+        return loads == 0 ? 0 : totalLoadNanos / 1000.0 / loads;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+               "size=" + size +
+               ", hits=" + hits +
+               ", misses=" + misses +
+               ", hitRatio=" + String.format("%.3f", getHitRatio()) +
+               ", evictions=" + evictions +
+               ", expirations=" + expirations +
+               ", loads=" + loads +
+               ", avgLoadMicros=" + String.format("%.1f", getAverageLoadMicros()) +
+               '}';
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.library.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe in-memory cache with a pluggable {@link EvictionPolicy} and an optional time to live.
+ * <p>
+ * Values are loaded by the caller outside the cache lock. To avoid caching a value that was
+ * invalidated while it was being loaded, callers take a {@link #generation()} before loading
+ * and pass it to {@link #put(Object, Object, long)}.
+ *
+ * @param <K> The type of the cache keys.
+ * @param <V> The type of the cached values.
+ */
+public class EntityCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final EvictionPolicy<K> policy;
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    /**
+     * Constructs an EntityCache.
+     *
+     * @param maxSize  The maximum number of entries.
+     * @param ttlNanos How long an entry stays valid after it is stored; 0 or less means forever.
+     * @param policy   The eviction policy.
+     */
+    public EntityCache(int maxSize, long ttlNanos, EvictionPolicy<K> policy) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.policy = policy;
+    }
+
+    /**
+     * Gets a cached value, counting a hit or a miss.
+     *
+     * @param key The key to look up.
+     * @return The cached value, or null if it is absent or expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && ttlNanos > 0 && System.nanoTime() - entry.storedAt > ttlNanos) {
+            entries.remove(key);
+            policy.onRemove(key);
+            expirations.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        policy.onAccess(key);
+        return entry.value;
+    }
+
+    /**
+     * Gets the current invalidation generation, to be passed to {@link #put(Object, Object, long)}.
+     *
+     * @return The current generation.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores a value, evicting an entry if the cache is full. The value is dropped if anything
+     * was invalidated since the given generation was taken.
+     *
+     * @param key        The key.
+     * @param value      The value.
+     * @param generation The generation taken before the value was loaded.
+     */
+    public synchronized void put(K key, V value, long generation) {
+        if (generation != this.generation.get()) {
+            return;
+        }
+        if (entries.put(key, new Entry<>(value, System.nanoTime())) != null) {
+            policy.onRemove(key);
+        } else if (entries.size() > maxSize) {
+            K victim = policy.victim();
+            if (victim != null) {
+                entries.remove(victim);
+                policy.onRemove(victim);
+                evictions.increment();
+            }
+        }
+        policy.onInsert(key);
+    }
+
+    /**
+     * Removes a key after its underlying data changed.
+     *
+     * @param key The key to remove.
+     */
+    public synchronized void invalidate(K key) {
+        generation.incrementAndGet();
+        if (entries.remove(key) != null) {
+            policy.onRemove(key);
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        entries.keySet().forEach(policy::onRemove);
+        entries.clear();
+    }
+
+    /**
+     * Records the time taken to load a value from the underlying store after a miss.
+     *
+     * @param nanos The load time in nanoseconds.
+     */
+    public void recordLoad(long nanos) {
+        loads.increment();
+        totalLoadNanos.add(nanos);
+    }
+
+    /**
+     * Gets a snapshot of the cache statistics.
+     *
+     * @return The current statistics.
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new CacheStats(size, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                loads.sum(), totalLoadNanos.sum());
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long storedAt;
+
+        private Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
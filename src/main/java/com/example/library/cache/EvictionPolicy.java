@@ -0,0 +1,73 @@
+package com.example.library.cache;
+
+/**
+ * Decides which entry an {@link EntityCache} evicts when it is full.
+ * Implementations are only called while the cache holds its lock, so they need not be thread-safe.
+ *
+ * @param <K> The type of the cache keys.
+ */
+public interface EvictionPolicy<K> {
+
+    /**
+     * Records that a key was added to the cache.
+     *
+     * @param key The key that was added.
+     */
+    void onInsert(K key);
+
+    /**
+     * Records a cache hit on a key.
+     *
+     * @param key The key that was read.
+     */
+    void onAccess(K key);
+
+    /**
+     * Records that a key left the cache for any reason.
+     *
+     * @param key The key that was removed.
+     */
+    void onRemove(K key);
+
+    /**
+     * Chooses the key to evict next.
+     *
+     * @return The key to evict, or null if the policy tracks no keys.
+     */
+    K victim();
+
+    /**
+     * Creates a least-recently-used policy.
+     *
+     * @param <K> The type of the cache keys.
+     * @return A new LRU policy.
+     */
+    static <K> EvictionPolicy<K> lru() {
+        return new LruEvictionPolicy<>();
+    }
+
+    /**
+     * Creates a least-frequently-used policy, breaking ties by evicting the older entry.
+     *
+     * @param <K> The type of the cache keys.
+     * @return A new LFU policy.
+     */
+    static <K> EvictionPolicy<K> lfu() {
+        return new LfuEvictionPolicy<>();
+    }
+
+    /**
+     * Creates a policy by name.
+     *
+     * @param name "LRU" or "LFU", case-insensitive.
+     * @param <K>  The type of the cache keys.
+     * @return A new policy of the named kind.
+     */
+    static <K> EvictionPolicy<K> named(String name) {
+        return switch (name.trim().toUpperCase()) {
+            case "LRU" -> lru();
+            case "LFU" -> lfu();
+            default -> throw new IllegalArgumentException("Unknown eviction policy: " + name);
+        };
+    }
+}
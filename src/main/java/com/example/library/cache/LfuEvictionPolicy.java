@@ -0,0 +1,67 @@
+package com.example.library.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Evicts the entry with the fewest reads, in O(1) per operation.
+ * Keys are grouped into buckets by read count; within a bucket the oldest key goes first.
+ */
+class LfuEvictionPolicy<K> implements EvictionPolicy<K> {
+
+    private final Map<K, Integer> frequencies = new HashMap<>();
+    private final Map<Integer, LinkedHashSet<K>> buckets = new HashMap<>();
+    private int minFrequency;
+
+    @Override
+    public void onInsert(K key) {
+        frequencies.put(key, 1);
+        buckets.computeIfAbsent(1, f -> new LinkedHashSet<>()).add(key);
+        minFrequency = 1;
+    }
+
+    @Override
+    public void onAccess(K key) {
+        Integer frequency = frequencies.get(key);
+        if (frequency == null) {
+            return;
+        }
+        removeFromBucket(key, frequency);
+        if (frequency == minFrequency && !buckets.containsKey(frequency)) {
+            minFrequency = frequency + 1;
+        }
+        frequencies.put(key, frequency + 1);
+        buckets.computeIfAbsent(frequency + 1, f -> new LinkedHashSet<>()).add(key);
+    }
+
+    @Override
+    public void onRemove(K key) {
+        Integer frequency = frequencies.remove(key);
+        if (frequency != null) {
+            removeFromBucket(key, frequency);
+        }
+    }
+
+    @Override
+    public K victim() {
+        if (frequencies.isEmpty()) {
+            return null;
+        }
+        LinkedHashSet<K> bucket = buckets.get(minFrequency);
+        if (bucket == null) {
+            // The minimum bucket was emptied by a removal; find the next one.
+            minFrequency = buckets.keySet().stream().min(Integer::compare).orElse(1);
+            bucket = buckets.get(minFrequency);
+        }
+        return bucket.iterator().next();
+    }
+
+    private void removeFromBucket(K key, int frequency) {
+        LinkedHashSet<K> bucket = buckets.get(frequency);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            buckets.remove(frequency);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.library.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Evicts the entry that has gone longest without being read.
+ */
+class LruEvictionPolicy<K> implements EvictionPolicy<K> {
+
+    private final LinkedHashSet<K> order = new LinkedHashSet<>();
+
+    @Override
+    public void onInsert(K key) {
+        order.add(key);
+    }
+
+    @Override
+    public void onAccess(K key) {
+        if (order.remove(key)) {
+            order.add(key);
+        }
+    }
+
+    @Override
+    public void onRemove(K key) {
+        order.remove(key);
+    }
+
+    @Override
+    public K victim() {
+        Iterator<K> it = order.iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+}
@@ -1,16 +1,30 @@
 package com.example.library.cli;
 
+import com.example.library.cache.CacheConfig;
 import com.example.library.dao.*;
 import com.example.library.db.DatabaseManager;
+import com.example.library.importer.CsvBookImporter;
+import com.example.library.importer.ImportResult;
+import com.example.library.importer.MarcBookImporter;
 import com.example.library.model.*;
+import com.example.library.report.ReportJobScheduler;
+import com.example.library.search.BookSearchIndex;
+import com.example.library.search.IndexedBookDao;
+import com.example.library.search.PrefixCompleter;
+import com.example.library.search.TrigramIndex;
 import com.example.library.service.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Properties;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 public class MainApp {
 
@@ -41,28 +55,189 @@ public class MainApp {
 
         // Initialize components
         DatabaseManager dbManager = new DatabaseManager();
-        BookDao bookDao = new JdbcBookDao(dbManager);
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseManager::shutdown, "lms-shutdown"));
+        CategoryDao categoryDao = new JdbcCategoryDao(dbManager);
+        BookDao bookDao = new JdbcBookDao(dbManager, categoryDao);
         UserDao userDao = new JdbcUserDao(dbManager);
+        if (Boolean.parseBoolean(props.getProperty("cache.enabled", "false"))) {
+            CachingBookDao cachingBookDao = new CachingBookDao(bookDao, CacheConfig.fromProperties(props, "cache.books").newCache(), dbManager);
+            CachingUserDao cachingUserDao = new CachingUserDao(userDao, CacheConfig.fromProperties(props, "cache.users").newCache(), dbManager);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                logger.info("Book cache: {}", cachingBookDao.getCacheStats());
+                logger.info("User cache: {}", cachingUserDao.getCacheStats());
+            }, "lms-cache-stats"));
+            bookDao = cachingBookDao;
+            userDao = cachingUserDao;
+        }
+        PrefixCompleter prefixCompleter = null;
+        TrigramIndex trigramIndex = null;
+        if (Boolean.parseBoolean(props.getProperty("search.index.enabled", "false"))) {
+            IndexedBookDao indexedBookDao = new IndexedBookDao(bookDao, new BookSearchIndex(), dbManager);
+            if (Boolean.parseBoolean(props.getProperty("search.autocomplete.enabled", "false"))) {
+                prefixCompleter = new PrefixCompleter(Integer.parseInt(props.getProperty("search.autocomplete.max.entries", "200000")));
+                indexedBookDao.addIndex(prefixCompleter);
+            }
+            if (Boolean.parseBoolean(props.getProperty("search.fuzzy.enabled", "false"))) {
+                trigramIndex = new TrigramIndex(Double.parseDouble(props.getProperty("search.fuzzy.min.similarity", "0.5")),
+                        Integer.parseInt(props.getProperty("search.fuzzy.max.postings", String.valueOf(TrigramIndex.DEFAULT_MAX_POSTINGS))));
+                indexedBookDao.addIndex(trigramIndex);
+            }
+            indexedBookDao.rebuild();
+            bookDao = indexedBookDao;
+        }
         TransactionDao transactionDao = new JdbcTransactionDao(dbManager);
+        BorrowStatistics borrowStatistics = null;
+        if (Boolean.parseBoolean(props.getProperty("stats.enabled", "true"))) {
+            borrowStatistics = new BorrowStatistics(new JdbcBorrowStatisticsDao(dbManager,
+                    Integer.parseInt(props.getProperty("stats.counter.slots",
+                            String.valueOf(JdbcBorrowStatisticsDao.DEFAULT_COUNTER_SLOTS)))),
+                    bookDao, dbManager);
+            borrowStatistics.load();
+        }
 
         FineManager fineManager = new FineManager(fineRate);
+
+        // Batch commands run instead of the interactive menu
+        if (args.length > 0) {
+            runCommand(args, props, dbManager, bookDao, categoryDao, transactionDao, fineManager, borrowStatistics);
+            return;
+        }
+
         NotificationService notificationService = new NotificationService();
         AuthenticationService authService = new AuthenticationService(userDao);
-        LibraryService libraryService = new LibraryService(bookDao, transactionDao, fineManager, notificationService);
+        LibraryService libraryService = new LibraryService(bookDao, transactionDao, fineManager, notificationService, dbManager);
+        libraryService.setPrefixCompleter(prefixCompleter);
+        libraryService.setTrigramIndex(trigramIndex);
+        if (Boolean.parseBoolean(props.getProperty("loans.counter.enabled", "true"))) {
+            libraryService.setActiveLoanCounter(new ActiveLoanCounter(transactionDao));
+        }
         ReportGenerator reportGenerator = new ReportGenerator(bookDao, userDao, transactionDao);
+        if (Boolean.parseBoolean(props.getProperty("report.partitioned.enabled", "true"))) {
+            reportGenerator.setReportEngine(new PartitionedReportEngine(transactionDao,
+                    Integer.parseInt(props.getProperty("report.parallelism", "4")),
+                    Integer.parseInt(props.getProperty("report.partition.min.size",
+                            String.valueOf(PartitionedReportEngine.DEFAULT_MIN_PARTITION_SIZE)))));
+        }
+        if (borrowStatistics != null) {
+            libraryService.addLoanListener(borrowStatistics);
+            reportGenerator.setBorrowStatistics(borrowStatistics);
+        }
+        if (Boolean.parseBoolean(props.getProperty("loans.overdue.tracker.enabled", "true"))) {
+            OverdueTracker overdueTracker = new OverdueTracker(transactionDao, dbManager);
+            overdueTracker.load();
+            libraryService.addLoanListener(overdueTracker);
+            reportGenerator.setOverdueTracker(overdueTracker);
+        }
+        // Registered after the statistics and tracker so cached reports are dropped once those are up to date
+        if (Boolean.parseBoolean(props.getProperty("report.cache.enabled", "true"))) {
+            ReportCache reportCache = new ReportCache(dbManager, Long.parseLong(props.getProperty("report.cache.max.age.ms", "600000")));
+            libraryService.addLoanListener(reportCache);
+            reportGenerator.setReportCache(reportCache);
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                    logger.info("Report cache: {}", reportCache.getStats()), "lms-report-cache-stats"));
+        }
+        if (Boolean.parseBoolean(props.getProperty("trending.enabled", "true"))) {
+            TrendingTracker trendingTracker = new TrendingTracker(bookDao, dbManager,
+                    Integer.parseInt(props.getProperty("trending.counters.per.bucket", "64")));
+            libraryService.addLoanListener(trendingTracker);
+            libraryService.setTrendingTracker(trendingTracker);
+        }
 
         // Seed initial data (for demonstration)
-        seedData(userDao, bookDao);
+        seedData(userDao, bookDao, categoryDao);
 
         // Start CLI
-        try (Scanner scanner = new Scanner(System.in)) {
-            new MainMenu(scanner, authService, libraryService, reportGenerator, bookDao, userDao).run();
+        try (Scanner scanner = new Scanner(System.in);
+             ReportJobScheduler reportJobs = new ReportJobScheduler(
+                     Integer.parseInt(props.getProperty("report.jobs.max.concurrent", "2")))) {
+            new MainMenu(scanner, authService, libraryService, reportGenerator, bookDao, userDao, reportJobs).run();
         }
 
         logger.info("Library Management System shutting down.");
     }
 
-    private static void seedData(UserDao userDao, BookDao bookDao) {
+    private static void runCommand(String[] args, Properties props, DatabaseManager dbManager, BookDao bookDao,
+                                   CategoryDao categoryDao, TransactionDao transactionDao, FineManager fineManager,
+                                   BorrowStatistics borrowStatistics) {
+        switch (args[0]) {
+            case "import-csv" -> {
+                if (args.length < 2) {
+                    System.out.println("Usage: import-csv <file>");
+                    return;
+                }
+                CsvBookImporter importer = new CsvBookImporter(bookDao,
+                        Integer.parseInt(props.getProperty("import.chunk.size", "5000")),
+                        Integer.parseInt(props.getProperty("import.parallelism", "0")));
+                try {
+                    printImportResult(importer.importFile(Path.of(args[1])));
+                } catch (IOException e) {
+                    logger.error("Import of {} failed", args[1], e);
+                    System.out.println("Import failed: " + e.getMessage());
+                }
+            }
+            case "import-marc" -> {
+                if (args.length < 2) {
+                    System.out.println("Usage: import-marc <file>");
+                    return;
+                }
+                MarcBookImporter importer = new MarcBookImporter(bookDao, categoryDao,
+                        Integer.parseInt(props.getProperty("import.chunk.size", "5000")));
+                try {
+                    printImportResult(importer.importFile(Path.of(args[1])));
+                } catch (IOException e) {
+                    logger.error("Import of {} failed", args[1], e);
+                    System.out.println("Import failed: " + e.getMessage());
+                }
+            }
+            case "rebuild-stats" -> {
+                if (borrowStatistics == null) {
+                    System.out.println("Borrow statistics are disabled (stats.enabled=false).");
+                    return;
+                }
+                long start = System.currentTimeMillis();
+                BorrowTotals totals;
+                try (PartitionedReportEngine engine = new PartitionedReportEngine(transactionDao,
+                        Integer.parseInt(props.getProperty("stats.rebuild.parallelism", "0")),
+                        Integer.parseInt(props.getProperty("report.partition.min.size",
+                                String.valueOf(PartitionedReportEngine.DEFAULT_MIN_PARTITION_SIZE))))) {
+                    totals = borrowStatistics.rebuild(engine);
+                }
+                System.out.printf("Rebuilt borrow statistics for %d books and %d categories in %.1f s.%n",
+                        totals.getBookCounts().size(), totals.getCategoryCounts().size(),
+                        (System.currentTimeMillis() - start) / 1000.0);
+            }
+            case "accrue-fines" -> {
+                LocalDate asOf;
+                try {
+                    asOf = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.now();
+                } catch (DateTimeParseException e) {
+                    System.out.println("Usage: accrue-fines [yyyy-mm-dd]");
+                    return;
+                }
+                FineAccrualJob job = new FineAccrualJob(transactionDao, new JdbcFineAccrualDao(dbManager), fineManager,
+                        Integer.parseInt(props.getProperty("fines.accrual.batch.size", "5000")),
+                        Integer.parseInt(props.getProperty("fines.accrual.parallelism", "4")));
+                try {
+                    FineAccrualResult result = job.run(asOf);
+                    System.out.printf("Accrued fines on %d overdue loans (%d changed) in %.1f s, %.0f loans/sec.%n",
+                            result.getLoansProcessed(), result.getLoansUpdated(),
+                            result.getElapsedMillis() / 1000.0, result.getLoansPerSecond());
+                } catch (RuntimeException e) {
+                    logger.error("Fine accrual for {} stopped", asOf, e);
+                    System.out.println("Fine accrual stopped: " + e.getMessage() + ". Run it again to resume.");
+                }
+            }
+            default -> System.out.println("Unknown command: " + args[0]);
+        }
+    }
+
+    private static void printImportResult(ImportResult result) {
+        System.out.printf("Imported %d of %d rows (%d rejected) in %.1f s, %.0f rows/sec.%n",
+                result.getRowsImported(), result.getRowsRead(), result.getRowsRejected(),
+                result.getElapsedMillis() / 1000.0, result.getRowsPerSecond());
+    }
+
+    private static void seedData(UserDao userDao, BookDao bookDao, CategoryDao categoryDao) {
         // Add a student and a librarian if they don't exist
         if (userDao.findByName("student1").isEmpty()) {
             userDao.addUser(new Student("student1", "Computer Science", 3));
@@ -70,9 +245,18 @@ public class MainApp {
         if (userDao.findByName("librarian1").isEmpty()) {
             userDao.addUser(new Librarian("librarian1", "EMP001"));
         }
-        // Add a book if none exist
-        if (bookDao.findAll().isEmpty()) {
-            bookDao.addBook(new Book(0, "The Hobbit", "J.R.R. Tolkien", true, 1));
+        // Add a category and a book if none exist
+        Category general = categoryDao.findByName("General").orElseGet(() -> {
+            Category category = new Category(0, "General", "General collection");
+            categoryDao.addCategory(category);
+            return category;
+        });
+        boolean catalogEmpty;
+        try (Stream<Book> books = bookDao.streamAll()) {
+            catalogEmpty = books.findAny().isEmpty();
+        }
+        if (catalogEmpty) {
+            bookDao.addBook(new Book(0, "The Hobbit", "J.R.R. Tolkien", true, general.getCategoryId()));
         }
     }
 }
@@ -1,37 +1,67 @@
 package com.example.library.cli;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import com.example.library.cache.CacheStats;
 import com.example.library.dao.BookDao;
+import com.example.library.dao.Page;
 import com.example.library.dao.UserDao;
 import com.example.library.model.Book;
 import com.example.library.model.Librarian;
 import com.example.library.model.Student;
+import com.example.library.model.TrendingBook;
 import com.example.library.model.User;
+import com.example.library.report.Report;
+import com.example.library.report.ReportJob;
+import com.example.library.report.ReportJobScheduler;
+import com.example.library.report.ReportSink;
 import com.example.library.service.AuthenticationService;
 import com.example.library.service.LibraryService;
 import com.example.library.service.ReportGenerator;
 
 public class MainMenu {
 
+    private static final int SEARCH_PAGE_SIZE = 10;
+    private static final int TRENDING_LIMIT = 3;
+    private static final int REPORT_FILE_LIMIT = 1000;
+    private static final int REPORT_PREVIEW_LINES = 20;
+    private static final int DUE_SOON_DAYS = 7;
+
     private final Scanner scanner;
     private final AuthenticationService authService;
     private final LibraryService libraryService;
     private final ReportGenerator reportGenerator;
     private final BookDao bookDao;
     private final UserDao userDao; 
+    private final ReportJobScheduler reportJobs;
 
     public MainMenu(Scanner scanner, AuthenticationService authService,
                     LibraryService libraryService, ReportGenerator reportGenerator,
                     BookDao bookDao, UserDao userDao) {
+        this(scanner, authService, libraryService, reportGenerator, bookDao, userDao, null);
+    }
+
+    public MainMenu(Scanner scanner, AuthenticationService authService,
+                    LibraryService libraryService, ReportGenerator reportGenerator,
+                    BookDao bookDao, UserDao userDao, ReportJobScheduler reportJobs) {
         this.scanner = scanner;
         this.authService = authService;
         this.libraryService = libraryService;
         this.reportGenerator = reportGenerator;
         this.bookDao = bookDao;
         this.userDao = userDao;
+        this.reportJobs = reportJobs;
     }
 
     public void run() {
@@ -80,6 +110,11 @@ public class MainMenu {
     private void showMainMenu() {
         User currentUser = authService.getCurrentUser();
         System.out.printf("\n--- Main Menu (Logged in as: %s) --- %n", currentUser.getName());
+        List<TrendingBook> trending = libraryService.getTrendingBooks(Duration.ofDays(7), TRENDING_LIMIT);
+        if (!trending.isEmpty()) {
+            System.out.println("Trending this week:");
+            trending.forEach(t -> System.out.printf("  %s by %s (~%d borrows)%n", t.getTitle(), t.getAuthor(), t.getEstimatedBorrows()));
+        }
         System.out.println("1. Search Book");
         System.out.println("2. Borrow Book");
         System.out.println("3. Return Book");
@@ -133,27 +168,47 @@ public class MainMenu {
     private void handleSearchBook() {
         int choice = readInt("Search by (1) Title or (2) Author: ");
         if (choice == -1) return;
-        List<Book> books;
 
+        String query;
+        Function<String, Page<Book>> nextPage;
         if (choice == 1) {
             System.out.print("Enter title: ");
-            String title = scanner.nextLine();
-            books = libraryService.searchByTitle(title);
+            query = scanner.nextLine();
+            nextPage = cursor -> libraryService.searchByTitle(query, cursor, SEARCH_PAGE_SIZE);
         } else {
             System.out.print("Enter author: ");
-            String author = scanner.nextLine();
-            books = libraryService.searchByAuthor(author);
+            query = scanner.nextLine();
+            nextPage = cursor -> libraryService.searchByAuthor(query, cursor, SEARCH_PAGE_SIZE);
         }
 
         System.out.println("\n--- Search Results ---");
-        if (books.isEmpty()) {
-            System.out.println("No books found.");
-        } else {
-            books.forEach(b -> System.out.printf("ID: %d, Title: %s, Author: %s, Available: %s%n",
-                    b.getBookId(), b.getTitle(), b.getAuthor(), b.isAvailable()));
+        Page<Book> page = nextPage.apply(null);
+        if (page.getItems().isEmpty()) {
+            List<Book> books = choice == 1 ? libraryService.fuzzySearchByTitle(query) : libraryService.fuzzySearchByAuthor(query);
+            if (books.isEmpty()) {
+                System.out.println("No books found.");
+            } else {
+                books.forEach(this::printBook);
+            }
+            return;
+        }
+
+        page.getItems().forEach(this::printBook);
+        while (page.hasNext()) {
+            System.out.print("Press Enter for more results, or q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            page = nextPage.apply(page.getNextCursor());
+            page.getItems().forEach(this::printBook);
         }
     }
 
+    private void printBook(Book b) {
+        System.out.printf("ID: %d, Title: %s, Author: %s, Available: %s%n",
+                b.getBookId(), b.getTitle(), b.getAuthor(), b.isAvailable());
+    }
+
     private void handleBorrowBook() {
     int bookId = readInt("Enter the ID of the book to borrow: ");
     if (bookId == -1) return;
@@ -213,13 +268,112 @@ public class MainMenu {
         System.out.println("\n--- Generate Reports ---");
         System.out.println("1. Most Borrowed Books");
         System.out.println("2. Overdue Users");
+        System.out.printf("3. Loans Due in the Next %d Days%n", DUE_SOON_DAYS);
+        if (reportJobs != null) {
+            System.out.println("4. Background Report Jobs");
+        }
+        CacheStats cacheStats = reportGenerator.getReportCacheStats();
+        if (cacheStats != null && cacheStats.getHits() + cacheStats.getMisses() > 0) {
+            System.out.printf("(Report cache: %d hits, %d misses, %.0f ms average recompute)%n",
+                    cacheStats.getHits(), cacheStats.getMisses(), cacheStats.getAverageLoadMicros() / 1000);
+        }
     int choice = readInt("Choose a report: ");
     if (choice == -1) return;
+        if (choice == 4 && reportJobs != null) {
+            handleReportJobs();
+            return;
+        }
+        if (choice < 1 || choice > 3) {
+            System.out.println("Invalid option.");
+            return;
+        }
 
-        switch (choice) {
-            case 1 -> reportGenerator.generateMostBorrowedBooksReport();
-            case 2 -> reportGenerator.generateOverdueUsersReport();
-            default -> System.out.println("Invalid option.");
+        System.out.print("Save to file (.csv or .jsonl, blank for console): ");
+        String file = scanner.nextLine().trim();
+        if (file.isEmpty()) {
+            switch (choice) {
+                case 1 -> reportGenerator.generateMostBorrowedBooksReport();
+                case 2 -> reportGenerator.generateOverdueUsersReport();
+                case 3 -> reportGenerator.generateDueSoonReport(DUE_SOON_DAYS);
+            }
+            return;
+        }
+
+        Supplier<Report> report = switch (choice) {
+            case 1 -> () -> reportGenerator.mostBorrowedBooksReport(REPORT_FILE_LIMIT);
+            case 2 -> () -> reportGenerator.overdueUsersReport(LocalDate.now());
+            default -> () -> reportGenerator.dueSoonReport(LocalDate.now(), DUE_SOON_DAYS);
+        };
+        String name = switch (choice) {
+            case 1 -> "Most Borrowed Books";
+            case 2 -> "Overdue Users";
+            default -> "Loans Due Soon";
+        };
+        if (reportJobs != null) {
+            try {
+                ReportJob job = reportJobs.submit(name, report, Path.of(file));
+                System.out.printf("Started report job #%d; check on it under Generate Reports > Background Report Jobs.%n", job.getId());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Cannot write report to " + file + ": " + e.getMessage());
+            }
+            return;
+        }
+
+        ReportSink sink;
+        try {
+            sink = ReportSink.open(Path.of(file));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Cannot write report to " + file + ": " + e.getMessage());
+            return;
+        }
+        long rows = reportGenerator.writeReport(report.get(), sink);
+        if (rows < 0) {
+            System.out.println("Writing the report failed; see the log for details.");
+        } else {
+            System.out.printf("Wrote %d rows to %s.%n", rows, file);
+        }
+    }
+
+    private void handleReportJobs() {
+        List<ReportJob> jobs = reportJobs.listJobs();
+        if (jobs.isEmpty()) {
+            System.out.println("No report jobs have been started.");
+            return;
+        }
+        System.out.println("\n--- Report Jobs ---");
+        for (ReportJob job : jobs) {
+            System.out.printf("#%d %s: %s, %d rows, %.1f s -> %s%s%n", job.getId(), job.getName(), job.getStatus(),
+                    job.getRowsWritten(), job.getElapsedMillis() / 1000.0, job.getOutput(),
+                    job.getError() != null ? " (" + job.getError() + ")" : "");
+        }
+
+        int jobId = readInt("Enter a job ID to view or cancel (0 to go back): ");
+        if (jobId <= 0) return;
+        Optional<ReportJob> found = reportJobs.findJob(jobId);
+        if (found.isEmpty()) {
+            System.out.println("No such report job.");
+            return;
+        }
+        ReportJob job = found.get();
+        if (!job.isFinished()) {
+            System.out.print("Job is still " + job.getStatus() + ". Cancel it? (y/N): ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                job.cancel();
+                System.out.println("Cancellation requested.");
+            }
+        } else if (job.getStatus() == ReportJob.Status.DONE) {
+            printReportPreview(job.getOutput());
+        } else {
+            System.out.println("Job " + job.getStatus() + "; there is no output to show.");
+        }
+    }
+
+    private void printReportPreview(Path file) {
+        System.out.printf("First lines of %s:%n", file.toAbsolutePath());
+        try (Stream<String> lines = Files.lines(file)) {
+            lines.limit(REPORT_PREVIEW_LINES).forEach(System.out::println);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Cannot read " + file + ": " + e.getMessage());
         }
     }
 
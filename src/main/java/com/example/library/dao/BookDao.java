@@ -1,8 +1,11 @@
 package com.example.library.dao;
 
 import com.example.library.model.Book;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * DAO interface for Book operations.
@@ -16,6 +19,15 @@ public interface BookDao {
      */
     void addBook(Book book);
 
+    /**
+     * Adds many books in one transaction, sending the inserts in JDBC batches.
+     * Each book's ID is set once it has been inserted.
+     *
+     * @param books The books to add.
+     * @return The number of books added; 0 if the batch failed and was rolled back.
+     */
+    int addBooks(Collection<Book> books);
+
     /**
      * Finds a book by its ID.
      *
@@ -24,6 +36,22 @@ public interface BookDao {
      */
     Optional<Book> findById(int bookId);
 
+    /**
+     * Finds several books by their IDs in as few queries as possible.
+     *
+     * @param bookIds The IDs of the books to find; duplicates are ignored.
+     * @return A map from book ID to book, containing only the IDs that were found.
+     */
+    Map<Integer, Book> findByIds(Collection<Integer> bookIds);
+
+    /**
+     * Streams all books from the database without loading them into memory at once.
+     * The stream holds a database connection until it is closed, so use it in a try-with-resources block.
+     *
+     * @return A stream of all books.
+     */
+    Stream<Book> streamAll();
+
     /**
      * Retrieves all books from the database.
      *
@@ -38,6 +66,18 @@ public interface BookDao {
      */
     void updateBook(Book book);
 
+    /**
+     * Atomically sets a book's availability, but only if it currently has the expected value.
+     * Concurrent callers racing to borrow the same copy are serialized by the database,
+     * so exactly one of them wins.
+     *
+     * @param bookId    The ID of the book.
+     * @param expected  The availability the book must currently have.
+     * @param available The availability to set.
+     * @return true if the book had the expected availability and was updated, false otherwise.
+     */
+    boolean compareAndSetAvailability(int bookId, boolean expected, boolean available);
+
     /**
      * Deletes a book from the database.
      *
@@ -67,4 +107,52 @@ public interface BookDao {
      * @return A list of all available books.
      */
     List<Book> findAvailableBooks();
+
+    /**
+     * Retrieves one page of books ordered by ID.
+     *
+     * @param afterBookId Only books with a greater ID are returned; 0 for the first page.
+     * @param limit       The maximum number of books to return.
+     * @return A list of at most {@code limit} books.
+     */
+    List<Book> findAll(int afterBookId, int limit);
+
+    /**
+     * Searches for one page of books by title, ordered by ID.
+     *
+     * @param title       The title to search for.
+     * @param afterBookId Only books with a greater ID are returned; 0 for the first page.
+     * @param limit       The maximum number of books to return.
+     * @return A list of at most {@code limit} books with matching titles.
+     */
+    List<Book> findByTitle(String title, int afterBookId, int limit);
+
+    /**
+     * Searches for one page of books by author, ordered by ID.
+     *
+     * @param author      The author to search for.
+     * @param afterBookId Only books with a greater ID are returned; 0 for the first page.
+     * @param limit       The maximum number of books to return.
+     * @return A list of at most {@code limit} books with matching authors.
+     */
+    List<Book> findByAuthor(String author, int afterBookId, int limit);
+
+    /**
+     * Finds one page of available books, ordered by ID.
+     *
+     * @param afterBookId Only books with a greater ID are returned; 0 for the first page.
+     * @param limit       The maximum number of books to return.
+     * @return A list of at most {@code limit} available books.
+     */
+    List<Book> findAvailableBooks(int afterBookId, int limit);
+
+    /**
+     * Finds one page of the books in a category, ordered by ID.
+     *
+     * @param categoryId  The ID of the category.
+     * @param afterBookId Only books with a greater ID are returned; 0 for the first page.
+     * @param limit       The maximum number of books to return.
+     * @return A list of at most {@code limit} books in the category.
+     */
+    List<Book> findByCategory(int categoryId, int afterBookId, int limit);
 }
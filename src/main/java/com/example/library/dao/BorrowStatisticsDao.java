@@ -0,0 +1,63 @@
+package com.example.library.dao;
+
+import com.example.library.model.BorrowTotals;
+import com.example.library.model.DailyLoanCount;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DAO interface for the borrow statistics summary tables, which hold running borrow counts
+ * per book, per category and per day so reports do not have to scan the loan history.
+ * Per-category and per-day counts may be spread over several rows that are summed on read.
+ */
+public interface BorrowStatisticsDao {
+
+    /**
+     * Counts one borrow. Call it inside the unit of work that records the loan.
+     *
+     * @param bookId     The ID of the borrowed book.
+     * @param categoryId The ID of the book's category, or 0 if it has none.
+     * @param date       The borrow date.
+     */
+    void recordBorrow(int bookId, int categoryId, LocalDate date);
+
+    /**
+     * Counts one return. Call it inside the unit of work that closes the loan.
+     *
+     * @param date The return date.
+     */
+    void recordReturn(LocalDate date);
+
+    /**
+     * Loads the stored per-book and per-category counts.
+     *
+     * @return The stored totals; daily counts are left empty.
+     */
+    BorrowTotals loadTotals();
+
+    /**
+     * Finds the daily borrow and return counts in a date range.
+     *
+     * @param from The first day, inclusive.
+     * @param to   The last day, inclusive.
+     * @return One row per day with any loans, in date order.
+     */
+    List<DailyLoanCount> findDailyCounts(LocalDate from, LocalDate to);
+
+    /**
+     * Counts the loan history in a range of transaction IDs.
+     *
+     * @param fromTransactionId The first transaction ID, inclusive.
+     * @param toTransactionId   The last transaction ID, inclusive.
+     * @return The totals of that slice of the history.
+     */
+    BorrowTotals countHistory(int fromTransactionId, int toTransactionId);
+
+    /**
+     * Replaces the contents of the summary tables in one transaction.
+     *
+     * @param totals The new totals.
+     * @return true if the tables were replaced.
+     */
+    boolean replaceAll(BorrowTotals totals);
+}
@@ -0,0 +1,187 @@
+package com.example.library.dao;
+
+import com.example.library.cache.CacheStats;
+import com.example.library.cache.EntityCache;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A read-through caching decorator for any {@link BookDao}.
+ * <p>
+ * Lookups by ID are served from the cache; writes go to the underlying DAO and then invalidate
+ * the affected entry, once straight away and once more when the surrounding unit of work commits
+ * or rolls back, so an uncommitted row read back into the cache during the transaction is not
+ * served afterwards. Searches and listings are passed through uncached. Cached books are copied
+ * on the way in and out, so callers can modify the books they get back.
+ */
+public class CachingBookDao implements BookDao {
+
+    private final BookDao delegate;
+    private final EntityCache<Integer, Book> cache;
+    private final TransactionRunner transactionRunner;
+
+    /**
+     * Constructs a CachingBookDao.
+     *
+     * @param delegate          The DAO that reads and writes the database.
+     * @param cache             The cache for books by ID.
+     * @param transactionRunner Repeats each invalidation when the write's transaction ends.
+     */
+    public CachingBookDao(BookDao delegate, EntityCache<Integer, Book> cache, TransactionRunner transactionRunner) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.transactionRunner = transactionRunner;
+    }
+
+    /**
+     * Gets the cache statistics.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public void addBook(Book book) {
+        delegate.addBook(book);
+    }
+
+    @Override
+    public int addBooks(Collection<Book> books) {
+        return delegate.addBooks(books);
+    }
+
+    @Override
+    public Optional<Book> findById(int bookId) {
+        Book cached = cache.get(bookId);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long generation = cache.generation();
+        long start = System.nanoTime();
+        Optional<Book> loaded = delegate.findById(bookId);
+        cache.recordLoad(System.nanoTime() - start);
+        loaded.ifPresent(book -> cache.put(bookId, copy(book), generation));
+        return loaded;
+    }
+
+    @Override
+    public Map<Integer, Book> findByIds(Collection<Integer> bookIds) {
+        Map<Integer, Book> books = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer bookId : bookIds) {
+            Book cached = cache.get(bookId);
+            if (cached != null) {
+                books.put(bookId, copy(cached));
+            } else {
+                missing.add(bookId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = cache.generation();
+            long start = System.nanoTime();
+            Map<Integer, Book> loaded = delegate.findByIds(missing);
+            cache.recordLoad(System.nanoTime() - start);
+            loaded.forEach((bookId, book) -> {
+                cache.put(bookId, copy(book), generation);
+                books.put(bookId, book);
+            });
+        }
+        return books;
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void updateBook(Book book) {
+        try {
+            delegate.updateBook(book);
+        } finally {
+            invalidate(book.getBookId());
+        }
+    }
+
+    @Override
+    public boolean compareAndSetAvailability(int bookId, boolean expected, boolean available) {
+        try {
+            return delegate.compareAndSetAvailability(bookId, expected, available);
+        } finally {
+            invalidate(bookId);
+        }
+    }
+
+    @Override
+    public void deleteBook(int bookId) {
+        try {
+            delegate.deleteBook(bookId);
+        } finally {
+            invalidate(bookId);
+        }
+    }
+
+    @Override
+    public List<Book> findByTitle(String title) {
+        return delegate.findByTitle(title);
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author) {
+        return delegate.findByAuthor(author);
+    }
+
+    @Override
+    public List<Book> findAvailableBooks() {
+        return delegate.findAvailableBooks();
+    }
+
+    @Override
+    public List<Book> findAll(int afterBookId, int limit) {
+        return delegate.findAll(afterBookId, limit);
+    }
+
+    @Override
+    public List<Book> findByTitle(String title, int afterBookId, int limit) {
+        return delegate.findByTitle(title, afterBookId, limit);
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author, int afterBookId, int limit) {
+        return delegate.findByAuthor(author, afterBookId, limit);
+    }
+
+    @Override
+    public List<Book> findAvailableBooks(int afterBookId, int limit) {
+        return delegate.findAvailableBooks(afterBookId, limit);
+    }
+
+    @Override
+    public List<Book> findByCategory(int categoryId, int afterBookId, int limit) {
+        return delegate.findByCategory(categoryId, afterBookId, limit);
+    }
+
+    private void invalidate(int bookId) {
+        cache.invalidate(bookId);
+        transactionRunner.afterCompletion(() -> cache.invalidate(bookId));
+    }
+
+    private static Book copy(Book book) {
+        return new Book(book.getBookId(), book.getTitle(), book.getAuthor(), book.isAvailable(), book.getCategoryId());
+    }
+}
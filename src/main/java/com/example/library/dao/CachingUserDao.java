@@ -0,0 +1,160 @@
+package com.example.library.dao;
+
+import com.example.library.cache.CacheStats;
+import com.example.library.cache.EntityCache;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Librarian;
+import com.example.library.model.Student;
+import com.example.library.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A read-through caching decorator for any {@link UserDao}.
+ * <p>
+ * Lookups by ID are served from the cache; writes go to the underlying DAO and then invalidate
+ * the affected entry, once straight away and once more when the surrounding unit of work commits
+ * or rolls back, so an uncommitted row read back into the cache during the transaction is not
+ * served afterwards. Cached users are copied on the way in and out, so callers can modify the
+ * users they get back.
+ */
+public class CachingUserDao implements UserDao {
+
+    private final UserDao delegate;
+    private final EntityCache<Integer, User> cache;
+    private final TransactionRunner transactionRunner;
+
+    /**
+     * Constructs a CachingUserDao.
+     *
+     * @param delegate          The DAO that reads and writes the database.
+     * @param cache             The cache for users by ID.
+     * @param transactionRunner Repeats each invalidation when the write's transaction ends.
+     */
+    public CachingUserDao(UserDao delegate, EntityCache<Integer, User> cache, TransactionRunner transactionRunner) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.transactionRunner = transactionRunner;
+    }
+
+    /**
+     * Gets the cache statistics.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public void addUser(User user) {
+        delegate.addUser(user);
+    }
+
+    @Override
+    public int addUsers(Collection<User> users) {
+        return delegate.addUsers(users);
+    }
+
+    @Override
+    public Optional<User> findById(int userId) {
+        User cached = cache.get(userId);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long generation = cache.generation();
+        long start = System.nanoTime();
+        Optional<User> loaded = delegate.findById(userId);
+        cache.recordLoad(System.nanoTime() - start);
+        loaded.ifPresent(user -> cache.put(userId, copy(user), generation));
+        return loaded;
+    }
+
+    @Override
+    public Map<Integer, User> findByIds(Collection<Integer> userIds) {
+        Map<Integer, User> users = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer userId : userIds) {
+            User cached = cache.get(userId);
+            if (cached != null) {
+                users.put(userId, copy(cached));
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = cache.generation();
+            long start = System.nanoTime();
+            Map<Integer, User> loaded = delegate.findByIds(missing);
+            cache.recordLoad(System.nanoTime() - start);
+            loaded.forEach((userId, user) -> {
+                cache.put(userId, copy(user), generation);
+                users.put(userId, user);
+            });
+        }
+        return users;
+    }
+
+    @Override
+    public List<User> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void updateUser(User user) {
+        try {
+            delegate.updateUser(user);
+        } finally {
+            invalidate(user.getUserId());
+        }
+    }
+
+    @Override
+    public void deleteUser(int userId) {
+        try {
+            delegate.deleteUser(userId);
+        } finally {
+            invalidate(userId);
+        }
+    }
+
+    @Override
+    public List<User> findAll(int afterUserId, int limit) {
+        return delegate.findAll(afterUserId, limit);
+    }
+
+    private void invalidate(int userId) {
+        cache.invalidate(userId);
+        transactionRunner.afterCompletion(() -> cache.invalidate(userId));
+    }
+
+    private static User copy(User user) {
+        User copy;
+        if (user instanceof Student student) {
+            copy = new Student(student.getName(), student.getDepartment(), student.getYearOfStudy());
+        } else if (user instanceof Librarian librarian) {
+            copy = new Librarian(librarian.getName(), librarian.getEmployeeId());
+        } else {
+            return user;
+        }
+        copy.setUserId(user.getUserId());
+        copy.setBorrowedBookIds(new ArrayList<>(user.getBorrowedBookIds()));
+        return copy;
+    }
+}
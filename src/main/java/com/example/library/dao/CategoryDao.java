@@ -0,0 +1,57 @@
+package com.example.library.dao;
+
+import com.example.library.model.Category;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DAO interface for Category operations.
+ * <p>
+ * Categories are few and rarely change, so implementations may answer reads from memory;
+ * {@link #refresh()} reloads them after changes made outside this DAO.
+ */
+public interface CategoryDao {
+
+    /**
+     * Adds a new category to the database.
+     *
+     * @param category The category to add.
+     */
+    void addCategory(Category category);
+
+    /**
+     * Finds a category by its ID.
+     *
+     * @param categoryId The ID of the category to find.
+     * @return An Optional containing the category if found, or empty if not.
+     */
+    Optional<Category> findById(int categoryId);
+
+    /**
+     * Finds a category by its name, ignoring case.
+     *
+     * @param name The name of the category to find.
+     * @return An Optional containing the category if found, or empty if not.
+     */
+    Optional<Category> findByName(String name);
+
+    /**
+     * Retrieves all categories, ordered by name.
+     *
+     * @return A list of all categories.
+     */
+    List<Category> findAll();
+
+    /**
+     * Checks whether a category exists.
+     *
+     * @param categoryId The ID of the category.
+     * @return true if the category exists.
+     */
+    boolean exists(int categoryId);
+
+    /**
+     * Reloads the categories from the database.
+     */
+    void refresh();
+}
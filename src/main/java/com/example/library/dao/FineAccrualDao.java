@@ -0,0 +1,27 @@
+package com.example.library.dao;
+
+import com.example.library.model.FineAccrualCheckpoint;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * DAO interface for the checkpoints of the nightly fine accrual job.
+ */
+public interface FineAccrualDao {
+
+    /**
+     * Finds the checkpoint of the run for a day.
+     *
+     * @param runDate The date fines are accrued up to.
+     * @return An Optional containing the checkpoint if the run has started, or empty if not.
+     */
+    Optional<FineAccrualCheckpoint> findCheckpoint(LocalDate runDate);
+
+    /**
+     * Creates or replaces the checkpoint of the run for the checkpoint's day.
+     *
+     * @param checkpoint The checkpoint to store.
+     * @return true if the checkpoint was stored.
+     */
+    boolean saveCheckpoint(FineAccrualCheckpoint checkpoint);
+}
@@ -0,0 +1,62 @@
+package com.example.library.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Helpers for multi-get queries of the form {@code ... WHERE id IN (?, ?, ...)}.
+ * <p>
+ * IDs are queried in fixed-size chunks and the last chunk is padded by repeating its final ID,
+ * so every chunk uses the same SQL text and hits the same cached prepared statement.
+ */
+final class InClause {
+
+    static final int CHUNK_SIZE = 100;
+
+    private static final String PLACEHOLDERS = "?" + ", ?".repeat(CHUNK_SIZE - 1);
+
+    private InClause() {
+    }
+
+    /**
+     * Builds the SQL for one chunk, e.g. {@code sql("SELECT * FROM books WHERE book_id")}.
+     *
+     * @param prefix The query up to and including the column being matched.
+     * @return The query with an IN list of {@link #CHUNK_SIZE} placeholders.
+     */
+    static String sql(String prefix) {
+        return prefix + " IN (" + PLACEHOLDERS + ")";
+    }
+
+    /**
+     * Splits IDs into de-duplicated chunks of at most {@link #CHUNK_SIZE}.
+     *
+     * @param ids The IDs to split.
+     * @return The chunks, in first-seen order.
+     */
+    static List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Binds a chunk to the IN list starting at parameter 1, padding it to {@link #CHUNK_SIZE}.
+     *
+     * @param pstmt The statement prepared from {@link #sql(String)}.
+     * @param chunk A non-empty chunk from {@link #chunks(Collection)}.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    static void bind(PreparedStatement pstmt, List<Integer> chunk) throws SQLException {
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            pstmt.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+        }
+    }
+}
@@ -7,75 +7,113 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.library.db.DataAccessException;
 import com.example.library.db.DatabaseManager;
 import com.example.library.model.Book;
 
 public class JdbcBookDao implements BookDao {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcBookDao.class);
+    private static final String ID_SEQUENCE = "books_seq";
+    private static final String INSERT_SQL = "INSERT INTO books (book_id, title, author, is_available, category_id) VALUES (?, ?, ?, ?, ?)";
     private final DatabaseManager databaseManager;
+    private final CategoryDao categoryDao;
 
     public JdbcBookDao(DatabaseManager databaseManager) {
+        this(databaseManager, new JdbcCategoryDao(databaseManager));
+    }
+
+    /**
+     * Constructs a JdbcBookDao that validates book categories against the given DAO's
+     * in-memory category map instead of querying the categories table on every write.
+     *
+     * @param databaseManager The database manager.
+     * @param categoryDao     The category DAO.
+     */
+    public JdbcBookDao(DatabaseManager databaseManager, CategoryDao categoryDao) {
         this.databaseManager = databaseManager;
+        this.categoryDao = categoryDao;
     }
 
     @Override
     public void addBook(Book book) {
-        String sql = "INSERT INTO books (title, author, is_available, category_id) VALUES (?, ?, ?, ?)";
         try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, book.getTitle());
-            pstmt.setString(2, book.getAuthor());
-            pstmt.setBoolean(3, book.isAvailable());
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            int bookId = databaseManager.nextId(conn, ID_SEQUENCE);
+            pstmt.setInt(1, bookId);
+            pstmt.setString(2, book.getTitle());
+            pstmt.setString(3, book.getAuthor());
+            pstmt.setBoolean(4, book.isAvailable());
             // Ensure category exists; if not, insert with NULL to avoid FK constraint errors in tests
-            int categoryId = book.getCategoryId();
-            if (categoryId > 0) {
-                String checkSql = "SELECT 1 FROM categories WHERE category_id = ?";
-                try (PreparedStatement check = conn.prepareStatement(checkSql)) {
-                    check.setInt(1, categoryId);
-                    try (ResultSet rs = check.executeQuery()) {
-                        if (rs.next()) {
-                            pstmt.setInt(4, categoryId);
-                        } else {
-                            pstmt.setNull(4, Types.INTEGER);
-                        }
-                    }
-                }
-            } else {
-                pstmt.setNull(4, Types.INTEGER);
-            }
+            setCategory(pstmt, 5, book.getCategoryId());
             pstmt.executeUpdate();
+            book.setBookId(bookId);
+            logger.info("Added book: {}", book);
+        } catch (SQLException e) {
+            logger.error("Error adding book", e);
+            databaseManager.markRollbackOnly();
+        }
+    }
 
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    book.setBookId(generatedKeys.getInt(1));
+    @Override
+    public int addBooks(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return 0;
+        }
+        try {
+            return databaseManager.inTransaction(() -> insertBatched(books));
+        } catch (DataAccessException e) {
+            logger.error("Error adding books", e);
+            books.forEach(book -> book.setBookId(0));
+            return 0;
+        }
+    }
+
+    /**
+     * Inserts the books on the current unit of work's connection, one JDBC batch at a time.
+     * IDs are allocated client-side, so no generated keys have to be read back.
+     */
+    private int insertBatched(Collection<Book> books) {
+        int batchSize = databaseManager.getBatchSize();
+        int inserted = 0;
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            int batched = 0;
+            for (Book book : books) {
+                book.setBookId(databaseManager.nextId(conn, ID_SEQUENCE));
+                pstmt.setInt(1, book.getBookId());
+                pstmt.setString(2, book.getTitle());
+                pstmt.setString(3, book.getAuthor());
+                pstmt.setBoolean(4, book.isAvailable());
+                setCategory(pstmt, 5, book.getCategoryId());
+                pstmt.addBatch();
+                if (++batched == batchSize) {
+                    pstmt.executeBatch();
+                    inserted += batched;
+                    batched = 0;
                 }
             }
-            // Fallback: some DB drivers (or configurations) may not return generated keys.
-            // Try to find the inserted book by title+author as a last resort (tests use single-threaded DB).
-            if (book.getBookId() == 0) {
-                String lookupSql = "SELECT book_id FROM books WHERE title = ? AND author = ? ORDER BY book_id DESC LIMIT 1";
-                try (PreparedStatement lookup = conn.prepareStatement(lookupSql)) {
-                    lookup.setString(1, book.getTitle());
-                    lookup.setString(2, book.getAuthor());
-                    try (ResultSet rs = lookup.executeQuery()) {
-                        if (rs.next()) {
-                            book.setBookId(rs.getInt("book_id"));
-                        }
-                    }
-                } catch (SQLException ignore) {
-                    // ignore fallback failures
-                }
+            if (batched > 0) {
+                pstmt.executeBatch();
+                inserted += batched;
             }
-            logger.info("Added book: {}", book);
+            logger.info("Added {} books", inserted);
+            return inserted;
         } catch (SQLException e) {
-            logger.error("Error adding book", e);
+            logger.error("Error adding books", e);
+            books.forEach(book -> book.setBookId(0));
+            databaseManager.markRollbackOnly();
+            return 0;
         }
     }
 
@@ -96,6 +134,35 @@ public class JdbcBookDao implements BookDao {
         return Optional.empty();
     }
 
+    @Override
+    public Map<Integer, Book> findByIds(Collection<Integer> bookIds) {
+        Map<Integer, Book> books = new HashMap<>();
+        if (bookIds.isEmpty()) {
+            return books;
+        }
+        String sql = InClause.sql("SELECT * FROM books WHERE book_id");
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (List<Integer> chunk : InClause.chunks(bookIds)) {
+                InClause.bind(pstmt, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Book book = mapRowToBook(rs);
+                        books.put(book.getBookId(), book);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding books by IDs", e);
+        }
+        return books;
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return JdbcStreams.stream(databaseManager, "SELECT * FROM books", JdbcStreams.Binder.NONE, this::mapRowToBook);
+    }
+
     @Override
     public List<Book> findAll() {
         List<Book> books = new ArrayList<>();
@@ -120,30 +187,34 @@ public class JdbcBookDao implements BookDao {
             pstmt.setString(1, book.getTitle());
             pstmt.setString(2, book.getAuthor());
             pstmt.setBoolean(3, book.isAvailable());
-            int categoryId = book.getCategoryId();
-            if (categoryId > 0) {
-                String checkSql = "SELECT 1 FROM categories WHERE category_id = ?";
-                try (PreparedStatement check = conn.prepareStatement(checkSql)) {
-                    check.setInt(1, categoryId);
-                    try (ResultSet rs = check.executeQuery()) {
-                        if (rs.next()) {
-                            pstmt.setInt(4, categoryId);
-                        } else {
-                            pstmt.setNull(4, Types.INTEGER);
-                        }
-                    }
-                }
-            } else {
-                pstmt.setNull(4, Types.INTEGER);
-            }
+            setCategory(pstmt, 4, book.getCategoryId());
             pstmt.setInt(5, book.getBookId());
             pstmt.executeUpdate();
             logger.info("Updated book: {}", book);
         } catch (SQLException e) {
             logger.error("Error updating book", e);
+            databaseManager.markRollbackOnly();
         }
     }
 
+    @Override
+    public boolean compareAndSetAvailability(int bookId, boolean expected, boolean available) {
+        String sql = "UPDATE books SET is_available = ? WHERE book_id = ? AND is_available = ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setBoolean(1, available);
+            pstmt.setInt(2, bookId);
+            pstmt.setBoolean(3, expected);
+            boolean updated = pstmt.executeUpdate() == 1;
+            logger.debug("Availability of book {} {} -> {}: {}", bookId, expected, available, updated ? "updated" : "unchanged");
+            return updated;
+        } catch (SQLException e) {
+            logger.error("Error updating book availability", e);
+            databaseManager.markRollbackOnly();
+        }
+        return false;
+    }
+
     @Override
     public void deleteBook(int bookId) {
         String sql = "DELETE FROM books WHERE book_id = ?";
@@ -154,6 +225,7 @@ public class JdbcBookDao implements BookDao {
             logger.info("Deleted book with ID: {}", bookId);
         } catch (SQLException e) {
             logger.error("Error deleting book", e);
+            databaseManager.markRollbackOnly();
         }
     }
 
@@ -209,6 +281,116 @@ public class JdbcBookDao implements BookDao {
         return books;
     }
 
+    @Override
+    public List<Book> findAll(int afterBookId, int limit) {
+        List<Book> results = new ArrayList<>();
+        String sql = "SELECT * FROM books WHERE book_id > ? ORDER BY book_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterBookId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of books", e);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Book> findByTitle(String title, int afterBookId, int limit) {
+        List<Book> results = new ArrayList<>();
+        String sql = "SELECT * FROM books WHERE UPPER(title) LIKE UPPER(?) AND book_id > ? ORDER BY book_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, "%" + title + "%");
+            pstmt.setInt(2, afterBookId);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of books by title", e);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author, int afterBookId, int limit) {
+        List<Book> results = new ArrayList<>();
+        String sql = "SELECT * FROM books WHERE UPPER(author) LIKE UPPER(?) AND book_id > ? ORDER BY book_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, "%" + author + "%");
+            pstmt.setInt(2, afterBookId);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of books by author", e);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Book> findByCategory(int categoryId, int afterBookId, int limit) {
+        List<Book> results = new ArrayList<>();
+        String sql = "SELECT * FROM books WHERE category_id = ? AND book_id > ? ORDER BY book_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, categoryId);
+            pstmt.setInt(2, afterBookId);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of books by category", e);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Book> findAvailableBooks(int afterBookId, int limit) {
+        List<Book> results = new ArrayList<>();
+        String sql = "SELECT * FROM books WHERE is_available = TRUE AND book_id > ? ORDER BY book_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterBookId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of available books", e);
+        }
+        return results;
+    }
+
+    /**
+     * Binds the category ID, or NULL if the category does not exist, checked against the
+     * category DAO's in-memory map rather than the database.
+     */
+    private void setCategory(PreparedStatement pstmt, int index, int categoryId) throws SQLException {
+        if (categoryDao.exists(categoryId)) {
+            pstmt.setInt(index, categoryId);
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+    }
+
     private Book mapRowToBook(ResultSet rs) throws SQLException {
         return new Book(
                 rs.getInt("book_id"),
@@ -0,0 +1,255 @@
+package com.example.library.dao;
+
+import com.example.library.db.DataAccessException;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.BorrowTotals;
+import com.example.library.model.DailyLoanCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A BorrowStatisticsDao over the summary tables. Each borrow updates its book's row, and one of
+ * {@code counterSlots} rows for its category and for its day, picked at random, so concurrent
+ * borrows of the same day or category rarely wait on each other's row locks. The slot rows are
+ * summed when read.
+ */
+public class JdbcBorrowStatisticsDao implements BorrowStatisticsDao {
+
+    /** The default number of rows each category and day is spread over. */
+    public static final int DEFAULT_COUNTER_SLOTS = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcBorrowStatisticsDao.class);
+    private static final String UNIQUE_VIOLATION = "23505";
+    private final DatabaseManager databaseManager;
+    private final int counterSlots;
+
+    public JdbcBorrowStatisticsDao(DatabaseManager databaseManager) {
+        this(databaseManager, DEFAULT_COUNTER_SLOTS);
+    }
+
+    /**
+     * Constructs a JdbcBorrowStatisticsDao.
+     *
+     * @param databaseManager The database manager.
+     * @param counterSlots    The number of rows each category and day is spread over; at least 1.
+     */
+    public JdbcBorrowStatisticsDao(DatabaseManager databaseManager, int counterSlots) {
+        this.databaseManager = databaseManager;
+        this.counterSlots = Math.max(1, counterSlots);
+    }
+
+    @Override
+    public void recordBorrow(int bookId, int categoryId, LocalDate date) {
+        int slot = ThreadLocalRandom.current().nextInt(counterSlots);
+        // Tables in a fixed order, so concurrent borrows lock rows in the same order
+        try (Connection conn = databaseManager.getConnection()) {
+            increment(conn, "book_borrow_stats", "borrow_count", new String[]{"book_id"}, bookId);
+            if (categoryId > 0) {
+                increment(conn, "category_borrow_stats", "borrow_count", new String[]{"category_id", "slot"}, categoryId, slot);
+            }
+            increment(conn, "daily_loan_stats", "borrow_count", new String[]{"stat_date", "slot"}, Date.valueOf(date), slot);
+        } catch (SQLException e) {
+            logger.error("Error recording borrow statistics", e);
+            databaseManager.markRollbackOnly();
+        }
+    }
+
+    @Override
+    public void recordReturn(LocalDate date) {
+        int slot = ThreadLocalRandom.current().nextInt(counterSlots);
+        try (Connection conn = databaseManager.getConnection()) {
+            increment(conn, "daily_loan_stats", "return_count", new String[]{"stat_date", "slot"}, Date.valueOf(date), slot);
+        } catch (SQLException e) {
+            logger.error("Error recording return statistics", e);
+            databaseManager.markRollbackOnly();
+        }
+    }
+
+    /**
+     * Adds one to a counter row, creating the row on first use. Two transactions may create the
+     * same row at once; the loser's insert fails on the primary key and it retries the update.
+     * Inside a transaction the insert runs under a savepoint, since some databases abort the
+     * whole transaction on a failed statement otherwise.
+     */
+    private void increment(Connection conn, String table, String counter, String[] keyColumns, Object... keys) throws SQLException {
+        String updateSql = "UPDATE " + table + " SET " + counter + " = " + counter + " + 1 WHERE "
+                + String.join(" = ? AND ", keyColumns) + " = ?";
+        if (executeWithKeys(conn, updateSql, keys) > 0) {
+            return;
+        }
+        String insertSql = "INSERT INTO " + table + " (" + String.join(", ", keyColumns) + ", " + counter + ") VALUES ("
+                + "?, ".repeat(keyColumns.length) + "1)";
+        Savepoint savepoint = conn.getAutoCommit() ? null : conn.setSavepoint();
+        try {
+            executeWithKeys(conn, insertSql, keys);
+            if (savepoint != null) {
+                conn.releaseSavepoint(savepoint);
+            }
+        } catch (SQLException e) {
+            if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw e;
+            }
+            if (savepoint != null) {
+                conn.rollback(savepoint);
+            }
+            executeWithKeys(conn, updateSql, keys);
+        }
+    }
+
+    private int executeWithKeys(Connection conn, String sql, Object... keys) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < keys.length; i++) {
+                pstmt.setObject(i + 1, keys[i]);
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public BorrowTotals loadTotals() {
+        BorrowTotals totals = new BorrowTotals();
+        try (Connection conn = databaseManager.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT book_id, borrow_count FROM book_borrow_stats");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.addBookCount(rs.getInt(1), rs.getLong(2));
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT category_id, SUM(borrow_count) FROM category_borrow_stats GROUP BY category_id");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.addCategoryCount(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error loading borrow statistics", e);
+        }
+        return totals;
+    }
+
+    @Override
+    public List<DailyLoanCount> findDailyCounts(LocalDate from, LocalDate to) {
+        List<DailyLoanCount> results = new ArrayList<>();
+        String sql = "SELECT stat_date, SUM(borrow_count) AS borrow_count, SUM(return_count) AS return_count"
+                + " FROM daily_loan_stats WHERE stat_date BETWEEN ? AND ? GROUP BY stat_date ORDER BY stat_date";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(new DailyLoanCount(
+                            rs.getDate("stat_date").toLocalDate(),
+                            rs.getLong("borrow_count"),
+                            rs.getLong("return_count")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding daily loan statistics", e);
+        }
+        return results;
+    }
+
+    @Override
+    public BorrowTotals countHistory(int fromTransactionId, int toTransactionId) {
+        BorrowTotals totals = new BorrowTotals();
+        String range = " WHERE t.transaction_id BETWEEN ? AND ?";
+        try (Connection conn = databaseManager.getConnection()) {
+            forEachCount(conn, "SELECT t.book_id, COUNT(*) FROM transactions t" + range + " GROUP BY t.book_id",
+                    fromTransactionId, toTransactionId, rs -> totals.addBookCount(rs.getInt(1), rs.getLong(2)));
+            forEachCount(conn, "SELECT b.category_id, COUNT(*) FROM transactions t JOIN books b ON b.book_id = t.book_id"
+                            + range + " AND b.category_id IS NOT NULL GROUP BY b.category_id",
+                    fromTransactionId, toTransactionId, rs -> totals.addCategoryCount(rs.getInt(1), rs.getLong(2)));
+            forEachCount(conn, "SELECT t.borrow_date, COUNT(*) FROM transactions t" + range + " GROUP BY t.borrow_date",
+                    fromTransactionId, toTransactionId, rs -> totals.addDailyBorrows(rs.getDate(1).toLocalDate(), rs.getLong(2)));
+            forEachCount(conn, "SELECT t.return_date, COUNT(*) FROM transactions t" + range
+                            + " AND t.return_date IS NOT NULL GROUP BY t.return_date",
+                    fromTransactionId, toTransactionId, rs -> totals.addDailyReturns(rs.getDate(1).toLocalDate(), rs.getLong(2)));
+        } catch (SQLException e) {
+            throw new DataAccessException("Error counting loan history", e);
+        }
+        return totals;
+    }
+
+    private interface RowConsumer {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    private void forEachCount(Connection conn, String sql, int from, int to, RowConsumer consumer) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, from);
+            pstmt.setInt(2, to);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean replaceAll(BorrowTotals totals) {
+        try {
+            return databaseManager.inTransaction(() -> {
+                try (Connection conn = databaseManager.getConnection();
+                     Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM book_borrow_stats");
+                    stmt.executeUpdate("DELETE FROM category_borrow_stats");
+                    stmt.executeUpdate("DELETE FROM daily_loan_stats");
+                    insertCounts(conn, "INSERT INTO book_borrow_stats (book_id, borrow_count) VALUES (?, ?)", totals.getBookCounts());
+                    insertCounts(conn, "INSERT INTO category_borrow_stats (category_id, slot, borrow_count) VALUES (?, 0, ?)", totals.getCategoryCounts());
+                    insertDailyCounts(conn, totals);
+                    return true;
+                } catch (SQLException e) {
+                    logger.error("Error replacing borrow statistics", e);
+                    databaseManager.markRollbackOnly();
+                    return false;
+                }
+            });
+        } catch (DataAccessException e) {
+            logger.error("Error replacing borrow statistics", e);
+            return false;
+        }
+    }
+
+    private void insertCounts(Connection conn, String sql, Map<Integer, Long> counts) throws SQLException {
+        int batchSize = databaseManager.getBatchSize();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int batched = 0;
+            for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+                pstmt.setInt(1, entry.getKey());
+                pstmt.setLong(2, entry.getValue());
+                pstmt.addBatch();
+                if (++batched == batchSize) {
+                    pstmt.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    private void insertDailyCounts(Connection conn, BorrowTotals totals) throws SQLException {
+        String sql = "INSERT INTO daily_loan_stats (stat_date, slot, borrow_count, return_count) VALUES (?, 0, ?, ?)";
+        List<LocalDate> dates = new ArrayList<>(totals.getDailyBorrows().keySet());
+        totals.getDailyReturns().keySet().stream().filter(d -> !totals.getDailyBorrows().containsKey(d)).forEach(dates::add);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (LocalDate date : dates) {
+                pstmt.setDate(1, Date.valueOf(date));
+                pstmt.setLong(2, totals.getDailyBorrows().getOrDefault(date, 0L));
+                pstmt.setLong(3, totals.getDailyReturns().getOrDefault(date, 0L));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.library.dao;
+
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A CategoryDao that keeps every category in memory.
+ * <p>
+ * The whole table is loaded on first use and replaced as one immutable map, so reads never touch
+ * the database and never see a half-loaded table. A lookup for an unknown ID reloads the table,
+ * at most once per {@value #MIN_RELOAD_INTERVAL_MS} ms, to pick up categories added elsewhere.
+ */
+public class JdbcCategoryDao implements CategoryDao {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcCategoryDao.class);
+    private static final long MIN_RELOAD_INTERVAL_MS = 1000;
+    private final DatabaseManager databaseManager;
+    private volatile Map<Integer, Category> categories;
+    private volatile long lastLoadMillis;
+
+    public JdbcCategoryDao(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    @Override
+    public void addCategory(Category category) {
+        String sql = "INSERT INTO categories (name, description) VALUES (?, ?)";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, category.getName());
+            pstmt.setString(2, category.getDescription());
+            pstmt.executeUpdate();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    category.setCategoryId(generatedKeys.getInt(1));
+                }
+            }
+            if (category.getCategoryId() > 0) {
+                Category added = copy(category);
+                // A rolled-back unit of work must not leave its category in the map.
+                databaseManager.afterCommit(() -> put(added));
+            }
+            logger.info("Added category: {}", category);
+        } catch (SQLException e) {
+            logger.error("Error adding category", e);
+            databaseManager.markRollbackOnly();
+        }
+    }
+
+    @Override
+    public Optional<Category> findById(int categoryId) {
+        Category category = categories().get(categoryId);
+        if (category == null && reloadAllowed()) {
+            category = load().get(categoryId);
+        }
+        return Optional.ofNullable(category).map(JdbcCategoryDao::copy);
+    }
+
+    @Override
+    public Optional<Category> findByName(String name) {
+        return categories().values().stream()
+                .filter(c -> c.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .map(JdbcCategoryDao::copy);
+    }
+
+    @Override
+    public List<Category> findAll() {
+        List<Category> result = new ArrayList<>();
+        categories().values().forEach(c -> result.add(copy(c)));
+        result.sort(Comparator.comparing(Category::getName, String.CASE_INSENSITIVE_ORDER));
+        return result;
+    }
+
+    @Override
+    public boolean exists(int categoryId) {
+        return categoryId > 0 && findById(categoryId).isPresent();
+    }
+
+    @Override
+    public void refresh() {
+        load();
+    }
+
+    private Map<Integer, Category> categories() {
+        Map<Integer, Category> current = categories;
+        return current != null ? current : load();
+    }
+
+    private boolean reloadAllowed() {
+        return System.currentTimeMillis() - lastLoadMillis >= MIN_RELOAD_INTERVAL_MS;
+    }
+
+    /**
+     * Loads the whole table and swaps it in. Inside a unit of work the load can see the unit's own
+     * uncommitted categories, so the loaded map is returned at once but only swapped in once the
+     * unit commits. On failure the previous map is kept.
+     */
+    private synchronized Map<Integer, Category> load() {
+        String sql = "SELECT * FROM categories";
+        Map<Integer, Category> loaded = new HashMap<>();
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Category category = mapRowToCategory(rs);
+                loaded.put(category.getCategoryId(), category);
+            }
+            Map<Integer, Category> snapshot = Map.copyOf(loaded);
+            databaseManager.afterCommit(() -> categories = snapshot);
+            logger.debug("Loaded {} categories", loaded.size());
+            lastLoadMillis = System.currentTimeMillis();
+            return snapshot;
+        } catch (SQLException e) {
+            logger.error("Error loading categories", e);
+            if (categories == null) {
+                categories = Map.of();
+            }
+        }
+        lastLoadMillis = System.currentTimeMillis();
+        return categories;
+    }
+
+    private synchronized void put(Category category) {
+        Map<Integer, Category> updated = new HashMap<>(categories());
+        updated.put(category.getCategoryId(), category);
+        categories = Map.copyOf(updated);
+    }
+
+    private static Category copy(Category category) {
+        return new Category(category.getCategoryId(), category.getName(), category.getDescription());
+    }
+
+    private Category mapRowToCategory(ResultSet rs) throws SQLException {
+        return new Category(
+                rs.getInt("category_id"),
+                rs.getString("name"),
+                rs.getString("description")
+        );
+    }
+}
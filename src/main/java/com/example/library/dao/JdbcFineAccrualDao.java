@@ -0,0 +1,65 @@
+package com.example.library.dao;
+
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.FineAccrualCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Optional;
+
+public class JdbcFineAccrualDao implements FineAccrualDao {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcFineAccrualDao.class);
+    private final DatabaseManager databaseManager;
+
+    public JdbcFineAccrualDao(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    @Override
+    public Optional<FineAccrualCheckpoint> findCheckpoint(LocalDate runDate) {
+        String sql = "SELECT last_transaction_id, loans_processed, completed FROM fine_accrual_checkpoints WHERE run_date = ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(runDate));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new FineAccrualCheckpoint(runDate, rs.getInt("last_transaction_id"),
+                            rs.getLong("loans_processed"), rs.getBoolean("completed")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding fine accrual checkpoint", e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean saveCheckpoint(FineAccrualCheckpoint checkpoint) {
+        // Only the accrual job writes checkpoints, one run at a time, so update-then-insert cannot race.
+        String updateSql = "UPDATE fine_accrual_checkpoints SET last_transaction_id = ?, loans_processed = ?, completed = ? WHERE run_date = ?";
+        String insertSql = "INSERT INTO fine_accrual_checkpoints (last_transaction_id, loans_processed, completed, run_date) VALUES (?, ?, ?, ?)";
+        try (Connection conn = databaseManager.getConnection()) {
+            if (execute(conn, updateSql, checkpoint) == 0) {
+                execute(conn, insertSql, checkpoint);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.error("Error saving fine accrual checkpoint", e);
+            databaseManager.markRollbackOnly();
+            return false;
+        }
+    }
+
+    private int execute(Connection conn, String sql, FineAccrualCheckpoint checkpoint) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, checkpoint.getLastTransactionId());
+            pstmt.setLong(2, checkpoint.getLoansProcessed());
+            pstmt.setBoolean(3, checkpoint.isCompleted());
+            pstmt.setDate(4, Date.valueOf(checkpoint.getRunDate()));
+            return pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.library.dao;
+
+import com.example.library.db.DataAccessException;
+import com.example.library.db.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Builds lazily-read {@link Stream}s over JDBC result sets.
+ * <p>
+ * Rows are fetched in batches of the configured fetch size through a forward-only, read-only
+ * cursor, so memory use does not depend on the number of rows. The stream holds its connection
+ * until it is closed.
+ */
+final class JdbcStreams {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcStreams.class);
+
+    /**
+     * Maps the current row of a result set to an object.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Sets the parameters of a statement.
+     */
+    @FunctionalInterface
+    interface Binder {
+        Binder NONE = pstmt -> { };
+
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    private JdbcStreams() {
+    }
+
+    /**
+     * Runs a query and streams its rows.
+     *
+     * @param databaseManager The source of the connection.
+     * @param sql             The query.
+     * @param binder          Sets the query parameters.
+     * @param mapper          Maps each row.
+     * @param <T>             The type of the mapped rows.
+     * @return A stream of rows that must be closed, or an empty stream if the query could not be run.
+     */
+    static <T> Stream<T> stream(DatabaseManager databaseManager, String sql, Binder binder, RowMapper<T> mapper) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = databaseManager.getConnection();
+            // Drivers such as PostgreSQL only use a cursor with fetch size inside a transaction.
+            // A pooled connection is rolled back and reset to auto-commit when it is returned.
+            if (conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+            }
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(databaseManager.getFetchSize());
+            binder.bind(pstmt);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            logger.error("Error opening stream for query: {}", sql, e);
+            closeQuietly(rs, pstmt, conn);
+            return Stream.empty();
+        }
+
+        ResultSet resultSet = rs;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(resultSet));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DataAccessException("Error reading row from query: " + sql, e);
+                }
+            }
+        };
+        PreparedStatement statement = pstmt;
+        Connection connection = conn;
+        return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(resultSet, statement, connection));
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.debug("Error closing JDBC resource", e);
+            }
+        }
+    }
+}
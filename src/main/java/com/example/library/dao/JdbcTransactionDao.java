@@ -1,14 +1,20 @@
 package com.example.library.dao;
 
+import com.example.library.db.DataAccessException;
 import com.example.library.db.DatabaseManager;
+import com.example.library.model.BookBorrowCount;
 import com.example.library.model.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class JdbcTransactionDao implements TransactionDao {
 
@@ -21,25 +27,23 @@ public class JdbcTransactionDao implements TransactionDao {
 
     @Override
     public void addTransaction(Transaction transaction) {
-        String sql = "INSERT INTO transactions (user_id, book_id, borrow_date, due_date, return_date, fine_amount) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO transactions (transaction_id, user_id, book_id, borrow_date, due_date, return_date, fine_amount) VALUES (?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, transaction.getUserId());
-            pstmt.setInt(2, transaction.getBookId());
-            pstmt.setDate(3, Date.valueOf(transaction.getBorrowDate()));
-            pstmt.setDate(4, Date.valueOf(transaction.getDueDate()));
-            pstmt.setDate(5, transaction.getReturnDate() != null ? Date.valueOf(transaction.getReturnDate()) : null);
-            pstmt.setDouble(6, transaction.getFineAmount());
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int transactionId = databaseManager.nextId(conn, "transactions_seq");
+            pstmt.setInt(1, transactionId);
+            pstmt.setInt(2, transaction.getUserId());
+            pstmt.setInt(3, transaction.getBookId());
+            pstmt.setDate(4, Date.valueOf(transaction.getBorrowDate()));
+            pstmt.setDate(5, Date.valueOf(transaction.getDueDate()));
+            pstmt.setDate(6, transaction.getReturnDate() != null ? Date.valueOf(transaction.getReturnDate()) : null);
+            pstmt.setDouble(7, transaction.getFineAmount());
             pstmt.executeUpdate();
-
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    transaction.setTransactionId(generatedKeys.getInt(1));
-                }
-            }
+            transaction.setTransactionId(transactionId);
             logger.info("Added transaction: {}", transaction);
         } catch (SQLException e) {
             logger.error("Error adding transaction", e);
+            databaseManager.markRollbackOnly();
         }
     }
 
@@ -78,6 +82,73 @@ public class JdbcTransactionDao implements TransactionDao {
         return transactions;
     }
 
+    @Override
+    public int countActiveByUserId(int userId) {
+        String sql = "SELECT COUNT(*) FROM transactions WHERE user_id = ? AND return_date IS NULL";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error counting active transactions by user ID", e);
+        }
+        return 0;
+    }
+
+    @Override
+    public List<BookBorrowCount> findMostBorrowedBooks(LocalDate from, LocalDate to, int categoryId, int limit) {
+        List<BookBorrowCount> results = new ArrayList<>();
+        // Rank in an inner query so only the top rows are joined back to books for their details.
+        // The inner join to books drops loans of deleted books before the limit, not after it.
+        StringBuilder sql = new StringBuilder("SELECT b.book_id, b.title, b.author, b.category_id, c.borrow_count FROM ")
+                .append("(SELECT t.book_id, COUNT(*) AS borrow_count FROM transactions t")
+                .append(" JOIN books cb ON cb.book_id = t.book_id");
+        if (categoryId > 0) {
+            sql.append(" AND cb.category_id = ?");
+        }
+        sql.append(" WHERE 1 = 1");
+        if (from != null) {
+            sql.append(" AND t.borrow_date >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND t.borrow_date <= ?");
+        }
+        sql.append(" GROUP BY t.book_id ORDER BY borrow_count DESC, t.book_id LIMIT ?) c")
+                .append(" JOIN books b ON b.book_id = c.book_id ORDER BY c.borrow_count DESC, b.book_id");
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (categoryId > 0) {
+                pstmt.setInt(index++, categoryId);
+            }
+            if (from != null) {
+                pstmt.setDate(index++, Date.valueOf(from));
+            }
+            if (to != null) {
+                pstmt.setDate(index++, Date.valueOf(to));
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(new BookBorrowCount(
+                            rs.getInt("book_id"),
+                            rs.getString("title"),
+                            rs.getString("author"),
+                            rs.getInt("category_id"),
+                            rs.getLong("borrow_count")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding most borrowed books", e);
+        }
+        return results;
+    }
+
     @Override
     public Optional<Transaction> findActiveTransactionByBookId(int bookId) {
         String sql = "SELECT * FROM transactions WHERE book_id = ? AND return_date IS NULL";
@@ -95,6 +166,167 @@ public class JdbcTransactionDao implements TransactionDao {
         return Optional.empty();
     }
 
+    @Override
+    public int[] findIdRange() {
+        String sql = "SELECT MIN(transaction_id), MAX(transaction_id) FROM transactions";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next() && rs.getObject(1) != null) {
+                return new int[]{rs.getInt(1), rs.getInt(2)};
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding transaction ID range", e);
+        }
+        return new int[]{0, -1};
+    }
+
+    @Override
+    public Map<Integer, Long> countBorrowsByBook(int fromTransactionId, int toTransactionId, LocalDate from, LocalDate to, int categoryId) {
+        StringBuilder sql = new StringBuilder("SELECT t.book_id, COUNT(*) FROM transactions t");
+        if (categoryId > 0) {
+            sql.append(" JOIN books b ON b.book_id = t.book_id AND b.category_id = ?");
+        }
+        sql.append(" WHERE t.transaction_id BETWEEN ? AND ?");
+        if (from != null) {
+            sql.append(" AND t.borrow_date >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND t.borrow_date <= ?");
+        }
+        sql.append(" GROUP BY t.book_id");
+
+        Map<Integer, Long> counts = new HashMap<>();
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (categoryId > 0) {
+                pstmt.setInt(index++, categoryId);
+            }
+            pstmt.setInt(index++, fromTransactionId);
+            pstmt.setInt(index++, toTransactionId);
+            if (from != null) {
+                pstmt.setDate(index++, Date.valueOf(from));
+            }
+            if (to != null) {
+                pstmt.setDate(index, Date.valueOf(to));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error counting borrows in transaction range", e);
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Transaction> findOverdue(int fromTransactionId, int toTransactionId, LocalDate today) {
+        List<Transaction> overdue = new ArrayList<>();
+        String sql = "SELECT * FROM transactions WHERE transaction_id BETWEEN ? AND ? AND return_date IS NULL AND due_date < ? ORDER BY transaction_id";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, fromTransactionId);
+            pstmt.setInt(2, toTransactionId);
+            pstmt.setDate(3, Date.valueOf(today));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    overdue.add(mapRowToTransaction(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding overdue transactions in range", e);
+        }
+        return overdue;
+    }
+
+    @Override
+    public List<Transaction> findOpenOverdue(LocalDate today, int afterTransactionId, int limit) {
+        List<Transaction> overdue = new ArrayList<>();
+        // Seeks idx_transactions_return_id to the page start and reads it in key order; the due
+        // date is checked on the rows found, so no sort of all overdue loans is needed per page.
+        String sql = "SELECT * FROM transactions WHERE return_date IS NULL AND transaction_id > ? AND due_date < ? ORDER BY transaction_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterTransactionId);
+            pstmt.setDate(2, Date.valueOf(today));
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    overdue.add(mapRowToTransaction(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding page of overdue transactions", e);
+        }
+        return overdue;
+    }
+
+    @Override
+    public int updateFines(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        try {
+            return databaseManager.inTransaction(() -> updateFinesBatched(transactions));
+        } catch (DataAccessException e) {
+            logger.error("Error updating fines", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Updates the fines on the current unit of work's connection, one JDBC batch at a time.
+     */
+    private int updateFinesBatched(List<Transaction> transactions) {
+        String sql = "UPDATE transactions SET fine_amount = ? WHERE transaction_id = ? AND return_date IS NULL";
+        int batchSize = databaseManager.getBatchSize();
+        int updated = 0;
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int batched = 0;
+            for (Transaction transaction : transactions) {
+                pstmt.setDouble(1, transaction.getFineAmount());
+                pstmt.setInt(2, transaction.getTransactionId());
+                pstmt.addBatch();
+                if (++batched == batchSize) {
+                    updated += countUpdated(pstmt.executeBatch());
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                updated += countUpdated(pstmt.executeBatch());
+            }
+            return updated;
+        } catch (SQLException e) {
+            logger.error("Error updating fines", e);
+            databaseManager.markRollbackOnly();
+            return -1;
+        }
+    }
+
+    private static int countUpdated(int[] counts) {
+        int updated = 0;
+        for (int count : counts) {
+            // Some drivers report SUCCESS_NO_INFO instead of a row count.
+            updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return updated;
+    }
+
+    @Override
+    public Stream<Transaction> streamAll() {
+        return JdbcStreams.stream(databaseManager, "SELECT * FROM transactions", JdbcStreams.Binder.NONE, this::mapRowToTransaction);
+    }
+
+    @Override
+    public Stream<Transaction> streamActive() {
+        return JdbcStreams.stream(databaseManager, "SELECT * FROM transactions WHERE return_date IS NULL",
+                JdbcStreams.Binder.NONE, this::mapRowToTransaction);
+    }
+
     @Override
     public List<Transaction> findAll() {
         List<Transaction> transactions = new ArrayList<>();
@@ -127,7 +359,67 @@ public class JdbcTransactionDao implements TransactionDao {
             logger.info("Updated transaction: {}", transaction);
         } catch (SQLException e) {
             logger.error("Error updating transaction", e);
+            databaseManager.markRollbackOnly();
+        }
+    }
+
+    @Override
+    public boolean closeTransaction(Transaction transaction) {
+        String sql = "UPDATE transactions SET return_date = ?, fine_amount = ? WHERE transaction_id = ? AND return_date IS NULL";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(transaction.getReturnDate()));
+            pstmt.setDouble(2, transaction.getFineAmount());
+            pstmt.setInt(3, transaction.getTransactionId());
+            if (pstmt.executeUpdate() == 0) {
+                return false;
+            }
+            logger.info("Closed transaction: {}", transaction);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Error closing transaction", e);
+            databaseManager.markRollbackOnly();
+            return false;
+        }
+    }
+
+    @Override
+    public List<Transaction> findAll(int afterTransactionId, int limit) {
+        List<Transaction> results = new ArrayList<>();
+        String sql = "SELECT * FROM transactions WHERE transaction_id > ? ORDER BY transaction_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterTransactionId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToTransaction(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of transactions", e);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Transaction> findByUserId(int userId, int afterTransactionId, int limit) {
+        List<Transaction> results = new ArrayList<>();
+        String sql = "SELECT * FROM transactions WHERE user_id = ? AND transaction_id > ? ORDER BY transaction_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, afterTransactionId);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToTransaction(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of transactions by user ID", e);
         }
+        return results;
     }
 
     private Transaction mapRowToTransaction(ResultSet rs) throws SQLException {
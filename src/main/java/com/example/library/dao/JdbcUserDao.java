@@ -1,5 +1,6 @@
 package com.example.library.dao;
 
+import com.example.library.db.DataAccessException;
 import com.example.library.db.DatabaseManager;
 import com.example.library.model.Librarian;
 import com.example.library.model.Student;
@@ -9,12 +10,18 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class JdbcUserDao implements UserDao {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcUserDao.class);
+    private static final String ID_SEQUENCE = "users_seq";
+    private static final String INSERT_SQL = "INSERT INTO users (user_id, name, user_type, department, year_of_study, employee_id) VALUES (?, ?, ?, ?, ?, ?)";
     private final DatabaseManager databaseManager;
 
     public JdbcUserDao(DatabaseManager databaseManager) {
@@ -23,33 +30,85 @@ public class JdbcUserDao implements UserDao {
 
     @Override
     public void addUser(User user) {
-        String sql = "INSERT INTO users (name, user_type, department, year_of_study, employee_id) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, user.getName());
-            if (user instanceof Student) {
-                Student student = (Student) user;
-                pstmt.setString(2, "STUDENT");
-                pstmt.setString(3, student.getDepartment());
-                pstmt.setInt(4, student.getYearOfStudy());
-                pstmt.setNull(5, Types.VARCHAR);
-            } else if (user instanceof Librarian) {
-                Librarian librarian = (Librarian) user;
-                pstmt.setString(2, "LIBRARIAN");
-                pstmt.setNull(3, Types.VARCHAR);
-                pstmt.setNull(4, Types.INTEGER);
-                pstmt.setString(5, librarian.getEmployeeId());
-            }
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            int userId = databaseManager.nextId(conn, ID_SEQUENCE);
+            pstmt.setInt(1, userId);
+            bindUser(pstmt, user);
             pstmt.executeUpdate();
+            user.setUserId(userId);
+            logger.info("Added user: {}", user);
+        } catch (SQLException e) {
+            logger.error("Error adding user", e);
+            databaseManager.markRollbackOnly();
+        }
+    }
 
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    user.setUserId(generatedKeys.getInt(1));
+    @Override
+    public int addUsers(Collection<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        try {
+            return databaseManager.inTransaction(() -> insertBatched(users));
+        } catch (DataAccessException e) {
+            logger.error("Error adding users", e);
+            users.forEach(user -> user.setUserId(0));
+            return 0;
+        }
+    }
+
+    /**
+     * Inserts the users on the current unit of work's connection, one JDBC batch at a time.
+     */
+    private int insertBatched(Collection<User> users) {
+        int batchSize = databaseManager.getBatchSize();
+        int inserted = 0;
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            int batched = 0;
+            for (User user : users) {
+                user.setUserId(databaseManager.nextId(conn, ID_SEQUENCE));
+                pstmt.setInt(1, user.getUserId());
+                bindUser(pstmt, user);
+                pstmt.addBatch();
+                if (++batched == batchSize) {
+                    pstmt.executeBatch();
+                    inserted += batched;
+                    batched = 0;
                 }
             }
-            logger.info("Added user: {}", user);
+            if (batched > 0) {
+                pstmt.executeBatch();
+                inserted += batched;
+            }
+            logger.info("Added {} users", inserted);
+            return inserted;
         } catch (SQLException e) {
-            logger.error("Error adding user", e);
+            logger.error("Error adding users", e);
+            users.forEach(user -> user.setUserId(0));
+            databaseManager.markRollbackOnly();
+            return 0;
+        }
+    }
+
+    /**
+     * Binds every column but the ID, which is parameter 1.
+     */
+    private void bindUser(PreparedStatement pstmt, User user) throws SQLException {
+        pstmt.setString(2, user.getName());
+        if (user instanceof Student) {
+            Student student = (Student) user;
+            pstmt.setString(3, "STUDENT");
+            pstmt.setString(4, student.getDepartment());
+            pstmt.setInt(5, student.getYearOfStudy());
+            pstmt.setNull(6, Types.VARCHAR);
+        } else if (user instanceof Librarian) {
+            Librarian librarian = (Librarian) user;
+            pstmt.setString(3, "LIBRARIAN");
+            pstmt.setNull(4, Types.VARCHAR);
+            pstmt.setNull(5, Types.INTEGER);
+            pstmt.setString(6, librarian.getEmployeeId());
         }
     }
 
@@ -70,6 +129,30 @@ public class JdbcUserDao implements UserDao {
         return Optional.empty();
     }
 
+    @Override
+    public Map<Integer, User> findByIds(Collection<Integer> userIds) {
+        Map<Integer, User> users = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return users;
+        }
+        String sql = InClause.sql("SELECT * FROM users WHERE user_id");
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (List<Integer> chunk : InClause.chunks(userIds)) {
+                InClause.bind(pstmt, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        User user = mapRowToUser(rs);
+                        users.put(user.getUserId(), user);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding users by IDs", e);
+        }
+        return users;
+    }
+
     @Override
     public List<User> findByName(String name) {
         List<User> users = new ArrayList<>();
@@ -88,6 +171,11 @@ public class JdbcUserDao implements UserDao {
         return users;
     }
 
+    @Override
+    public Stream<User> streamAll() {
+        return JdbcStreams.stream(databaseManager, "SELECT * FROM users", JdbcStreams.Binder.NONE, this::mapRowToUser);
+    }
+
     @Override
     public List<User> findAll() {
         List<User> users = new ArrayList<>();
@@ -126,6 +214,7 @@ public class JdbcUserDao implements UserDao {
             logger.info("Updated user: {}", user);
         } catch (SQLException e) {
             logger.error("Error updating user", e);
+            databaseManager.markRollbackOnly();
         }
     }
 
@@ -139,7 +228,27 @@ public class JdbcUserDao implements UserDao {
             logger.info("Deleted user with ID: {}", userId);
         } catch (SQLException e) {
             logger.error("Error deleting user", e);
+            databaseManager.markRollbackOnly();
+        }
+    }
+
+    @Override
+    public List<User> findAll(int afterUserId, int limit) {
+        List<User> results = new ArrayList<>();
+        String sql = "SELECT * FROM users WHERE user_id > ? ORDER BY user_id LIMIT ?";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterUserId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRowToUser(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding page of users", e);
         }
+        return results;
     }
 
     private User mapRowToUser(ResultSet rs) throws SQLException {
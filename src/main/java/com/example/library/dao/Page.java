@@ -0,0 +1,96 @@
+package com.example.library.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of results from a keyset-paginated query, ordered by primary key.
+ * <p>
+ * The next page starts after the last key of this one, which is carried in an opaque cursor
+ * token. Because the database seeks straight to that key, fetching page N costs the same as
+ * fetching the first page.
+ *
+ * @param <T> The type of the items.
+ */
+public class Page<T> {
+
+    private static final String CURSOR_PREFIX = "after:";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from a query that fetched one row more than the page size, which tells
+     * whether another page follows.
+     *
+     * @param fetched  Up to {@code pageSize + 1} items in key order.
+     * @param pageSize The number of items per page.
+     * @param keyOf    Gets the primary key of an item.
+     * @param <T>      The type of the items.
+     * @return The page.
+     */
+    public static <T> Page<T> of(List<T> fetched, int pageSize, ToIntFunction<T> keyOf) {
+        if (fetched.size() <= pageSize) {
+            return new Page<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, pageSize);
+        return new Page<>(items, encodeCursor(keyOf.applyAsInt(items.get(pageSize - 1))));
+    }
+
+    /**
+     * Encodes the key after which the next page starts.
+     *
+     * @param afterKey The last key of the current page.
+     * @return An opaque cursor token.
+     */
+    public static String encodeCursor(int afterKey) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + afterKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token.
+     *
+     * @param cursor A token from {@link #getNextCursor()}, or null for the first page.
+     * @return The key after which the page starts; 0 for the first page.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+            }
+            return Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor for the next page.
+     *
+     * @return The cursor token, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
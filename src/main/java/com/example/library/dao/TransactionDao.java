@@ -1,8 +1,12 @@
 package com.example.library.dao;
 
+import com.example.library.model.BookBorrowCount;
 import com.example.library.model.Transaction;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * DAO interface for Transaction operations.
@@ -32,6 +36,14 @@ public interface TransactionDao {
      */
     List<Transaction> findByUserId(int userId);
 
+    /**
+     * Counts the transactions of a user that have not been returned yet.
+     *
+     * @param userId The ID of the user.
+     * @return The number of active transactions for the given user.
+     */
+    int countActiveByUserId(int userId);
+
     /**
      * Finds the active transaction for a specific book.
      *
@@ -40,6 +52,84 @@ public interface TransactionDao {
      */
     Optional<Transaction> findActiveTransactionByBookId(int bookId);
 
+    /**
+     * Finds the most borrowed books, counted and ranked by the database.
+     *
+     * @param from       The first borrow date to count, or null for no lower bound.
+     * @param to         The last borrow date to count, or null for no upper bound.
+     * @param categoryId Only count books in this category; 0 for all categories.
+     * @param limit      The number of books to return.
+     * @return At most {@code limit} rows, most borrowed first; ties are ordered by book ID.
+     */
+    List<BookBorrowCount> findMostBorrowedBooks(LocalDate from, LocalDate to, int categoryId, int limit);
+
+    /**
+     * Finds the lowest and highest transaction IDs, for splitting the table into ranges.
+     *
+     * @return {min, max}, or {0, -1} if there are no transactions.
+     */
+    int[] findIdRange();
+
+    /**
+     * Counts the borrows of each book within a range of transaction IDs.
+     *
+     * @param fromTransactionId The first transaction ID of the range.
+     * @param toTransactionId   The last transaction ID of the range.
+     * @param from              The first borrow date to count, or null for no lower bound.
+     * @param to                The last borrow date to count, or null for no upper bound.
+     * @param categoryId        Only count books in this category; 0 for all categories.
+     * @return Borrow counts keyed by book ID.
+     * @throws com.example.library.db.DataAccessException if the range cannot be read.
+     */
+    Map<Integer, Long> countBorrowsByBook(int fromTransactionId, int toTransactionId, LocalDate from, LocalDate to, int categoryId);
+
+    /**
+     * Finds the overdue loans within a range of transaction IDs.
+     *
+     * @param fromTransactionId The first transaction ID of the range.
+     * @param toTransactionId   The last transaction ID of the range.
+     * @param today             Loans due before this date that are not returned are overdue.
+     * @return The overdue transactions, ordered by ID.
+     * @throws com.example.library.db.DataAccessException if the range cannot be read.
+     */
+    List<Transaction> findOverdue(int fromTransactionId, int toTransactionId, LocalDate today);
+
+    /**
+     * Finds one page of the loans that are overdue and not returned, ordered by ID.
+     *
+     * @param today              Loans due before this date are overdue.
+     * @param afterTransactionId Only transactions with a greater ID are returned; 0 for the first page.
+     * @param limit              The maximum number of transactions to return.
+     * @return A list of at most {@code limit} overdue transactions.
+     * @throws com.example.library.db.DataAccessException if the page cannot be read.
+     */
+    List<Transaction> findOpenOverdue(LocalDate today, int afterTransactionId, int limit);
+
+    /**
+     * Writes the fine amounts of many loans in one transaction, sending the updates in JDBC batches.
+     * Loans that have been returned in the meantime keep the fine set at return.
+     *
+     * @param transactions The loans, with their new fine amounts.
+     * @return The number of loans updated, or -1 if the batch failed and was rolled back.
+     */
+    int updateFines(List<Transaction> transactions);
+
+    /**
+     * Streams all transactions from the database without loading them into memory at once.
+     * The stream holds a database connection until it is closed, so use it in a try-with-resources block.
+     *
+     * @return A stream of all transactions.
+     */
+    Stream<Transaction> streamAll();
+
+    /**
+     * Streams the transactions that have not been returned yet. The stream holds a database
+     * connection until it is closed, so use it in a try-with-resources block.
+     *
+     * @return A stream of active transactions.
+     */
+    Stream<Transaction> streamActive();
+
     /**
      * Retrieves all transactions from the database.
      *
@@ -53,4 +143,32 @@ public interface TransactionDao {
      * @param transaction The transaction with updated information.
      */
     void updateTransaction(Transaction transaction);
+
+    /**
+     * Records the return date and fine of a loan, but only while the loan is still open.
+     * Of two concurrent returns of the same loan, only one closes it.
+     *
+     * @param transaction The loan, with its return date and fine set.
+     * @return true if the loan was open and is now closed, false if it was already returned or the update failed.
+     */
+    boolean closeTransaction(Transaction transaction);
+
+    /**
+     * Retrieves one page of transactions ordered by ID.
+     *
+     * @param afterTransactionId Only transactions with a greater ID are returned; 0 for the first page.
+     * @param limit              The maximum number of transactions to return.
+     * @return A list of at most {@code limit} transactions.
+     */
+    List<Transaction> findAll(int afterTransactionId, int limit);
+
+    /**
+     * Finds one page of a user's transactions, ordered by ID.
+     *
+     * @param userId             The ID of the user.
+     * @param afterTransactionId Only transactions with a greater ID are returned; 0 for the first page.
+     * @param limit              The maximum number of transactions to return.
+     * @return A list of at most {@code limit} transactions for the given user.
+     */
+    List<Transaction> findByUserId(int userId, int afterTransactionId, int limit);
 }
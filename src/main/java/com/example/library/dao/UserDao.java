@@ -1,8 +1,11 @@
 package com.example.library.dao;
 
 import com.example.library.model.User;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * DAO interface for User operations.
@@ -16,6 +19,15 @@ public interface UserDao {
      */
     void addUser(User user);
 
+    /**
+     * Adds many users in one transaction, sending the inserts in JDBC batches.
+     * Each user's ID is set once it has been inserted.
+     *
+     * @param users The users to add.
+     * @return The number of users added; 0 if the batch failed and was rolled back.
+     */
+    int addUsers(Collection<User> users);
+
     /**
      * Finds a user by their ID.
      *
@@ -24,6 +36,14 @@ public interface UserDao {
      */
     Optional<User> findById(int userId);
 
+    /**
+     * Finds several users by their IDs in as few queries as possible.
+     *
+     * @param userIds The IDs of the users to find; duplicates are ignored.
+     * @return A map from user ID to user, containing only the IDs that were found.
+     */
+    Map<Integer, User> findByIds(Collection<Integer> userIds);
+
     /**
      * Finds users by their name.
      *
@@ -32,6 +52,14 @@ public interface UserDao {
      */
     List<User> findByName(String name);
 
+    /**
+     * Streams all users from the database without loading them into memory at once.
+     * The stream holds a database connection until it is closed, so use it in a try-with-resources block.
+     *
+     * @return A stream of all users.
+     */
+    Stream<User> streamAll();
+
     /**
      * Retrieves all users from the database.
      *
@@ -52,4 +80,13 @@ public interface UserDao {
      * @param userId The ID of the user to delete.
      */
     void deleteUser(int userId);
+
+    /**
+     * Retrieves one page of users ordered by ID.
+     *
+     * @param afterUserId Only users with a greater ID are returned; 0 for the first page.
+     * @param limit       The maximum number of users to return.
+     * @return A list of at most {@code limit} users.
+     */
+    List<User> findAll(int afterUserId, int limit);
 }
@@ -0,0 +1,343 @@
+package com.example.library.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded JDBC connection pool.
+ * <p>
+ * Connections handed out by {@link #getConnection()} are logical wrappers; closing one returns the
+ * physical connection to the pool instead of disconnecting it. Idle connections are validated on
+ * borrow and evicted once they have been idle longer than the configured timeout, down to the
+ * configured minimum size. Each physical connection keeps its own {@link StatementCache}, so
+ * callers that re-prepare the same SQL text reuse the parsed statement.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final String url;
+    private final String user;
+    private final String pass;
+    private final PoolConfig config;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsDestroyed = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder totalAcquireNanos = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    public ConnectionPool(String url, String user, String pass, PoolConfig config) {
+        this.url = url;
+        this.user = user;
+        this.pass = pass;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+
+        fillToMinimum();
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lms-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(config.getIdleTimeoutMs() / 2, 30_000));
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        logger.info("Connection pool started (min={}, max={}).", config.getMinSize(), config.getMaxSize());
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the acquire timeout for one to become free.
+     *
+     * @return A pooled connection; close it to give it back.
+     * @throws SQLException if the pool is closed, the wait times out, or a new connection cannot be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + config.getAcquireTimeoutMs()
+                        + " ms waiting for a database connection: " + getStats());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = create();
+            }
+            acquireCount.increment();
+            totalAcquireNanos.add(System.nanoTime() - start);
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets a snapshot of the pool statistics.
+     *
+     * @return The current pool statistics.
+     */
+    public PoolStats getStats() {
+        int total = totalConnections.get();
+        int idleCount = idle.size();
+        return new PoolStats(total, idleCount, Math.max(0, total - idleCount), permits.getQueueLength(),
+                acquireCount.sum(), acquireTimeouts.sum(), connectionsCreated.sum(),
+                connectionsDestroyed.sum(), validationFailures.sum(), totalAcquireNanos.sum(),
+                statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+    }
+
+    /**
+     * Closes all idle connections and stops the evictor. Connections still in use are closed when returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        logger.info("Connection pool closed: {}", getStats());
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            validationFailures.increment();
+            logger.warn("Discarding invalid pooled connection.");
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, pass);
+        totalConnections.incrementAndGet();
+        connectionsCreated.increment();
+        return new PooledConnection(physical);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        connectionsDestroyed.increment();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing pooled connection", e);
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            if (!closed && !pooled.broken && pooled.reset()) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < config.getMinSize()) {
+            try {
+                PooledConnection pooled = create();
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                logger.warn("Could not open connection to fill pool to its minimum size", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes connections that have been idle longer than the idle timeout, oldest first,
+     * while keeping at least the minimum number of connections open.
+     */
+    private void evictIdle() {
+        try {
+            long cutoff = System.currentTimeMillis() - config.getIdleTimeoutMs();
+            PooledConnection oldest;
+            while (totalConnections.get() > config.getMinSize() && (oldest = idle.pollLast()) != null) {
+                if (oldest.lastUsed > cutoff) {
+                    idle.offerLast(oldest);
+                    break;
+                }
+                destroy(oldest);
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            logger.error("Error evicting idle connections", e);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastUsed;
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = config.getStatementCacheSize() > 0
+                    ? new StatementCache(physical, config.getStatementCacheSize(),
+                            statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                    : null;
+        }
+
+        /**
+         * Wraps the physical connection in a fresh logical handle, so a stale reference
+         * from an earlier borrower cannot use or close it again.
+         */
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this));
+        }
+
+        /**
+         * Restores the connection to a clean state before it goes back into the pool.
+         */
+        private boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                logger.warn("Could not reset pooled connection; discarding it", e);
+                return false;
+            }
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pooled.physical + "]";
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    if (pooled.statementCache != null && isCacheablePrepare(method)) {
+                        int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return pooled.statementCache.prepare((Connection) proxy, (String) args[0], autoGeneratedKeys);
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof SQLException sqlException && isConnectionError(sqlException)) {
+                            pooled.broken = true;
+                        }
+                        throw cause;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Only {@code prepareStatement(String)} and {@code prepareStatement(String, int autoGeneratedKeys)}
+         * go through the statement cache; the other overloads change result set behaviour.
+         */
+        private boolean isCacheablePrepare(Method method) {
+            if (!"prepareStatement".equals(method.getName()) || method.getReturnType() != PreparedStatement.class) {
+                return false;
+            }
+            Class<?>[] params = method.getParameterTypes();
+            return params.length == 1 || (params.length == 2 && params[1] == int.class);
+        }
+
+        private boolean isConnectionError(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+}
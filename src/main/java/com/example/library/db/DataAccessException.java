@@ -0,0 +1,18 @@
+package com.example.library.db;
+
+/**
+ * Thrown when a database operation fails in a way the caller needs to react to,
+ * such as a unit of work that had to be rolled back.
+ */
+public class DataAccessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(String message) {
+        super(message);
+    }
+
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -9,9 +9,11 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 import java.util.Properties;
+import java.util.function.Supplier;
 
-public class DatabaseManager {
+public class DatabaseManager implements TransactionRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
     private static final Properties properties = new Properties();
@@ -19,6 +21,11 @@ public class DatabaseManager {
     private static final String DB_USER;
     private static final String DB_PASS;
     private static final boolean DB_INIT;
+    private static final int FETCH_SIZE;
+    private static final int BATCH_SIZE;
+    private static final ConnectionPool POOL;
+    private static final IdAllocator ID_ALLOCATOR = new IdAllocator();
+    private static final ThreadLocal<UnitOfWork> CURRENT_WORK = new ThreadLocal<>();
 
     static {
         try (InputStream input = DatabaseManager.class.getClassLoader().getResourceAsStream("application.properties")) {
@@ -36,20 +43,183 @@ public class DatabaseManager {
         DB_USER = properties.getProperty("db.user");
         DB_PASS = properties.getProperty("db.pass");
         DB_INIT = Boolean.parseBoolean(properties.getProperty("db.init", "false"));
+        FETCH_SIZE = Integer.parseInt(properties.getProperty("db.fetch.size", "500"));
+        BATCH_SIZE = Math.max(1, Integer.parseInt(properties.getProperty("db.batch.size", "1000")));
 
         if (DB_INIT) {
             initSchema();
         }
+
+        POOL = new ConnectionPool(DB_URL, DB_USER, DB_PASS, PoolConfig.fromProperties(properties));
     }
 
     /**
-     * Gets a connection to the database.
+     * Gets a pooled connection to the database. Closing the connection returns it to the pool.
+     * Inside {@link #inTransaction(Supplier)} this returns the unit of work's connection instead,
+     * and closing it leaves the transaction open.
      *
      * @return A database connection.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs or no connection frees up in time.
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
+        UnitOfWork work = CURRENT_WORK.get();
+        if (work != null) {
+            return work.getSharedConnection();
+        }
+        return POOL.getConnection();
+    }
+
+    @Override
+    public <T> T inTransaction(Supplier<T> work) {
+        if (CURRENT_WORK.get() != null) {
+            // Nested units of work join the outer transaction.
+            return work.get();
+        }
+
+        Connection conn;
+        try {
+            conn = POOL.getConnection();
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not begin transaction", e);
+        }
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            try {
+                conn.close();
+            } catch (SQLException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw new DataAccessException("Could not begin transaction", e);
+        }
+
+        UnitOfWork unitOfWork = new UnitOfWork(conn);
+        CURRENT_WORK.set(unitOfWork);
+        T result;
+        try {
+            result = work.get();
+            if (unitOfWork.isRollbackOnly()) {
+                throw new DataAccessException("Transaction rolled back because a statement in it failed");
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(conn);
+            throw new DataAccessException("Could not commit transaction", e);
+        } catch (RuntimeException e) {
+            rollbackQuietly(conn);
+            throw e;
+        } finally {
+            CURRENT_WORK.remove();
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.warn("Error returning transaction connection to the pool", e);
+            }
+            // Outside the unit of work, so DAO calls made by the actions run on their own connections.
+            runActions(unitOfWork.getAfterCompletionActions(), "after-completion");
+        }
+        runActions(unitOfWork.getAfterCommitActions(), "after-commit");
+        return result;
+    }
+
+    /**
+     * Allocates a primary key from a sequence. Most calls are answered from a block of IDs
+     * reserved earlier, without a round trip.
+     *
+     * @param conn     The connection the caller is about to insert on.
+     * @param sequence The name of the sequence, e.g. "books_seq".
+     * @return A unique ID.
+     * @throws SQLException if a new block of IDs cannot be reserved.
+     */
+    public int nextId(Connection conn, String sequence) throws SQLException {
+        return ID_ALLOCATOR.nextId(conn, sequence);
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        UnitOfWork work = CURRENT_WORK.get();
+        if (work != null) {
+            work.afterCommit(action);
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void afterCompletion(Runnable action) {
+        UnitOfWork work = CURRENT_WORK.get();
+        if (work != null) {
+            work.afterCompletion(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs the actions of a finished unit of work. The transaction has already ended, so a
+     * failing action is logged rather than reported to the caller as a failed transaction.
+     */
+    private static void runActions(List<Runnable> actions, String kind) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.error("Error running {} action", kind, e);
+            }
+        }
+    }
+
+    /**
+     * Marks the current unit of work, if any, so that it rolls back instead of committing.
+     * DAOs call this when a write fails, since they report errors by logging rather than throwing.
+     */
+    public void markRollbackOnly() {
+        UnitOfWork work = CURRENT_WORK.get();
+        if (work != null) {
+            work.markRollbackOnly();
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.error("Error rolling back transaction", e);
+        }
+    }
+
+    /**
+     * Gets the number of rows streaming queries fetch per round trip.
+     *
+     * @return The JDBC fetch size.
+     */
+    public int getFetchSize() {
+        return FETCH_SIZE;
+    }
+
+    /**
+     * Gets the number of rows bulk inserts send to the database per JDBC batch.
+     *
+     * @return The JDBC batch size.
+     */
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    /**
+     * Gets a snapshot of the connection pool statistics.
+     *
+     * @return The current pool statistics.
+     */
+    public PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    /**
+     * Closes the connection pool. Intended to be called once when the application exits.
+     */
+    public static void shutdown() {
+        POOL.close();
     }
 
     /**
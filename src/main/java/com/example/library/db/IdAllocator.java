@@ -0,0 +1,105 @@
+package com.example.library.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out primary keys from blocks reserved on database sequences.
+ * <p>
+ * Each sequence is created with {@code INCREMENT BY} the block size, so one {@code NEXT VALUE}
+ * reserves the IDs from the returned value up to the next multiple, and the rest of the block
+ * is handed out from memory. Blocks are shared safely between application instances, and the
+ * block size is read from the schema so it cannot drift from the sequence definition. IDs from
+ * a block that is not used up before shutdown are skipped, so keys may have gaps.
+ */
+public class IdAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdAllocator.class);
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the next ID from a sequence, reserving a new block when the current one is used up.
+     * <p>
+     * A new block is reserved on the caller's connection rather than a second pooled one, so a
+     * saturated pool cannot deadlock on it. Sequence values are not transactional, so a block
+     * reserved inside a transaction that rolls back is never handed out twice.
+     *
+     * @param conn     The connection the caller is already using.
+     * @param sequence The name of the sequence, e.g. "books_seq".
+     * @return A unique ID.
+     * @throws SQLException if a new block cannot be reserved.
+     */
+    public int nextId(Connection conn, String sequence) throws SQLException {
+        return blocks.computeIfAbsent(sequence, Block::new).next(conn);
+    }
+
+    private static long reserveBlock(Connection conn, String sequence) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(nextValueSql(conn, sequence));
+             ResultSet rs = pstmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Sequence " + sequence + " returned no value");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    private static int readBlockSize(Connection conn, String sequence) throws SQLException {
+        String sql = "SELECT increment FROM information_schema.sequences WHERE UPPER(sequence_name) = UPPER(?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, sequence);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Sequence " + sequence + " does not exist");
+                }
+                int blockSize = Integer.parseInt(rs.getString(1).trim());
+                logger.info("Allocating IDs from {} in blocks of {}.", sequence, blockSize);
+                return Math.max(1, blockSize);
+            }
+        }
+    }
+
+    private static String nextValueSql(Connection conn, String sequence) throws SQLException {
+        if ("PostgreSQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName())) {
+            return "SELECT nextval('" + sequence + "')";
+        }
+        return "SELECT NEXT VALUE FOR " + sequence;
+    }
+
+    /**
+     * The unused part of the current block of one sequence.
+     */
+    private final class Block {
+
+        private final String sequence;
+        private int blockSize;
+        private long next;
+        private long end;
+
+        private Block(String sequence) {
+            this.sequence = sequence;
+        }
+
+        private synchronized int next(Connection conn) throws SQLException {
+            if (next >= end) {
+                if (blockSize == 0) {
+                    blockSize = readBlockSize(conn, sequence);
+                }
+                next = reserveBlock(conn, sequence);
+                end = next + blockSize;
+            }
+            long id = next++;
+            if (id > Integer.MAX_VALUE) {
+                throw new SQLException("Sequence " + sequence + " is beyond the range of an INT key");
+            }
+            return (int) id;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.library.db;
+
+import java.util.Properties;
+
+/**
+ * Settings for the {@link ConnectionPool}, read from application.properties.
+ */
+public class PoolConfig {
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long acquireTimeoutMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    /**
+     * Constructs a PoolConfig with specified settings.
+     *
+     * @param minSize                  The number of connections kept open even when idle.
+     * @param maxSize                  The maximum number of open connections.
+     * @param idleTimeoutMs            How long a connection may sit idle before it is evicted.
+     * @param acquireTimeoutMs         How long a caller waits for a free connection.
+     * @param validationTimeoutSeconds The timeout passed to {@link java.sql.Connection#isValid(int)} on borrow.
+     * @param statementCacheSize       The number of prepared statements cached per connection; 0 disables the cache.
+     */
+    public PoolConfig(int minSize, int maxSize, long idleTimeoutMs, long acquireTimeoutMs,
+                      int validationTimeoutSeconds, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool max size must be at least 1.");
+        }
+        if (minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool min size must be between 0 and max size.");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+    }
+
+    /**
+     * Reads the pool settings from the given properties, falling back to defaults for missing keys.
+     *
+     * @param props The application properties.
+     * @return The pool settings.
+     */
+    public static PoolConfig fromProperties(Properties props) {
+        return new PoolConfig(
+                Integer.parseInt(props.getProperty("db.pool.min.size", "2")),
+                Integer.parseInt(props.getProperty("db.pool.max.size", "10")),
+                Long.parseLong(props.getProperty("db.pool.idle.timeout.ms", "300000")),
+                Long.parseLong(props.getProperty("db.pool.acquire.timeout.ms", "5000")),
+                Integer.parseInt(props.getProperty("db.pool.validation.timeout.seconds", "2")),
+                Integer.parseInt(props.getProperty("db.pool.statement.cache.size", "50"))
+        );
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public long getAcquireTimeoutMs() {
+        return acquireTimeoutMs;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.library.db;
+
+/**
+ * A point-in-time snapshot of {@link ConnectionPool} statistics.
+ */
+public class PoolStats {
+
+    private final int totalConnections;
+    private final int idleConnections;
+    private final int activeConnections;
+    private final int waitingThreads;
+    private final long acquireCount;
+    private final long acquireTimeouts;
+    private final long connectionsCreated;
+    private final long connectionsDestroyed;
+    private final long validationFailures;
+    private final long totalAcquireNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int totalConnections, int idleConnections, int activeConnections, int waitingThreads,
+                     long acquireCount, long acquireTimeouts, long connectionsCreated,
+                     long connectionsDestroyed, long validationFailures, long totalAcquireNanos,
+                     long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.totalConnections = totalConnections;
+        this.idleConnections = idleConnections;
+        this.activeConnections = activeConnections;
+        this.waitingThreads = waitingThreads;
+        this.acquireCount = acquireCount;
+        this.acquireTimeouts = acquireTimeouts;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsDestroyed = connectionsDestroyed;
+        this.validationFailures = validationFailures;
+        this.totalAcquireNanos = totalAcquireNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    // Getters
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public long getAcquireTimeouts() {
+        return acquireTimeouts;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    public long getConnectionsDestroyed() {
+        return connectionsDestroyed;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    /**
+     * Gets the average time callers spent waiting for a connection.
+     *
+     * @return The average acquire time in microseconds, or 0 if nothing has been acquired yet.
+     */
+    public double getAverageAcquireMicros() {
+        return acquireCount == 0 ? 0 : totalAcquireNanos / 1000.0 / acquireCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+               "total=" + totalConnections +
+               ", idle=" + idleConnections +
+               ", active=" + activeConnections +
+               ", waiting=" + waitingThreads +
+               ", acquired=" + acquireCount +
+               ", timeouts=" + acquireTimeouts +
+               ", created=" + connectionsCreated +
+               ", destroyed=" + connectionsDestroyed +
+               ", validationFailures=" + validationFailures +
+               ", avgAcquireMicros=" + String.format("%.1f", getAverageAcquireMicros()) +
+               ", stmtCacheHits=" + statementCacheHits +
+               ", stmtCacheMisses=" + statementCacheMisses +
+               ", stmtCacheEvictions=" + statementCacheEvictions +
+               '}';
+    }
+}
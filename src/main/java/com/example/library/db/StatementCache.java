@@ -0,0 +1,198 @@
+package com.example.library.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An LRU cache of prepared statements belonging to one physical connection, keyed by SQL text.
+ * <p>
+ * Statements handed out are logical wrappers: closing one clears its parameters and batch, restores
+ * its fetch size and row limit, and keeps the parsed statement for the next caller that prepares the
+ * same SQL on this connection.
+ * Not thread-safe; a pooled connection is only ever used by one borrower at a time.
+ */
+class StatementCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private final Connection physical;
+    private final Map<String, CachedStatement> statements;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    StatementCache(Connection physical, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.physical = physical;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                StatementCache.this.evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached statement for the given SQL, preparing and caching it on a miss.
+     * If the cached statement is still open by an earlier caller, an uncached statement is returned.
+     *
+     * @param logical           The logical connection the statement should report as its owner.
+     * @param sql               The SQL text.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}.
+     * @return A prepared statement; close it to give it back to the cache.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    PreparedStatement prepare(Connection logical, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : "N:" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null) {
+            if (cached.inUse) {
+                return physical.prepareStatement(sql, autoGeneratedKeys);
+            }
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+            try {
+                cached = new CachedStatement(key, statement);
+            } catch (SQLException e) {
+                try {
+                    statement.close();
+                } catch (SQLException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+                throw e;
+            }
+            statements.put(key, cached);
+        }
+        cached.inUse = true;
+        return cached.lease(logical);
+    }
+
+    private final class CachedStatement {
+
+        private final String key;
+        private final PreparedStatement statement;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(String key, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+        }
+
+        private PreparedStatement lease(Connection logical) {
+            return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new LeaseHandler(this, logical));
+        }
+
+        private void giveBack() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            // Undo whatever the last borrower set, so the next one starts from a freshly prepared state
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setFetchSize(defaultFetchSize);
+                statement.setMaxRows(defaultMaxRows);
+            } catch (SQLException e) {
+                logger.debug("Could not reset cached statement; evicting it", e);
+                statements.remove(key, this);
+                evictions.increment();
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing cached statement", e);
+            }
+        }
+    }
+
+    private static final class LeaseHandler implements InvocationHandler {
+
+        private final CachedStatement cached;
+        private final Connection logical;
+        private boolean closed;
+
+        private LeaseHandler(CachedStatement cached, Connection logical) {
+            this.cached = cached;
+            this.logical = logical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        cached.giveBack();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || cached.statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return logical;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "CachedStatement[" + cached.statement + "]";
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    try {
+                        return method.invoke(cached.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
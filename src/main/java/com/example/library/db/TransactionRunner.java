@@ -0,0 +1,54 @@
+package com.example.library.db;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work inside a single database transaction.
+ */
+public interface TransactionRunner {
+
+    /**
+     * A runner that executes the work directly, without opening a transaction.
+     * Each DAO call then commits on its own, as it would outside a unit of work.
+     */
+    TransactionRunner NONE = new TransactionRunner() {
+        @Override
+        public <T> T inTransaction(Supplier<T> work) {
+            return work.get();
+        }
+    };
+
+    /**
+     * Executes the given work in one transaction. DAO calls made by the work on the calling thread
+     * join that transaction and it commits once when the work returns. If the work throws, or a
+     * DAO write inside it fails, the transaction is rolled back.
+     *
+     * @param work The work to execute.
+     * @param <T>  The type of the work's result.
+     * @return The result of the work.
+     * @throws DataAccessException if the transaction could not be started or committed, or was rolled back.
+     */
+    <T> T inTransaction(Supplier<T> work);
+
+    /**
+     * Runs an action once the current unit of work has committed, or straight away if there is
+     * none. Use it for side effects outside the database, such as in-memory mirrors, that must
+     * not see writes which are later rolled back. The action is dropped if the unit of work rolls back.
+     *
+     * @param action The action to run after commit.
+     */
+    default void afterCommit(Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Runs an action once the current unit of work has ended, whether it committed or rolled back,
+     * or straight away if there is none. Use it to discard state that may have picked up
+     * uncommitted writes, such as cache entries read back during the transaction.
+     *
+     * @param action The action to run after commit or rollback.
+     */
+    default void afterCompletion(Runnable action) {
+        action.run();
+    }
+}
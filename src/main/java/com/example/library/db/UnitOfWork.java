@@ -0,0 +1,75 @@
+package com.example.library.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The connection and state of a transaction bound to the current thread by {@link DatabaseManager}.
+ */
+class UnitOfWork {
+
+    private final Connection shared;
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+    private final List<Runnable> afterCompletionActions = new ArrayList<>();
+    private boolean rollbackOnly;
+
+    UnitOfWork(Connection connection) {
+        this.shared = (Connection) Proxy.newProxyInstance(UnitOfWork.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            // The unit of work owns the connection; DAOs joining it must not release it.
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Gets a handle on the transaction's connection whose {@code close()} does nothing,
+     * for DAOs that join the unit of work.
+     */
+    Connection getSharedConnection() {
+        return shared;
+    }
+
+    void markRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    void afterCommit(Runnable action) {
+        afterCommitActions.add(action);
+    }
+
+    List<Runnable> getAfterCommitActions() {
+        return afterCommitActions;
+    }
+
+    void afterCompletion(Runnable action) {
+        afterCompletionActions.add(action);
+    }
+
+    List<Runnable> getAfterCompletionActions() {
+        return afterCompletionActions;
+    }
+}
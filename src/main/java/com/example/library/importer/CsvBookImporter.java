@@ -0,0 +1,224 @@
+package com.example.library.importer;
+
+import com.example.library.dao.BookDao;
+import com.example.library.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports books from a CSV file with the columns {@code title,author[,category_id]}.
+ * <p>
+ * The file is read line by line and cut into chunks. Chunks are parsed on a thread pool while
+ * earlier chunks are written, each with one {@link BookDao#addBooks(java.util.Collection)} call
+ * and so one commit. At most two chunks per parser thread are held in memory at a time, so the
+ * size of the file does not matter. Fields may be quoted with double quotes; a record may not
+ * span lines. Rows without a title or author are counted as rejected and skipped.
+ */
+public class CsvBookImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvBookImporter.class);
+
+    private final BookDao bookDao;
+    private final int chunkSize;
+    private final int parallelism;
+
+    /**
+     * Constructs a CsvBookImporter.
+     *
+     * @param bookDao     The DAO the books are written to.
+     * @param chunkSize   The number of rows parsed and committed together.
+     * @param parallelism The number of parser threads; 0 or less uses one per CPU.
+     */
+    public CsvBookImporter(BookDao bookDao, int chunkSize, int parallelism) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1.");
+        }
+        this.bookDao = bookDao;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Imports all rows of a CSV file. A first line whose first field is "title" is treated as a header.
+     *
+     * @param file The CSV file.
+     * @return The import counts and throughput.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImportResult importFile(Path file) throws IOException {
+        ImportProgress progress = new ImportProgress();
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "lms-csv-parser");
+            t.setDaemon(true);
+            return t;
+        });
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            long chunkStartLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    line = stripByteOrderMark(line);
+                    if (isHeader(line)) {
+                        chunkStartLine = 2;
+                        continue;
+                    }
+                }
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    List<String> chunk = lines;
+                    long firstLine = chunkStartLine;
+                    inFlight.addLast(parsers.submit(() -> parse(chunk, firstLine)));
+                    lines = new ArrayList<>(chunkSize);
+                    chunkStartLine = lineNumber + 1;
+                    if (inFlight.size() >= parallelism * 2) {
+                        write(await(inFlight.removeFirst()), progress);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                List<String> chunk = lines;
+                long firstLine = chunkStartLine;
+                inFlight.addLast(parsers.submit(() -> parse(chunk, firstLine)));
+            }
+            while (!inFlight.isEmpty()) {
+                write(await(inFlight.removeFirst()), progress);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        ImportResult result = progress.snapshot();
+        logger.info("Imported {}: {}", file, result);
+        return result;
+    }
+
+    private static String stripByteOrderMark(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static boolean isHeader(String line) {
+        return splitLine(line).get(0).trim().equalsIgnoreCase("title");
+    }
+
+    private void write(ParsedChunk chunk, ImportProgress progress) {
+        int imported = chunk.books.isEmpty() ? 0 : bookDao.addBooks(chunk.books);
+        if (imported < chunk.books.size()) {
+            logger.warn("Chunk starting at line {} was rolled back; {} rows not imported.",
+                    chunk.firstLine, chunk.books.size());
+        }
+        progress.add(chunk.rows, imported, chunk.rows - imported);
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing");
+        } catch (ExecutionException e) {
+            throw new IOException("Error parsing CSV", e.getCause());
+        }
+    }
+
+    private static ParsedChunk parse(List<String> lines, long firstLine) {
+        List<Book> books = new ArrayList<>(lines.size());
+        int rows = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            rows++;
+            Book book = toBook(splitLine(line));
+            if (book == null) {
+                logger.debug("Rejected CSV line {}: {}", firstLine + i, line);
+            } else {
+                books.add(book);
+            }
+        }
+        return new ParsedChunk(books, rows, firstLine);
+    }
+
+    private static Book toBook(List<String> fields) {
+        if (fields.size() < 2 || fields.get(0).isBlank() || fields.get(1).isBlank()) {
+            return null;
+        }
+        int categoryId = 0;
+        if (fields.size() > 2 && !fields.get(2).isBlank()) {
+            try {
+                categoryId = Integer.parseInt(fields.get(2).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return new Book(0, fields.get(0).trim(), fields.get(1).trim(), true, categoryId);
+    }
+
+    /**
+     * Splits one CSV record into fields. Double-quoted fields may contain commas, and a doubled
+     * quote inside a quoted field stands for one quote.
+     *
+     * @param line The record.
+     * @return The fields, unquoted.
+     */
+    static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class ParsedChunk {
+
+        private final List<Book> books;
+        private final int rows;
+        private final long firstLine;
+
+        private ParsedChunk(List<Book> books, int rows, long firstLine) {
+            this.books = books;
+            this.rows = rows;
+            this.firstLine = firstLine;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.library.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Running totals of an import, logged every {@value #REPORT_INTERVAL_ROWS} rows.
+ * Only touched by the thread that writes to the database.
+ */
+class ImportProgress {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportProgress.class);
+    static final long REPORT_INTERVAL_ROWS = 50_000;
+
+    private final long start = System.currentTimeMillis();
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private long nextReport = REPORT_INTERVAL_ROWS;
+
+    void add(long read, long imported, long rejected) {
+        rowsRead += read;
+        rowsImported += imported;
+        rowsRejected += rejected;
+        if (rowsRead >= nextReport) {
+            nextReport = (rowsRead / REPORT_INTERVAL_ROWS + 1) * REPORT_INTERVAL_ROWS;
+            logger.info("Import progress: {}", snapshot());
+        }
+    }
+
+    ImportResult snapshot() {
+        return new ImportResult(rowsRead, rowsImported, rowsRejected, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.library.importer;
+
+/**
+ * Counts and timing for a bulk import, either final or as progress so far.
+ */
+public class ImportResult {
+
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long elapsedMillis;
+
+    public ImportResult(long rowsRead, long rowsImported, long rowsRejected, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the import throughput.
+     *
+     * @return The number of rows imported per second of elapsed time.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsImported : rowsImported * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+               "read=" + rowsRead +
+               ", imported=" + rowsImported +
+               ", rejected=" + rowsRejected +
+               ", elapsedMillis=" + elapsedMillis +
+               ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+               '}';
+    }
+}
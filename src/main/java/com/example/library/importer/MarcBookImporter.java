@@ -0,0 +1,142 @@
+package com.example.library.importer;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.CategoryDao;
+import com.example.library.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports books from a MARC21 (ISO 2709) file.
+ * <p>
+ * The title comes from field 245 ($a and $b), the author from field 100 $a (or 110 $a for
+ * corporate authors), and the category from the first 650 $a subject heading that starts with
+ * the name of a category in the {@link CategoryDao}, so only existing categories are assigned. Records are streamed through a {@link MarcReader} and
+ * written in chunks, each with one {@link BookDao#addBooks(java.util.Collection)} call.
+ * Records without a title or author, and malformed records, are counted as rejected.
+ */
+public class MarcBookImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarcBookImporter.class);
+    private static final Set<String> TAGS = Set.of("245", "100", "110", "650");
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final BookDao bookDao;
+    private final CategoryDao categoryDao;
+    private final int chunkSize;
+
+    /**
+     * Constructs a MarcBookImporter.
+     *
+     * @param bookDao     The DAO the books are written to.
+     * @param categoryDao The categories subject headings are matched against.
+     * @param chunkSize   The number of records committed together.
+     */
+    public MarcBookImporter(BookDao bookDao, CategoryDao categoryDao, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1.");
+        }
+        this.bookDao = bookDao;
+        this.categoryDao = categoryDao;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports all records of a MARC21 file.
+     *
+     * @param file The MARC21 file.
+     * @return The import counts and throughput, in records.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImportResult importFile(Path file) throws IOException {
+        ImportProgress progress = new ImportProgress();
+        SubjectCategoryMap subjects = SubjectCategoryMap.of(categoryDao.findAll());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MarcReader reader = new MarcReader(channel, TAGS, BUFFER_SIZE);
+            List<Book> books = new ArrayList<>(chunkSize);
+            int records = 0;
+            MarcRecord record;
+            while ((record = reader.next()) != null) {
+                records++;
+                Book book = toBook(record, subjects);
+                if (book != null) {
+                    books.add(book);
+                }
+                if (records == chunkSize) {
+                    write(books, records, progress);
+                    books = new ArrayList<>(chunkSize);
+                    records = 0;
+                }
+            }
+            write(books, records, progress);
+            progress.add(reader.getMalformedRecords(), 0, reader.getMalformedRecords());
+        }
+        ImportResult result = progress.snapshot();
+        logger.info("Imported {}: {}", file, result);
+        return result;
+    }
+
+    private void write(List<Book> books, int records, ImportProgress progress) {
+        int imported = books.isEmpty() ? 0 : bookDao.addBooks(books);
+        if (imported < books.size()) {
+            logger.warn("Chunk of {} records was rolled back.", records);
+        }
+        progress.add(records, imported, records - imported);
+    }
+
+    private static Book toBook(MarcRecord record, SubjectCategoryMap subjects) {
+        String title = record.getFirst("245", 'a');
+        String subtitle = record.getFirst("245", 'b');
+        if (title != null && subtitle != null) {
+            title = trimPunctuation(title) + " " + subtitle;
+        }
+        String author = record.getFirst("100", 'a');
+        if (author == null) {
+            author = record.getFirst("110", 'a');
+        }
+        title = clean(title);
+        author = clean(author);
+        if (title == null || author == null) {
+            return null;
+        }
+        return new Book(0, title, author, true, subjects.categoryFor(record.getAll("650", 'a')));
+    }
+
+    /**
+     * Strips the ISBD punctuation that MARC cataloguing leaves at the end of a subfield,
+     * and fits the value into the catalog's column width.
+     */
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String cleaned = trimPunctuation(value);
+        if (cleaned.isEmpty()) {
+            return null;
+        }
+        return cleaned.length() > MAX_TEXT_LENGTH ? cleaned.substring(0, MAX_TEXT_LENGTH) : cleaned;
+    }
+
+    private static String trimPunctuation(String value) {
+        int end = value.length();
+        while (end > 0) {
+            char c = value.charAt(end - 1);
+            boolean periodAfterWord = c == '.' && end >= 2 && Character.isLowerCase(value.charAt(end - 2));
+            if (Character.isWhitespace(c) || c == '/' || c == ':' || c == ';' || c == ',' || c == '=' || periodAfterWord) {
+                end--;
+            } else {
+                break;
+            }
+        }
+        return value.substring(0, end).trim();
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.library.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads MARC21 (ISO 2709) records one at a time from a channel.
+ * <p>
+ * Records are decoded straight out of a reusable buffer, which only grows if a single record is
+ * larger than it, so files of any size are read in constant memory. Only the requested data
+ * fields are decoded. Records flagged as Unicode in leader position 9 are decoded as UTF-8;
+ * MARC-8 records are decoded as Latin-1, which is exact for plain ASCII text.
+ * <p>
+ * Malformed records are skipped by resynchronising on the next record terminator, and counted.
+ */
+class MarcReader {
+
+    private static final byte SUBFIELD_DELIMITER = 0x1F;
+    private static final byte FIELD_TERMINATOR = 0x1E;
+    private static final byte RECORD_TERMINATOR = 0x1D;
+    private static final int LEADER_LENGTH = 24;
+    private static final int DIRECTORY_ENTRY_LENGTH = 12;
+
+    private final ReadableByteChannel channel;
+    private final Set<String> tags;
+    private ByteBuffer buffer;
+    private boolean endOfInput;
+    private long malformedRecords;
+
+    /**
+     * Constructs a MarcReader.
+     *
+     * @param channel    The channel to read from; the caller closes it.
+     * @param tags       The data field tags to decode, e.g. "245".
+     * @param bufferSize The initial read buffer size in bytes.
+     */
+    MarcReader(ReadableByteChannel channel, Set<String> tags, int bufferSize) {
+        this.channel = channel;
+        this.tags = tags;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    /**
+     * Reads the next well-formed record.
+     *
+     * @return The record, or null at the end of the input.
+     * @throws IOException if the channel cannot be read.
+     */
+    MarcRecord next() throws IOException {
+        while (true) {
+            if (!fill(5)) {
+                if (buffer.hasRemaining()) {
+                    malformedRecords++;
+                    buffer.position(buffer.limit());
+                }
+                return null;
+            }
+            int start = buffer.position();
+            int length = parseDigits(buffer.array(), start, 5);
+            if (length <= LEADER_LENGTH) {
+                malformedRecords++;
+                skipPastRecordTerminator();
+                continue;
+            }
+            if (!fill(length)) {
+                // Truncated final record.
+                malformedRecords++;
+                buffer.position(buffer.limit());
+                return null;
+            }
+            start = buffer.position();
+            if (buffer.get(start + length - 1) != RECORD_TERMINATOR) {
+                malformedRecords++;
+                skipPastRecordTerminator();
+                continue;
+            }
+            buffer.position(start + length);
+            MarcRecord record = decode(buffer.array(), start, length);
+            if (record == null) {
+                malformedRecords++;
+                continue;
+            }
+            return record;
+        }
+    }
+
+    /**
+     * Gets the number of records skipped because they were malformed or truncated.
+     *
+     * @return The number of skipped records.
+     */
+    long getMalformedRecords() {
+        return malformedRecords;
+    }
+
+    /**
+     * Makes sure at least {@code needed} bytes are buffered, compacting or growing the buffer.
+     *
+     * @return false if the input ends first.
+     */
+    private boolean fill(int needed) throws IOException {
+        while (buffer.remaining() < needed) {
+            if (endOfInput) {
+                return false;
+            }
+            if (needed > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(needed, buffer.capacity() * 2));
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            if (channel.read(buffer) < 0) {
+                endOfInput = true;
+            }
+            buffer.flip();
+        }
+        return true;
+    }
+
+    private void skipPastRecordTerminator() throws IOException {
+        buffer.position(buffer.position() + 1);
+        while (true) {
+            while (buffer.hasRemaining()) {
+                if (buffer.get() == RECORD_TERMINATOR) {
+                    return;
+                }
+            }
+            if (!fill(1)) {
+                return;
+            }
+        }
+    }
+
+    private MarcRecord decode(byte[] data, int start, int length) {
+        int end = start + length;
+        Charset charset = data[start + 9] == 'a' ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+        int baseAddress = parseDigits(data, start + 12, 5);
+        if (baseAddress <= LEADER_LENGTH || baseAddress >= length) {
+            return null;
+        }
+
+        MarcRecord record = new MarcRecord();
+        int fieldsStart = start + baseAddress;
+        for (int entry = start + LEADER_LENGTH; data[entry] != FIELD_TERMINATOR; entry += DIRECTORY_ENTRY_LENGTH) {
+            if (entry + DIRECTORY_ENTRY_LENGTH >= fieldsStart) {
+                return null;
+            }
+            String tag = new String(data, entry, 3, StandardCharsets.US_ASCII);
+            if (!tags.contains(tag)) {
+                continue;
+            }
+            int fieldLength = parseDigits(data, entry + 3, 4);
+            int fieldOffset = parseDigits(data, entry + 7, 5);
+            if (fieldLength < 0 || fieldOffset < 0 || fieldsStart + fieldOffset + fieldLength > end) {
+                return null;
+            }
+            decodeField(record, tag, data, fieldsStart + fieldOffset, fieldsStart + fieldOffset + fieldLength, charset);
+        }
+        return record;
+    }
+
+    /**
+     * Splits a data field into subfields, skipping the two indicator bytes.
+     */
+    private static void decodeField(MarcRecord record, String tag, byte[] data, int from, int to, Charset charset) {
+        List<Character> codes = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        int pos = from + 2;
+        while (pos < to && data[pos] == SUBFIELD_DELIMITER && pos + 1 < to) {
+            char code = (char) data[pos + 1];
+            int valueStart = pos + 2;
+            int valueEnd = valueStart;
+            while (valueEnd < to && data[valueEnd] != SUBFIELD_DELIMITER && data[valueEnd] != FIELD_TERMINATOR) {
+                valueEnd++;
+            }
+            codes.add(code);
+            values.add(new String(data, valueStart, valueEnd - valueStart, charset));
+            pos = valueEnd;
+        }
+        char[] codeArray = new char[codes.size()];
+        for (int i = 0; i < codeArray.length; i++) {
+            codeArray[i] = codes.get(i);
+        }
+        record.addField(tag, codeArray, values.toArray(new String[0]));
+    }
+
+    /**
+     * Parses a fixed-width run of ASCII digits.
+     *
+     * @return The value, or -1 if any byte is not a digit.
+     */
+    private static int parseDigits(byte[] data, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
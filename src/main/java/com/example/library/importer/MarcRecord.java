@@ -0,0 +1,63 @@
+package com.example.library.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The data fields of one MARC21 record that a {@link MarcReader} was asked to decode.
+ */
+class MarcRecord {
+
+    private final List<String> tags = new ArrayList<>();
+    private final List<char[]> codes = new ArrayList<>();
+    private final List<String[]> values = new ArrayList<>();
+
+    void addField(String tag, char[] subfieldCodes, String[] subfieldValues) {
+        tags.add(tag);
+        codes.add(subfieldCodes);
+        values.add(subfieldValues);
+    }
+
+    /**
+     * Gets the first occurrence of a subfield.
+     *
+     * @param tag  The field tag, e.g. "245".
+     * @param code The subfield code, e.g. 'a'.
+     * @return The subfield value, or null if the record has none.
+     */
+    String getFirst(String tag, char code) {
+        for (int i = 0; i < tags.size(); i++) {
+            if (tags.get(i).equals(tag)) {
+                char[] fieldCodes = codes.get(i);
+                for (int j = 0; j < fieldCodes.length; j++) {
+                    if (fieldCodes[j] == code) {
+                        return values.get(i)[j];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets every occurrence of a subfield, across repeated fields, in record order.
+     *
+     * @param tag  The field tag, e.g. "650".
+     * @param code The subfield code, e.g. 'a'.
+     * @return The subfield values; empty if the record has none.
+     */
+    List<String> getAll(String tag, char code) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < tags.size(); i++) {
+            if (tags.get(i).equals(tag)) {
+                char[] fieldCodes = codes.get(i);
+                for (int j = 0; j < fieldCodes.length; j++) {
+                    if (fieldCodes[j] == code) {
+                        result.add(values.get(i)[j]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.library.importer;
+
+import com.example.library.model.Category;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps MARC subject headings (field 650) to catalog category IDs.
+ * <p>
+ * A heading maps to a category if it starts with one of the configured subjects, ignoring case;
+ * the longest matching subject wins, so "science fiction" can map apart from "science".
+ */
+public class SubjectCategoryMap {
+
+    private final List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+
+    /**
+     * Constructs a SubjectCategoryMap.
+     *
+     * @param categoryIdsBySubject Category IDs keyed by subject heading.
+     */
+    public SubjectCategoryMap(Map<String, Integer> categoryIdsBySubject) {
+        categoryIdsBySubject.forEach((subject, categoryId) -> entries.add(Map.entry(normalize(subject), categoryId)));
+        entries.sort(Comparator.comparingInt((Map.Entry<String, Integer> e) -> e.getKey().length()).reversed());
+    }
+
+    /**
+     * Builds a map from the catalog's categories, using each category's name as its subject.
+     *
+     * @param categories The categories, e.g. from {@link com.example.library.dao.CategoryDao#findAll()}.
+     * @return The subject map.
+     */
+    public static SubjectCategoryMap of(List<Category> categories) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        for (Category category : categories) {
+            map.put(category.getName(), category.getCategoryId());
+        }
+        return new SubjectCategoryMap(map);
+    }
+
+    /**
+     * Finds the category of the first heading that maps to one.
+     *
+     * @param subjects Subject headings in record order.
+     * @return The category ID, or 0 if none of the headings map to a category.
+     */
+    public int categoryFor(List<String> subjects) {
+        for (String subject : subjects) {
+            String normalized = normalize(subject);
+            for (Map.Entry<String, Integer> entry : entries) {
+                if (normalized.startsWith(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static String normalize(String subject) {
+        return subject.trim().toLowerCase(Locale.ROOT);
+    }
+}
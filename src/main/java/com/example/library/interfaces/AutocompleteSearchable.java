@@ -0,0 +1,27 @@
+package com.example.library.interfaces;
+
+import java.util.List;
+
+/**
+ * Interface for search operations that also offer type-ahead completions.
+ */
+public interface AutocompleteSearchable extends Searchable {
+
+    /**
+     * Suggests titles for a partially typed title.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of suggestions.
+     * @return A list of suggested titles.
+     */
+    List<String> completeTitle(String prefix, int limit);
+
+    /**
+     * Suggests authors for a partially typed author name.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of suggestions.
+     * @return A list of suggested authors.
+     */
+    List<String> completeAuthor(String prefix, int limit);
+}
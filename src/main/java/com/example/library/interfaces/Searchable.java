@@ -23,4 +23,20 @@ public interface Searchable {
      * @return A list of books matching the author.
      */
     List<Book> searchByAuthor(String author);
+
+    /**
+     * Searches for books by title, tolerating misspellings.
+     *
+     * @param title The possibly misspelled title to search for.
+     * @return A list of books with similar titles, best match first.
+     */
+    List<Book> fuzzySearchByTitle(String title);
+
+    /**
+     * Searches for books by author, tolerating misspellings.
+     *
+     * @param author The possibly misspelled author to search for.
+     * @return A list of books with similar authors, best match first.
+     */
+    List<Book> fuzzySearchByAuthor(String author);
 }
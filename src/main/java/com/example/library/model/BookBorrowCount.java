@@ -0,0 +1,63 @@
+package com.example.library.model;
+
+/**
+ * One row of a popularity report: a book and how many times it was borrowed.
+ */
+public class BookBorrowCount {
+
+    private final int bookId;
+    private final String title;
+    private final String author;
+    private final int categoryId;
+    private final long borrowCount;
+
+    /**
+     * Constructs a BookBorrowCount with specified details.
+     *
+     * @param bookId      The ID of the book.
+     * @param title       The title of the book.
+     * @param author      The author of the book.
+     * @param categoryId  The ID of the book's category, or 0 if it has none.
+     * @param borrowCount The number of times the book was borrowed.
+     */
+    public BookBorrowCount(int bookId, String title, String author, int categoryId, long borrowCount) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.categoryId = categoryId;
+        this.borrowCount = borrowCount;
+    }
+
+    // Getters
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BookBorrowCount{" +
+               "bookId=" + bookId +
+               ", title='" + title + '\'' +
+               ", author='" + author + '\'' +
+               ", categoryId=" + categoryId +
+               ", borrowCount=" + borrowCount +
+               '}';
+    }
+}
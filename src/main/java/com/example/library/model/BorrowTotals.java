@@ -0,0 +1,66 @@
+package com.example.library.model;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Borrow counts per book, per category and per day, as stored in the summary tables or as
+ * counted from a slice of the loan history. Slices counted in parallel are combined with
+ * {@link #merge(BorrowTotals)}.
+ */
+public class BorrowTotals {
+
+    private final Map<Integer, Long> bookCounts = new HashMap<>();
+    private final Map<Integer, Long> categoryCounts = new HashMap<>();
+    private final Map<LocalDate, Long> dailyBorrows = new HashMap<>();
+    private final Map<LocalDate, Long> dailyReturns = new HashMap<>();
+
+    public void addBookCount(int bookId, long count) {
+        bookCounts.merge(bookId, count, Long::sum);
+    }
+
+    public void addCategoryCount(int categoryId, long count) {
+        categoryCounts.merge(categoryId, count, Long::sum);
+    }
+
+    public void addDailyBorrows(LocalDate date, long count) {
+        dailyBorrows.merge(date, count, Long::sum);
+    }
+
+    public void addDailyReturns(LocalDate date, long count) {
+        dailyReturns.merge(date, count, Long::sum);
+    }
+
+    /**
+     * Adds another set of totals to this one.
+     *
+     * @param other The totals to add.
+     * @return This object, for chaining.
+     */
+    public BorrowTotals merge(BorrowTotals other) {
+        other.bookCounts.forEach(this::addBookCount);
+        other.categoryCounts.forEach(this::addCategoryCount);
+        other.dailyBorrows.forEach(this::addDailyBorrows);
+        other.dailyReturns.forEach(this::addDailyReturns);
+        return this;
+    }
+
+    // Getters
+
+    public Map<Integer, Long> getBookCounts() {
+        return bookCounts;
+    }
+
+    public Map<Integer, Long> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public Map<LocalDate, Long> getDailyBorrows() {
+        return dailyBorrows;
+    }
+
+    public Map<LocalDate, Long> getDailyReturns() {
+        return dailyReturns;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * The number of books borrowed and returned on one day.
+ */
+public class DailyLoanCount {
+
+    private final LocalDate date;
+    private final long borrowCount;
+    private final long returnCount;
+
+    /**
+     * Constructs a DailyLoanCount with specified details.
+     *
+     * @param date        The day.
+     * @param borrowCount The number of books borrowed that day.
+     * @param returnCount The number of books returned that day.
+     */
+    public DailyLoanCount(LocalDate date, long borrowCount, long returnCount) {
+        this.date = date;
+        this.borrowCount = borrowCount;
+        this.returnCount = returnCount;
+    }
+
+    // Getters
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getReturnCount() {
+        return returnCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyLoanCount{" +
+               "date=" + date +
+               ", borrowCount=" + borrowCount +
+               ", returnCount=" + returnCount +
+               '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * How far the fine accrual run for one day has got.
+ */
+public class FineAccrualCheckpoint {
+
+    private final LocalDate runDate;
+    private final int lastTransactionId;
+    private final long loansProcessed;
+    private final boolean completed;
+
+    /**
+     * Constructs a FineAccrualCheckpoint with specified details.
+     *
+     * @param runDate           The date fines are accrued up to.
+     * @param lastTransactionId The highest transaction ID processed so far.
+     * @param loansProcessed    The number of loans processed so far.
+     * @param completed         Whether the run has processed every overdue loan.
+     */
+    public FineAccrualCheckpoint(LocalDate runDate, int lastTransactionId, long loansProcessed, boolean completed) {
+        this.runDate = runDate;
+        this.lastTransactionId = lastTransactionId;
+        this.loansProcessed = loansProcessed;
+        this.completed = completed;
+    }
+
+    // Getters
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public int getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public long getLoansProcessed() {
+        return loansProcessed;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public String toString() {
+        return "FineAccrualCheckpoint{" +
+               "runDate=" + runDate +
+               ", lastTransactionId=" + lastTransactionId +
+               ", loansProcessed=" + loansProcessed +
+               ", completed=" + completed +
+               '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.library.model;
+
+/**
+ * A book that is trending over a time window, with an approximate borrow count.
+ */
+public class TrendingBook {
+
+    private final int bookId;
+    private final String title;
+    private final String author;
+    private final long estimatedBorrows;
+    private final long maxError;
+
+    /**
+     * Constructs a TrendingBook with specified details.
+     *
+     * @param bookId           The ID of the book.
+     * @param title            The title of the book.
+     * @param author           The author of the book.
+     * @param estimatedBorrows The estimated number of borrows in the window.
+     * @param maxError         How far the estimate may be off from the true count.
+     */
+    public TrendingBook(int bookId, String title, String author, long estimatedBorrows, long maxError) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.estimatedBorrows = estimatedBorrows;
+        this.maxError = maxError;
+    }
+
+    // Getters
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public long getEstimatedBorrows() {
+        return estimatedBorrows;
+    }
+
+    public long getMaxError() {
+        return maxError;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendingBook{" +
+               "bookId=" + bookId +
+               ", title='" + title + '\'' +
+               ", author='" + author + '\'' +
+               ", estimatedBorrows=" + estimatedBorrows +
+               ", maxError=" + maxError +
+               '}';
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.library.report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.util.List;
+
+/**
+ * Writes a report to the console as a titled list of "column: value" lines.
+ * The console is flushed when the sink is closed but never closed itself.
+ */
+public class ConsoleReportSink extends ChannelReportSink {
+
+    private static final int CONSOLE_BUFFER_SIZE = 8 * 1024;
+
+    private final PrintStream out;
+    private final StringBuilder line = new StringBuilder();
+    private List<String> columns;
+    private String title;
+
+    public ConsoleReportSink() {
+        this(System.out);
+    }
+
+    public ConsoleReportSink(PrintStream out) {
+        super(Channels.newChannel(out), false, CONSOLE_BUFFER_SIZE);
+        this.out = out;
+    }
+
+    @Override
+    public void start(String title, List<String> columns) throws IOException {
+        this.title = title;
+        this.columns = columns;
+        out.flush();
+        append("\n--- " + title + " ---\n");
+    }
+
+    @Override
+    public void write(List<?> row) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            line.append(columns.get(i)).append(": ").append(i < row.size() ? row.get(i) : null);
+        }
+        line.append('\n');
+        append(line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (title != null) {
+            append("-".repeat(title.length() + 8) + "\n\n");
+        }
+        super.close();
+        out.flush();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.library.report;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes a report as RFC 4180 CSV: a header row of column names, then one line per row.
+ * Values containing commas, quotes or line breaks are quoted; null values are left empty.
+ */
+public class CsvReportSink extends ChannelReportSink {
+
+    private final StringBuilder line = new StringBuilder();
+
+    public CsvReportSink(Path path) throws IOException {
+        this(openFile(path), true, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a CsvReportSink over a channel.
+     *
+     * @param channel      The channel to write to.
+     * @param closeChannel Whether closing the sink closes the channel.
+     * @param bufferSize   The size of the write buffer in bytes.
+     */
+    public CsvReportSink(WritableByteChannel channel, boolean closeChannel, int bufferSize) {
+        super(channel, closeChannel, bufferSize);
+    }
+
+    @Override
+    public void start(String title, List<String> columns) throws IOException {
+        write(columns);
+    }
+
+    @Override
+    public void write(List<?> row) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < row.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = row.get(i);
+            if (value != null) {
+                appendField(value.toString());
+            }
+        }
+        line.append("\r\n");
+        append(line);
+    }
+
+    private void appendField(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.library.report;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes a report as JSON Lines: one JSON object per row, keyed by column name.
+ * Numbers and booleans are written as JSON values; everything else as strings.
+ */
+public class JsonLinesReportSink extends ChannelReportSink {
+
+    private final StringBuilder line = new StringBuilder();
+    private List<String> columns;
+
+    public JsonLinesReportSink(Path path) throws IOException {
+        this(openFile(path), true, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a JsonLinesReportSink over a channel.
+     *
+     * @param channel      The channel to write to.
+     * @param closeChannel Whether closing the sink closes the channel.
+     * @param bufferSize   The size of the write buffer in bytes.
+     */
+    public JsonLinesReportSink(WritableByteChannel channel, boolean closeChannel, int bufferSize) {
+        super(channel, closeChannel, bufferSize);
+    }
+
+    @Override
+    public void start(String title, List<String> columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public void write(List<?> row) throws IOException {
+        line.setLength(0);
+        line.append('{');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendString(columns.get(i));
+            line.append(':');
+            Object value = i < row.size() ? row.get(i) : null;
+            if (value == null) {
+                line.append("null");
+            } else if (value instanceof Number || value instanceof Boolean) {
+                line.append(value);
+            } else {
+                appendString(value.toString());
+            }
+        }
+        line.append("}\n");
+        append(line);
+    }
+
+    private void appendString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.library.report;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A report as a title, column names and a lazily produced stream of rows.
+ * <p>
+ * Rows may be read from the database as they are written, so a report holds resources until
+ * it is closed; use it in a try-with-resources block.
+ */
+public class Report implements AutoCloseable {
+
+    private final String title;
+    private final List<String> columns;
+    private final Stream<List<Object>> rows;
+
+    /**
+     * Constructs a Report.
+     *
+     * @param title   The title shown above the rows.
+     * @param columns The column names, in row order.
+     * @param rows    The rows; each has one value per column.
+     */
+    public Report(String title, List<String> columns, Stream<List<Object>> rows) {
+        this.title = title;
+        this.columns = List.copyOf(columns);
+        this.rows = rows;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public Stream<List<Object>> getRows() {
+        return rows;
+    }
+
+    /**
+     * Writes every row to a sink and closes the sink.
+     *
+     * @param sink The sink to write to.
+     * @return The number of rows written.
+     * @throws IOException if the sink cannot be written.
+     */
+    public long writeTo(ReportSink sink) throws IOException {
+        long count = 0;
+        try (sink) {
+            sink.start(title, columns);
+            Iterator<List<Object>> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sink.write(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        rows.close();
+    }
+}
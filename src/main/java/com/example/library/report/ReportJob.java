@@ -0,0 +1,143 @@
+package com.example.library.report;
+
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+
+/**
+ * A handle to a report running in the background on a {@link ReportJobScheduler}.
+ * All getters may be called from any thread while the job runs.
+ */
+public class ReportJob {
+
+    /**
+     * The lifecycle of a job. QUEUED jobs wait for a free slot; the last three are final.
+     */
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    private final int id;
+    private final String name;
+    private final Path output;
+    private final long submittedAt = System.currentTimeMillis();
+    private volatile Status status = Status.QUEUED;
+    private volatile long rowsWritten;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    ReportJob(int id, String name, Path output) {
+        this.id = id;
+        this.name = name;
+        this.output = output;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Gets the error message of a failed job.
+     *
+     * @return The message, or null unless the job failed.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Gets how long the job has been running, or ran in total once it has finished.
+     *
+     * @return The running time in milliseconds; 0 while the job is queued.
+     */
+    public long getElapsedMillis() {
+        long started = startedAt;
+        if (started == 0) {
+            return 0;
+        }
+        long finished = finishedAt;
+        return (finished == 0 ? System.currentTimeMillis() : finished) - started;
+    }
+
+    public boolean isFinished() {
+        Status current = status;
+        return current == Status.DONE || current == Status.FAILED || current == Status.CANCELLED;
+    }
+
+    /**
+     * Asks the job to stop. A queued job never starts; a running job stops before its next row
+     * and deletes its partial output.
+     *
+     * @return true if the job had not finished yet.
+     */
+    public boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        Future<?> running = future;
+        // A task cancelled before its thread picked it up never runs, so nothing else would finish it.
+        if (running != null && running.cancel(true) && status == Status.QUEUED) {
+            finish(Status.CANCELLED, null);
+        }
+        return true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    void rowWritten() {
+        // Only the job's own thread counts rows.
+        rowsWritten++;
+    }
+
+    void finish(Status finalStatus, String message) {
+        finishedAt = System.currentTimeMillis();
+        error = message;
+        status = finalStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportJob{" +
+               "id=" + id +
+               ", name='" + name + '\'' +
+               ", status=" + status +
+               ", rows=" + rowsWritten +
+               ", elapsedMs=" + getElapsedMillis() +
+               ", output=" + output +
+               '}';
+    }
+}
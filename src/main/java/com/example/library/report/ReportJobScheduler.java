@@ -0,0 +1,172 @@
+package com.example.library.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs reports in the background, each on its own virtual thread, writing them to files.
+ * <p>
+ * Reports scan large tables and hold a database connection while they run, so only a limited
+ * number run at once; further jobs wait in the QUEUED state. Jobs are kept until the scheduler
+ * is closed, so their status and output can be looked up after they finish.
+ */
+public class ReportJobScheduler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobScheduler.class);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("lms-report-", 1).factory());
+    private final Semaphore slots;
+    private final Map<Integer, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Constructs a ReportJobScheduler.
+     *
+     * @param maxConcurrent The number of reports that may run at the same time.
+     */
+    public ReportJobScheduler(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("At least one report must be allowed to run.");
+        }
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Starts writing a report to a file in the background.
+     *
+     * @param name   A name for the job, shown when jobs are listed.
+     * @param report Builds the report once the job gets a slot; runs on the job's thread.
+     * @param output The file to write; its extension picks the format, see {@link ReportSink#open(Path)}.
+     * @return The job handle.
+     * @throws IllegalArgumentException if the file extension is not supported.
+     */
+    public ReportJob submit(String name, Supplier<Report> report, Path output) {
+        if (!ReportSink.isSupported(output)) {
+            throw new IllegalArgumentException("Unsupported report file type: " + output.getFileName());
+        }
+        ReportJob job = new ReportJob(nextId.getAndIncrement(), name, output);
+        jobs.put(job.getId(), job);
+        job.setFuture(executor.submit(() -> run(job, report)));
+        logger.info("Submitted report job {} ({}) writing to {}", job.getId(), name, output);
+        return job;
+    }
+
+    /**
+     * Finds a job by its ID.
+     *
+     * @param jobId The ID of the job.
+     * @return An Optional containing the job if found, or empty if not.
+     */
+    public Optional<ReportJob> findJob(int jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Lists all jobs submitted to this scheduler.
+     *
+     * @return The jobs, oldest first.
+     */
+    public List<ReportJob> listJobs() {
+        List<ReportJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparingInt(ReportJob::getId));
+        return all;
+    }
+
+    /**
+     * Cancels all unfinished jobs and stops the scheduler.
+     */
+    @Override
+    public void close() {
+        jobs.values().forEach(ReportJob::cancel);
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJob job, Supplier<Report> reportSupplier) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            job.finish(ReportJob.Status.CANCELLED, null);
+            return;
+        }
+        try {
+            if (job.isCancelRequested()) {
+                job.finish(ReportJob.Status.CANCELLED, null);
+                return;
+            }
+            job.markRunning();
+            try (Report report = reportSupplier.get()) {
+                report.writeTo(new TrackingSink(ReportSink.open(job.getOutput()), job));
+            }
+            job.finish(ReportJob.Status.DONE, null);
+            logger.info("Report job {} wrote {} rows in {} ms.", job.getId(), job.getRowsWritten(), job.getElapsedMillis());
+        } catch (CancellationException e) {
+            deletePartialOutput(job);
+            job.finish(ReportJob.Status.CANCELLED, null);
+            logger.info("Report job {} cancelled after {} rows.", job.getId(), job.getRowsWritten());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Report job {} failed", job.getId(), e);
+            deletePartialOutput(job);
+            job.finish(job.isCancelRequested() ? ReportJob.Status.CANCELLED : ReportJob.Status.FAILED, e.getMessage());
+        } finally {
+            slots.release();
+        }
+    }
+
+    private void deletePartialOutput(ReportJob job) {
+        try {
+            Files.deleteIfExists(job.getOutput());
+        } catch (IOException e) {
+            logger.warn("Could not delete partial report {}", job.getOutput(), e);
+        }
+    }
+
+    /**
+     * Counts rows for the job's progress and stops the report once the job is cancelled.
+     */
+    private static final class TrackingSink implements ReportSink {
+
+        private final ReportSink delegate;
+        private final ReportJob job;
+
+        private TrackingSink(ReportSink delegate, ReportJob job) {
+            this.delegate = delegate;
+            this.job = job;
+        }
+
+        @Override
+        public void start(String title, List<String> columns) throws IOException {
+            delegate.start(title, columns);
+        }
+
+        @Override
+        public void write(List<?> row) throws IOException {
+            if (job.isCancelRequested()) {
+                throw new CancellationException("Report job " + job.getId() + " was cancelled");
+            }
+            delegate.write(row);
+            job.rowWritten();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
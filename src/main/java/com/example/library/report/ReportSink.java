@@ -0,0 +1,61 @@
+package com.example.library.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A destination that report rows are written to, one at a time.
+ */
+public interface ReportSink extends Closeable {
+
+    /**
+     * Called once before the first row.
+     *
+     * @param title   The report title.
+     * @param columns The column names.
+     * @throws IOException if the sink cannot be written.
+     */
+    void start(String title, List<String> columns) throws IOException;
+
+    /**
+     * Writes one row.
+     *
+     * @param row One value per column; values may be null.
+     * @throws IOException if the sink cannot be written.
+     */
+    void write(List<?> row) throws IOException;
+
+    /**
+     * Opens a file sink whose format matches the file extension: {@code .csv} for CSV,
+     * {@code .jsonl} or {@code .json} for JSON Lines.
+     *
+     * @param path The file to create or overwrite.
+     * @return The sink.
+     * @throws IOException if the file cannot be opened.
+     * @throws IllegalArgumentException if the extension is not supported.
+     */
+    static ReportSink open(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return new CsvReportSink(path);
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return new JsonLinesReportSink(path);
+        }
+        throw new IllegalArgumentException("Unsupported report file type: " + path.getFileName());
+    }
+
+    /**
+     * Checks whether {@link #open(Path)} supports a file's extension.
+     *
+     * @param path The file.
+     * @return true if the file can be written as CSV or JSON Lines.
+     */
+    static boolean isSupported(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".jsonl") || name.endsWith(".json");
+    }
+}
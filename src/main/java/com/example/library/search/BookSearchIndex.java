@@ -0,0 +1,150 @@
+package com.example.library.search;
+
+import com.example.library.model.Book;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An inverted index over book titles and authors.
+ * <p>
+ * Text is split into case-folded words. A query matches a book when every word of the query
+ * is a prefix of some word in the book's title (or author), so "hobb" and "the hobbit" both
+ * find "The Hobbit". Unlike SQL {@code LIKE '%x%'}, a query cannot start in the middle of a word.
+ */
+public class BookSearchIndex implements CatalogIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, IntPostings> titleIndex = new TreeMap<>();
+    private final NavigableMap<String, IntPostings> authorIndex = new TreeMap<>();
+    private final Map<Integer, String[]> indexed = new HashMap<>();
+    private final IntPostings allIds = new IntPostings();
+
+    @Override
+    public void add(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(book.getBookId());
+            indexed.put(book.getBookId(), new String[]{book.getTitle(), book.getAuthor()});
+            allIds.add(book.getBookId());
+            for (String token : Tokenizer.tokenize(book.getTitle())) {
+                titleIndex.computeIfAbsent(token, t -> new IntPostings()).add(book.getBookId());
+            }
+            for (String token : Tokenizer.tokenize(book.getAuthor())) {
+                authorIndex.computeIfAbsent(token, t -> new IntPostings()).add(book.getBookId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            titleIndex.clear();
+            authorIndex.clear();
+            indexed.clear();
+            allIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds books whose title matches a query.
+     *
+     * @param query The words to search for.
+     * @return The IDs of matching books in ascending order.
+     */
+    public int[] searchTitle(String query) {
+        return search(titleIndex, query);
+    }
+
+    /**
+     * Finds books whose author matches a query.
+     *
+     * @param query The words to search for.
+     * @return The IDs of matching books in ascending order.
+     */
+    public int[] searchAuthor(String query) {
+        return search(authorIndex, query);
+    }
+
+    /**
+     * Gets the number of indexed books.
+     *
+     * @return The number of indexed books.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] search(NavigableMap<String, IntPostings> index, String query) {
+        Set<String> tokens = Tokenizer.tokenize(query);
+        lock.readLock().lock();
+        try {
+            if (tokens.isEmpty()) {
+                // An empty query matches everything, as LIKE '%%' does
+                return allIds.toArray();
+            }
+            IntPostings result = null;
+            for (String token : tokens) {
+                IntPostings matches = IntPostings.union(index.subMap(token, true, token + Character.MAX_VALUE, false).values());
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.retainAll(matches);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(int bookId) {
+        String[] previous = indexed.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        allIds.remove(bookId);
+        removePostings(titleIndex, Tokenizer.tokenize(previous[0]), bookId);
+        removePostings(authorIndex, Tokenizer.tokenize(previous[1]), bookId);
+    }
+
+    private static void removePostings(Map<String, IntPostings> index, Set<String> tokens, int bookId) {
+        for (String token : tokens) {
+            IntPostings postings = index.get(token);
+            if (postings != null) {
+                postings.remove(bookId);
+                if (postings.isEmpty()) {
+                    index.remove(token);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.library.search;
+
+import com.example.library.model.Book;
+
+/**
+ * An in-memory index over the book catalog that is kept up to date as books change.
+ */
+public interface CatalogIndex {
+
+    /**
+     * Adds a book to the index, replacing any earlier version of the same book.
+     *
+     * @param book The book to index.
+     */
+    void add(Book book);
+
+    /**
+     * Removes a book from the index. Does nothing if the book is not indexed.
+     *
+     * @param bookId The ID of the book to remove.
+     */
+    void remove(int bookId);
+
+    /**
+     * Removes every book from the index.
+     */
+    void clear();
+}
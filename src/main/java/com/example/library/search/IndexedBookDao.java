@@ -0,0 +1,227 @@
+package com.example.library.search;
+
+import com.example.library.dao.BookDao;
+import com.example.library.db.DataAccessException;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link BookDao} decorator that answers title and author searches from a {@link BookSearchIndex}
+ * instead of scanning the books table, and keeps its catalog indexes up to date as books are
+ * added, updated and deleted through it.
+ * <p>
+ * The indexes only hold IDs and text; matching books are loaded from the underlying DAO by ID,
+ * so search results always show current availability. Index updates are applied once the write's
+ * transaction commits, so a failed or rolled-back write leaves the indexes unchanged.
+ */
+public class IndexedBookDao implements BookDao {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexedBookDao.class);
+
+    private final BookDao delegate;
+    private final BookSearchIndex searchIndex;
+    private final TransactionRunner transactionRunner;
+    private final List<CatalogIndex> indexes = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an IndexedBookDao.
+     *
+     * @param delegate          The DAO that reads and writes the database.
+     * @param searchIndex       The index that answers title and author searches.
+     * @param transactionRunner Runs each write in a unit of work and defers index updates until it commits.
+     */
+    public IndexedBookDao(BookDao delegate, BookSearchIndex searchIndex, TransactionRunner transactionRunner) {
+        this.delegate = delegate;
+        this.searchIndex = searchIndex;
+        this.transactionRunner = transactionRunner;
+        this.indexes.add(searchIndex);
+    }
+
+    /**
+     * Registers another catalog index to keep up to date. Call {@link #rebuild()} afterwards
+     * to load the existing catalog into it.
+     *
+     * @param index The index to maintain.
+     */
+    public void addIndex(CatalogIndex index) {
+        indexes.add(index);
+    }
+
+    /**
+     * Clears all indexes and reloads them from the underlying DAO.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        indexes.forEach(CatalogIndex::clear);
+        AtomicLong count = new AtomicLong();
+        try (Stream<Book> books = delegate.streamAll()) {
+            books.forEach(book -> {
+                indexes.forEach(index -> index.add(book));
+                count.incrementAndGet();
+            });
+        }
+        logger.info("Indexed {} books in {} ms.", count.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void addBook(Book book) {
+        writeThenIndex(() -> {
+            delegate.addBook(book);
+            return null;
+        }, () -> {
+            if (book.getBookId() > 0) {
+                indexes.forEach(index -> index.add(book));
+            }
+        }, null);
+    }
+
+    @Override
+    public int addBooks(Collection<Book> books) {
+        return writeThenIndex(() -> delegate.addBooks(books), () -> {
+            for (Book book : books) {
+                if (book.getBookId() > 0) {
+                    indexes.forEach(index -> index.add(book));
+                }
+            }
+        }, 0);
+    }
+
+    @Override
+    public Optional<Book> findById(int bookId) {
+        return delegate.findById(bookId);
+    }
+
+    @Override
+    public Map<Integer, Book> findByIds(Collection<Integer> bookIds) {
+        return delegate.findByIds(bookIds);
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void updateBook(Book book) {
+        writeThenIndex(() -> {
+            delegate.updateBook(book);
+            return null;
+        }, () -> indexes.forEach(index -> index.add(book)), null);
+    }
+
+    @Override
+    public boolean compareAndSetAvailability(int bookId, boolean expected, boolean available) {
+        return delegate.compareAndSetAvailability(bookId, expected, available);
+    }
+
+    @Override
+    public void deleteBook(int bookId) {
+        writeThenIndex(() -> {
+            delegate.deleteBook(bookId);
+            return null;
+        }, () -> indexes.forEach(index -> index.remove(bookId)), null);
+    }
+
+    @Override
+    public List<Book> findByTitle(String title) {
+        return load(searchIndex.searchTitle(title));
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author) {
+        return load(searchIndex.searchAuthor(author));
+    }
+
+    @Override
+    public List<Book> findAvailableBooks() {
+        return delegate.findAvailableBooks();
+    }
+
+    @Override
+    public List<Book> findAll(int afterBookId, int limit) {
+        return delegate.findAll(afterBookId, limit);
+    }
+
+    @Override
+    public List<Book> findByTitle(String title, int afterBookId, int limit) {
+        return load(page(searchIndex.searchTitle(title), afterBookId, limit));
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author, int afterBookId, int limit) {
+        return load(page(searchIndex.searchAuthor(author), afterBookId, limit));
+    }
+
+    @Override
+    public List<Book> findAvailableBooks(int afterBookId, int limit) {
+        return delegate.findAvailableBooks(afterBookId, limit);
+    }
+
+    @Override
+    public List<Book> findByCategory(int categoryId, int afterBookId, int limit) {
+        return delegate.findByCategory(categoryId, afterBookId, limit);
+    }
+
+    /**
+     * Runs a write in a unit of work and updates the indexes after it commits. The underlying DAO
+     * reports a failed write by marking the unit of work rollback-only, which also drops the update.
+     */
+    private <T> T writeThenIndex(Supplier<T> write, Runnable indexUpdate, T onFailure) {
+        try {
+            return transactionRunner.inTransaction(() -> {
+                T result = write.get();
+                transactionRunner.afterCommit(indexUpdate);
+                return result;
+            });
+        } catch (DataAccessException e) {
+            logger.error("Catalog write failed; search indexes left unchanged", e);
+            return onFailure;
+        }
+    }
+
+    /**
+     * Cuts one page out of ascending IDs, seeking to the first ID after the cursor.
+     */
+    private static int[] page(int[] bookIds, int afterBookId, int limit) {
+        int pos = Arrays.binarySearch(bookIds, afterBookId);
+        int from = pos >= 0 ? pos + 1 : -pos - 1;
+        return Arrays.copyOfRange(bookIds, from, Math.min(bookIds.length, from + Math.max(0, limit)));
+    }
+
+    /**
+     * Loads books by ID, keeping the order of the IDs and skipping books deleted in the meantime.
+     */
+    private List<Book> load(int[] bookIds) {
+        List<Integer> ids = new ArrayList<>(bookIds.length);
+        for (int id : bookIds) {
+            ids.add(id);
+        }
+        Map<Integer, Book> books = delegate.findByIds(ids);
+        List<Book> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Book book = books.get(id);
+            if (book != null) {
+                result.add(book);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.library.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A sorted set of book IDs stored in a growable int array.
+ * <p>
+ * Book IDs are assigned in increasing order, so most additions append at the end.
+ * Not thread-safe; owners guard access with their own lock.
+ */
+class IntPostings {
+
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+        if (size > 0 && ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Builds the union of several sets in one pass: the IDs are copied into a single array,
+     * sorted and deduplicated, instead of merging the sets pairwise.
+     */
+    static IntPostings union(Collection<IntPostings> sets) {
+        int total = 0;
+        for (IntPostings set : sets) {
+            total += set.size;
+        }
+        IntPostings union = new IntPostings();
+        union.ids = new int[Math.max(total, 4)];
+        for (IntPostings set : sets) {
+            System.arraycopy(set.ids, 0, union.ids, union.size, set.size);
+            union.size += set.size;
+        }
+        if (sets.size() > 1) {
+            Arrays.sort(union.ids, 0, union.size);
+            int n = 0;
+            for (int i = 0; i < union.size; i++) {
+                if (n == 0 || union.ids[n - 1] != union.ids[i]) {
+                    union.ids[n++] = union.ids[i];
+                }
+            }
+            union.size = n;
+        }
+        return union;
+    }
+
+    /**
+     * Keeps only the IDs that are also in another set.
+     */
+    void retainAll(IntPostings other) {
+        int i = 0, j = 0, n = 0;
+        while (i < size && j < other.size) {
+            int a = ids[i], b = other.ids[j];
+            if (a < b) {
+                i++;
+            } else if (b < a) {
+                j++;
+            } else {
+                ids[n++] = a;
+                i++;
+                j++;
+            }
+        }
+        size = n;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+    }
+}
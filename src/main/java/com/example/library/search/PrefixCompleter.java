@@ -0,0 +1,209 @@
+package com.example.library.search;
+
+import com.example.library.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Type-ahead completions for catalog titles and authors.
+ * <p>
+ * Each title and author is stored in a sorted map under its normalized text and under the
+ * normalized text starting at each later word, so "hob" completes to "The Hobbit". A lookup
+ * seeks to the prefix and walks forward until it has enough distinct completions, which costs
+ * O(log n + limit). Entries are reference-counted across copies of the same title, and the map
+ * stops accepting new keys once it holds {@code maxEntries}, which bounds its memory.
+ */
+public class PrefixCompleter implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefixCompleter.class);
+
+    private final int maxEntries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Completion> titles = new TreeMap<>();
+    private final NavigableMap<String, Completion> authors = new TreeMap<>();
+    private final Map<Integer, IndexedKeys> indexed = new HashMap<>();
+    private boolean warnedFull;
+
+    /**
+     * Constructs a PrefixCompleter.
+     *
+     * @param maxEntries The maximum number of keys held across titles and authors.
+     */
+    public PrefixCompleter(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void add(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(book.getBookId());
+            indexed.put(book.getBookId(), new IndexedKeys(addKeys(titles, book.getTitle()), addKeys(authors, book.getAuthor())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            authors.clear();
+            indexed.clear();
+            warnedFull = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Completes a title prefix.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of completions.
+     * @return Distinct matching titles in alphabetical order of the matched text.
+     */
+    public List<String> completeTitle(String prefix, int limit) {
+        return complete(titles, prefix, limit);
+    }
+
+    /**
+     * Completes an author prefix.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of completions.
+     * @return Distinct matching authors in alphabetical order of the matched text.
+     */
+    public List<String> completeAuthor(String prefix, int limit) {
+        return complete(authors, prefix, limit);
+    }
+
+    private List<String> complete(NavigableMap<String, Completion> map, String prefix, int limit) {
+        String key = normalize(prefix);
+        Set<String> results = new LinkedHashSet<>();
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>(results);
+        }
+        lock.readLock().lock();
+        try {
+            for (Completion completion : map.tailMap(key, true).headMap(key + Character.MAX_VALUE, false).values()) {
+                results.add(completion.display);
+                if (results.size() >= limit) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Adds or references the keys of a text and returns the ones it holds a reference to,
+     * which leaves out keys dropped because the map was full.
+     */
+    private List<String> addKeys(NavigableMap<String, Completion> map, String text) {
+        List<String> added = new ArrayList<>();
+        for (String key : keysOf(text)) {
+            Completion completion = map.get(key);
+            if (completion != null) {
+                completion.references++;
+                added.add(key);
+            } else if (titles.size() + authors.size() < maxEntries) {
+                map.put(key, new Completion(text));
+                added.add(key);
+            } else if (!warnedFull) {
+                warnedFull = true;
+                logger.warn("Autocomplete is full at {} entries; new titles and authors will not be suggested.", maxEntries);
+            }
+        }
+        return added;
+    }
+
+    private void removeLocked(int bookId) {
+        IndexedKeys previous = indexed.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        removeKeys(titles, previous.titleKeys);
+        removeKeys(authors, previous.authorKeys);
+    }
+
+    private static void removeKeys(NavigableMap<String, Completion> map, List<String> keys) {
+        for (String key : keys) {
+            Completion completion = map.get(key);
+            if (completion != null && --completion.references == 0) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Gets the normalized text and its suffixes starting at each later word.
+     */
+    private static Set<String> keysOf(String text) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * Normalizes text the same way as {@link BookSearchIndex}, keeping single spaces between words.
+     */
+    private static String normalize(String text) {
+        return text == null ? "" : String.join(" ", Tokenizer.words(text));
+    }
+
+    /**
+     * The keys a book holds a reference to in each map.
+     */
+    private static final class IndexedKeys {
+
+        private final List<String> titleKeys;
+        private final List<String> authorKeys;
+
+        private IndexedKeys(List<String> titleKeys, List<String> authorKeys) {
+            this.titleKeys = titleKeys;
+            this.authorKeys = authorKeys;
+        }
+    }
+
+    private static final class Completion {
+
+        private final String display;
+        private int references = 1;
+
+        private Completion(String display) {
+            this.display = display;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.library.search;
+
+import com.example.library.model.Book;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A trigram index over book titles and authors for typo-tolerant search.
+ * <p>
+ * Every word is padded and cut into overlapping three-letter grams ("hobbit" gives "$$h", "$ho",
+ * "hob", ..., "it$"), each packed into an int. A book matches when it contains at least
+ * {@code minSimilarity} of the query's grams; matches are ranked by that share and then by the
+ * Dice coefficient, which prefers books without many extra words. "Hobit" finds "The Hobbit"
+ * and "Tolkein" finds "J.R.R. Tolkien".
+ * <p>
+ * Candidates are gathered from the posting lists of the query's rarest grams only: a book that
+ * shares enough grams with the query must share one of the rarest {@code n - required + 1}.
+ * Lists longer than {@code maxPostings}, such as that of "$$t" in a catalog full of "The ...",
+ * are skipped unless they are the rarest, so a few very common grams cannot make every query
+ * score most of the catalog.
+ */
+public class TrigramIndex implements CatalogIndex {
+
+    /** The default longest posting list scanned for candidates. */
+    public static final int DEFAULT_MAX_POSTINGS = 50_000;
+
+    private static final int[] NO_GRAMS = new int[0];
+
+    private final double minSimilarity;
+    private final int maxPostings;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IntPostings> titleGrams = new HashMap<>();
+    private final Map<Integer, IntPostings> authorGrams = new HashMap<>();
+    private final Map<Integer, Indexed> indexed = new HashMap<>();
+
+    /**
+     * Constructs a TrigramIndex that skips posting lists longer than {@link #DEFAULT_MAX_POSTINGS}.
+     *
+     * @param minSimilarity The share of query trigrams, between 0 and 1, a book must contain to match.
+     */
+    public TrigramIndex(double minSimilarity) {
+        this(minSimilarity, DEFAULT_MAX_POSTINGS);
+    }
+
+    /**
+     * Constructs a TrigramIndex.
+     *
+     * @param minSimilarity The share of query trigrams, between 0 and 1, a book must contain to match.
+     * @param maxPostings   The longest posting list scanned for candidates, unless it belongs to the query's rarest gram.
+     */
+    public TrigramIndex(double minSimilarity, int maxPostings) {
+        this.minSimilarity = minSimilarity;
+        this.maxPostings = maxPostings;
+    }
+
+    @Override
+    public void add(Book book) {
+        int[] title = trigrams(book.getTitle());
+        int[] author = trigrams(book.getAuthor());
+        lock.writeLock().lock();
+        try {
+            removeLocked(book.getBookId());
+            indexed.put(book.getBookId(), new Indexed(title, author));
+            for (int gram : title) {
+                titleGrams.computeIfAbsent(gram, g -> new IntPostings()).add(book.getBookId());
+            }
+            for (int gram : author) {
+                authorGrams.computeIfAbsent(gram, g -> new IntPostings()).add(book.getBookId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            titleGrams.clear();
+            authorGrams.clear();
+            indexed.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds books whose title is similar to a possibly misspelled query.
+     *
+     * @param query The text to search for.
+     * @param limit The maximum number of results.
+     * @return The IDs of matching books, best match first.
+     */
+    public List<Integer> searchTitle(String query, int limit) {
+        return search(titleGrams, query, limit, true);
+    }
+
+    /**
+     * Finds books whose author is similar to a possibly misspelled query.
+     *
+     * @param query The text to search for.
+     * @param limit The maximum number of results.
+     * @return The IDs of matching books, best match first.
+     */
+    public List<Integer> searchAuthor(String query, int limit) {
+        return search(authorGrams, query, limit, false);
+    }
+
+    private List<Integer> search(Map<Integer, IntPostings> grams, String query, int limit, boolean title) {
+        int[] queryGrams = trigrams(query);
+        if (queryGrams.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int required = Math.max(1, (int) Math.ceil(minSimilarity * queryGrams.length));
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<IntPostings> lists = new ArrayList<>(queryGrams.length);
+            for (int gram : queryGrams) {
+                lists.add(grams.getOrDefault(gram, new IntPostings()));
+            }
+            lists.sort(Comparator.comparingInt(IntPostings::size));
+            int probe = Math.min(lists.size(), queryGrams.length - required + 1);
+            List<IntPostings> scanned = new ArrayList<>(probe);
+            boolean found = false;
+            for (int i = 0; i < probe; i++) {
+                IntPostings postings = lists.get(i);
+                if (found && postings.size() > maxPostings) {
+                    // The remaining lists are at least as long
+                    break;
+                }
+                scanned.add(postings);
+                found |= !postings.isEmpty();
+            }
+            IntPostings candidates = IntPostings.union(scanned);
+            for (int i = 0; i < candidates.size(); i++) {
+                int bookId = candidates.get(i);
+                Indexed book = indexed.get(bookId);
+                int[] bookGrams = title ? book.title : book.author;
+                int common = countCommon(queryGrams, bookGrams);
+                if (common < required) {
+                    continue;
+                }
+                double containment = (double) common / queryGrams.length;
+                double dice = 2.0 * common / (queryGrams.length + bookGrams.length);
+                matches.add(new Match(bookId, containment, dice));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort((a, b) -> a.containment != b.containment
+                ? Double.compare(b.containment, a.containment)
+                : Double.compare(b.dice, a.dice));
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            ids.add(matches.get(i).bookId);
+        }
+        return ids;
+    }
+
+    private void removeLocked(int bookId) {
+        Indexed previous = indexed.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        removePostings(titleGrams, previous.title, bookId);
+        removePostings(authorGrams, previous.author, bookId);
+    }
+
+    private static void removePostings(Map<Integer, IntPostings> grams, int[] keys, int bookId) {
+        for (int gram : keys) {
+            IntPostings postings = grams.get(gram);
+            if (postings != null) {
+                postings.remove(bookId);
+                if (postings.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the grams two sorted gram arrays have in common.
+     */
+    private static int countCommon(int[] a, int[] b) {
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (b[j] < a[i]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+
+    /**
+     * Gets the distinct trigrams of the normalized words of a text, padding each word with '$',
+     * as sorted packed ints.
+     */
+    static int[] trigrams(String text) {
+        List<String> words = Tokenizer.words(text);
+        if (words.isEmpty()) {
+            return NO_GRAMS;
+        }
+        int count = 0;
+        for (String word : words) {
+            count += word.length() + 1;
+        }
+        int[] grams = new int[count];
+        int n = 0;
+        for (String word : words) {
+            String padded = "$$" + word + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams[n++] = pack(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+            }
+        }
+        Arrays.sort(grams, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Packs a trigram into an int. Grams of characters below U+0400, which covers Latin and Greek
+     * text, are packed exactly at 10 bits per character; others are hashed into the upper half.
+     */
+    private static int pack(char a, char b, char c) {
+        if (a < 0x400 && b < 0x400 && c < 0x400) {
+            return a << 20 | b << 10 | c;
+        }
+        int hash = (a << 16 | b) * 0x9E3779B1 + c * 0x85EBCA77;
+        return 1 << 30 | (hash ^ hash >>> 15) & 0x3FFFFFFF;
+    }
+
+    private static final class Indexed {
+
+        private final int[] title;
+        private final int[] author;
+
+        private Indexed(int[] title, int[] author) {
+            this.title = title;
+            this.author = author;
+        }
+    }
+
+    private static final class Match {
+
+        private final int bookId;
+        private final double containment;
+        private final double dice;
+
+        private Match(int bookId, double containment, double dice) {
+            this.bookId = bookId;
+            this.containment = containment;
+            this.dice = dice;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.library.service;
+
+import com.example.library.dao.TransactionDao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps an in-memory count of each user's active loans, so borrow-limit checks
+ * do not have to query the database on every borrow.
+ * <p>
+ * A user's count is loaded from the database the first time it is needed and is then
+ * kept up to date by {@link LibraryService} as books are borrowed and returned.
+ */
+public class ActiveLoanCounter {
+
+    private final TransactionDao transactionDao;
+    private final ConcurrentMap<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    public ActiveLoanCounter(TransactionDao transactionDao) {
+        this.transactionDao = transactionDao;
+    }
+
+    /**
+     * Reserves one loan for a user if they are below the limit.
+     *
+     * @param userId The ID of the user.
+     * @param limit  The maximum number of active loans allowed.
+     * @return true if the loan was reserved, false if the user is already at the limit.
+     */
+    public boolean tryAcquire(int userId, int limit) {
+        AtomicInteger count = counterFor(userId);
+        while (true) {
+            int current = count.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (count.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back one loan, after a return or a borrow that did not go through.
+     *
+     * @param userId The ID of the user.
+     */
+    public void release(int userId) {
+        AtomicInteger count = counts.get(userId);
+        if (count != null) {
+            count.updateAndGet(c -> Math.max(0, c - 1));
+        }
+    }
+
+    /**
+     * Gets the number of active loans for a user.
+     *
+     * @param userId The ID of the user.
+     * @return The number of active loans.
+     */
+    public int get(int userId) {
+        return counterFor(userId).get();
+    }
+
+    /**
+     * Drops the cached count for a user, so it is reloaded from the database next time.
+     *
+     * @param userId The ID of the user.
+     */
+    public void invalidate(int userId) {
+        counts.remove(userId);
+    }
+
+    private AtomicInteger counterFor(int userId) {
+        return counts.computeIfAbsent(userId, id -> new AtomicInteger(transactionDao.countActiveByUserId(id)));
+    }
+}
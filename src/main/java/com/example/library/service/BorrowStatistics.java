@@ -0,0 +1,186 @@
+package com.example.library.service;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.BorrowStatisticsDao;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+import com.example.library.model.BookBorrowCount;
+import com.example.library.model.BorrowTotals;
+import com.example.library.model.DailyLoanCount;
+import com.example.library.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Borrow counts per book, per category and per day, maintained as loans happen.
+ * <p>
+ * Each borrow and return updates the summary tables in the loan's own transaction, so the
+ * counts never drift from the history; the DAO spreads day and category counts over several
+ * rows so loans of the same day do not queue on one row. Per-book and per-category counts are
+ * mirrored in memory once the transaction commits, with the books kept ranked by count, so the
+ * top K books are read in O(K) without touching the database.
+ */
+public class BorrowStatistics implements LoanListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BorrowStatistics.class);
+
+    private static final Comparator<long[]> BY_COUNT_DESC =
+            Comparator.<long[]>comparingLong(e -> -e[1]).thenComparingLong(e -> e[0]);
+
+    private final BorrowStatisticsDao statisticsDao;
+    private final BookDao bookDao;
+    private final TransactionRunner transactionRunner;
+
+    // Loans in this process hold the read lock from their counter update until their unit of work
+    // ends; a rebuild holds the write lock, so it neither misses nor double counts those loans.
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    // Guarded by this; ranking holds {bookId, count} entries mirroring bookCounts.
+    private final Map<Integer, Long> bookCounts = new HashMap<>();
+    private final Map<Integer, Long> categoryCounts = new HashMap<>();
+    private final TreeSet<long[]> ranking = new TreeSet<>(BY_COUNT_DESC);
+
+    public BorrowStatistics(BorrowStatisticsDao statisticsDao, BookDao bookDao, TransactionRunner transactionRunner) {
+        this.statisticsDao = statisticsDao;
+        this.bookDao = bookDao;
+        this.transactionRunner = transactionRunner;
+    }
+
+    /**
+     * Loads the stored counts into memory. Call once at startup, before loans are recorded.
+     */
+    public void load() {
+        BorrowTotals totals = statisticsDao.loadTotals();
+        replaceMirror(totals);
+        logger.info("Loaded borrow statistics for {} books and {} categories.",
+                totals.getBookCounts().size(), totals.getCategoryCounts().size());
+    }
+
+    @Override
+    public void onBorrow(Transaction loan, Book book) {
+        holdUntilCompletion();
+        statisticsDao.recordBorrow(book.getBookId(), book.getCategoryId(), loan.getBorrowDate());
+        transactionRunner.afterCommit(() -> countBorrow(book.getBookId(), book.getCategoryId()));
+    }
+
+    @Override
+    public void onReturn(Transaction loan, Book book) {
+        holdUntilCompletion();
+        statisticsDao.recordReturn(loan.getReturnDate());
+    }
+
+    /**
+     * Gets the most borrowed books of all time.
+     *
+     * @param limit The number of books to return.
+     * @return At most {@code limit} rows, most borrowed first; ties are ordered by book ID.
+     */
+    public List<BookBorrowCount> getTopBooks(int limit) {
+        List<long[]> top = new ArrayList<>(limit);
+        synchronized (this) {
+            Iterator<long[]> it = ranking.iterator();
+            while (top.size() < limit && it.hasNext()) {
+                long[] entry = it.next();
+                top.add(new long[]{entry[0], entry[1]});
+            }
+        }
+        List<Integer> bookIds = new ArrayList<>(top.size());
+        top.forEach(entry -> bookIds.add((int) entry[0]));
+        Map<Integer, Book> books = bookDao.findByIds(bookIds);
+
+        List<BookBorrowCount> rows = new ArrayList<>(top.size());
+        for (long[] entry : top) {
+            Book book = books.get((int) entry[0]);
+            if (book != null) {
+                rows.add(new BookBorrowCount(book.getBookId(), book.getTitle(), book.getAuthor(),
+                        book.getCategoryId(), entry[1]));
+            }
+        }
+        return rows;
+    }
+
+    public synchronized long getBookBorrowCount(int bookId) {
+        return bookCounts.getOrDefault(bookId, 0L);
+    }
+
+    public synchronized long getCategoryBorrowCount(int categoryId) {
+        return categoryCounts.getOrDefault(categoryId, 0L);
+    }
+
+    /**
+     * Gets the daily borrow and return counts in a date range, from the summary table.
+     *
+     * @param from The first day, inclusive.
+     * @param to   The last day, inclusive.
+     * @return One row per day with any loans, in date order.
+     */
+    public List<DailyLoanCount> getDailyCounts(LocalDate from, LocalDate to) {
+        return statisticsDao.findDailyCounts(from, to);
+    }
+
+    /**
+     * Recomputes all counts from the loan history and replaces the summary tables and the
+     * in-memory mirror. The history is counted in transaction ID ranges in parallel by the
+     * engine. Loans in this process wait while the rebuild runs; run it while no other
+     * process records loans, since their loans may be missed.
+     *
+     * @param engine Scans the loan history.
+     * @return The rebuilt totals.
+     * @throws com.example.library.db.DataAccessException if the history cannot be read.
+     */
+    public BorrowTotals rebuild(PartitionedReportEngine engine) {
+        rebuildLock.writeLock().lock();
+        try {
+            long start = System.currentTimeMillis();
+            BorrowTotals totals = engine.run(statisticsDao::countHistory, BorrowTotals::new, BorrowTotals::merge);
+            if (!statisticsDao.replaceAll(totals)) {
+                throw new IllegalStateException("Could not store rebuilt borrow statistics");
+            }
+            replaceMirror(totals);
+            logger.info("Rebuilt borrow statistics for {} books in {} ms with parallelism {}.",
+                    totals.getBookCounts().size(), System.currentTimeMillis() - start, engine.getParallelism());
+            return totals;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps a rebuild from starting until the current unit of work has committed or rolled back.
+     */
+    private void holdUntilCompletion() {
+        rebuildLock.readLock().lock();
+        transactionRunner.afterCompletion(rebuildLock.readLock()::unlock);
+    }
+
+    private synchronized void countBorrow(int bookId, int categoryId) {
+        long previous = bookCounts.getOrDefault(bookId, 0L);
+        if (previous > 0) {
+            ranking.remove(new long[]{bookId, previous});
+        }
+        bookCounts.put(bookId, previous + 1);
+        ranking.add(new long[]{bookId, previous + 1});
+        if (categoryId > 0) {
+            categoryCounts.merge(categoryId, 1L, Long::sum);
+        }
+    }
+
+    private synchronized void replaceMirror(BorrowTotals totals) {
+        bookCounts.clear();
+        categoryCounts.clear();
+        ranking.clear();
+        bookCounts.putAll(totals.getBookCounts());
+        categoryCounts.putAll(totals.getCategoryCounts());
+        bookCounts.forEach((bookId, count) -> ranking.add(new long[]{bookId, count}));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.library.service;
+
+import com.example.library.dao.FineAccrualDao;
+import com.example.library.dao.TransactionDao;
+import com.example.library.model.FineAccrualCheckpoint;
+import com.example.library.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes the fines run up so far onto every overdue loan that has not been returned, so
+ * outstanding fines are visible before the books come back.
+ * <p>
+ * Overdue loans are read in ID order one batch at a time. Fines are calculated and written by
+ * worker threads, one transaction per batch, while the next batches are read; at most two batches
+ * per worker are held in memory. After each batch, in order, a checkpoint records the last
+ * transaction ID done, so a run that stops part-way resumes there. Fines depend only on the
+ * due date and the run date, so batches redone after a crash are written with the same values.
+ * Each worker uses its own pooled connection; keep the parallelism below the pool size.
+ */
+public class FineAccrualJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(FineAccrualJob.class);
+    private static final long PROGRESS_INTERVAL = 100_000;
+    private static final double FINE_TOLERANCE = 0.005;
+
+    private final TransactionDao transactionDao;
+    private final FineAccrualDao fineAccrualDao;
+    private final FineManager fineManager;
+    private final int batchSize;
+    private final int parallelism;
+
+    /**
+     * Constructs a FineAccrualJob.
+     *
+     * @param transactionDao The DAO the loans are read from and written to.
+     * @param fineAccrualDao The DAO the checkpoints are kept in.
+     * @param fineManager    Calculates the fines.
+     * @param batchSize      The number of loans read and written together.
+     * @param parallelism    The number of worker threads; 0 or less uses one per CPU.
+     */
+    public FineAccrualJob(TransactionDao transactionDao, FineAccrualDao fineAccrualDao, FineManager fineManager,
+                          int batchSize, int parallelism) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        this.transactionDao = transactionDao;
+        this.fineAccrualDao = fineAccrualDao;
+        this.fineManager = fineManager;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Accrues fines up to a day, resuming from that day's checkpoint if an earlier run stopped.
+     * A day whose run has completed is not processed again.
+     *
+     * @param asOf The day overdue days are counted up to.
+     * @return The counts and throughput of this run.
+     * @throws IllegalStateException if a batch cannot be written; run again to resume.
+     * @throws com.example.library.db.DataAccessException if a batch cannot be read; run again to resume.
+     */
+    public FineAccrualResult run(LocalDate asOf) {
+        long start = System.currentTimeMillis();
+        Optional<FineAccrualCheckpoint> checkpoint = fineAccrualDao.findCheckpoint(asOf);
+        if (checkpoint.isPresent() && checkpoint.get().isCompleted()) {
+            logger.info("Fines for {} have already been accrued.", asOf);
+            return new FineAccrualResult(0, 0, checkpoint.get().getLastTransactionId(), 0);
+        }
+        int resumedAfter = checkpoint.map(FineAccrualCheckpoint::getLastTransactionId).orElse(0);
+        long processedBefore = checkpoint.map(FineAccrualCheckpoint::getLoansProcessed).orElse(0L);
+        if (resumedAfter > 0) {
+            logger.info("Resuming fine accrual for {} after transaction {}.", asOf, resumedAfter);
+        }
+
+        Progress progress = new Progress(asOf, processedBefore, start);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "lms-fine-accrual");
+            t.setDaemon(true);
+            return t;
+        });
+        Deque<Future<BatchResult>> inFlight = new ArrayDeque<>();
+        try {
+            int after = resumedAfter;
+            List<Transaction> batch;
+            do {
+                batch = transactionDao.findOpenOverdue(asOf, after, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                after = batch.get(batch.size() - 1).getTransactionId();
+                List<Transaction> loans = batch;
+                inFlight.addLast(workers.submit(() -> accrue(loans, asOf)));
+                if (inFlight.size() >= parallelism * 2) {
+                    progress.completed(await(inFlight.removeFirst()));
+                }
+            } while (batch.size() == batchSize);
+            while (!inFlight.isEmpty()) {
+                progress.completed(await(inFlight.removeFirst()));
+            }
+            fineAccrualDao.saveCheckpoint(new FineAccrualCheckpoint(asOf, after, progress.processedTotal, true));
+        } finally {
+            workers.shutdownNow();
+        }
+
+        FineAccrualResult result = new FineAccrualResult(progress.processedTotal - processedBefore, progress.updated,
+                resumedAfter, System.currentTimeMillis() - start);
+        logger.info("Accrued fines for {}: {}", asOf, result);
+        return result;
+    }
+
+    /**
+     * Calculates the fines of one batch and writes the ones that changed.
+     */
+    private BatchResult accrue(List<Transaction> loans, LocalDate asOf) {
+        List<Transaction> changed = new ArrayList<>(loans.size());
+        for (Transaction loan : loans) {
+            double fine = fineManager.calculateFine(loan, asOf);
+            if (Math.abs(fine - loan.getFineAmount()) >= FINE_TOLERANCE) {
+                loan.setFineAmount(fine);
+                changed.add(loan);
+            }
+        }
+        int updated = transactionDao.updateFines(changed);
+        int lastId = loans.get(loans.size() - 1).getTransactionId();
+        if (updated < 0) {
+            throw new IllegalStateException("Could not write fines for transactions up to " + lastId);
+        }
+        return new BatchResult(lastId, loans.size(), updated);
+    }
+
+    private static BatchResult await(Future<BatchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while accruing fines", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error accruing fines", e.getCause());
+        }
+    }
+
+    private static final class BatchResult {
+
+        private final int lastTransactionId;
+        private final int loans;
+        private final int updated;
+
+        private BatchResult(int lastTransactionId, int loans, int updated) {
+            this.lastTransactionId = lastTransactionId;
+            this.loans = loans;
+            this.updated = updated;
+        }
+    }
+
+    /**
+     * Tracks the batches completed in order, checkpointing after each one.
+     */
+    private final class Progress {
+
+        private final LocalDate asOf;
+        private final long start;
+        private long processedTotal;
+        private long updated;
+        private long nextLog = PROGRESS_INTERVAL;
+
+        private Progress(LocalDate asOf, long processedBefore, long start) {
+            this.asOf = asOf;
+            this.processedTotal = processedBefore;
+            this.start = start;
+        }
+
+        private void completed(BatchResult batch) {
+            processedTotal += batch.loans;
+            updated += batch.updated;
+            if (!fineAccrualDao.saveCheckpoint(new FineAccrualCheckpoint(asOf, batch.lastTransactionId, processedTotal, false))) {
+                logger.warn("Could not save fine accrual checkpoint at transaction {}; a resumed run will redo it.",
+                        batch.lastTransactionId);
+            }
+            if (processedTotal >= nextLog) {
+                long elapsed = Math.max(1, System.currentTimeMillis() - start);
+                logger.info("Accrued fines on {} loans ({} loans/sec).", processedTotal, processedTotal * 1000 / elapsed);
+                nextLog += PROGRESS_INTERVAL;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.library.service;
+
+/**
+ * Counts and timing for one fine accrual run.
+ */
+public class FineAccrualResult {
+
+    private final long loansProcessed;
+    private final long loansUpdated;
+    private final int resumedAfterTransactionId;
+    private final long elapsedMillis;
+
+    /**
+     * Constructs a FineAccrualResult with specified details.
+     *
+     * @param loansProcessed            The number of overdue loans this run looked at.
+     * @param loansUpdated              The number of loans whose fine was changed.
+     * @param resumedAfterTransactionId The checkpoint the run resumed from; 0 for a fresh run.
+     * @param elapsedMillis             How long the run took.
+     */
+    public FineAccrualResult(long loansProcessed, long loansUpdated, int resumedAfterTransactionId, long elapsedMillis) {
+        this.loansProcessed = loansProcessed;
+        this.loansUpdated = loansUpdated;
+        this.resumedAfterTransactionId = resumedAfterTransactionId;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+
+    public long getLoansProcessed() {
+        return loansProcessed;
+    }
+
+    public long getLoansUpdated() {
+        return loansUpdated;
+    }
+
+    public int getResumedAfterTransactionId() {
+        return resumedAfterTransactionId;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the accrual throughput.
+     *
+     * @return The number of loans processed per second of elapsed time.
+     */
+    public double getLoansPerSecond() {
+        return elapsedMillis == 0 ? loansProcessed : loansProcessed * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "FineAccrualResult{" +
+               "processed=" + loansProcessed +
+               ", updated=" + loansUpdated +
+               ", resumedAfter=" + resumedAfterTransactionId +
+               ", elapsedMillis=" + elapsedMillis +
+               ", loansPerSecond=" + String.format("%.0f", getLoansPerSecond()) +
+               '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.library.service;
 
 import com.example.library.model.Transaction;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 /**
@@ -32,4 +33,20 @@ public class FineManager {
         long days = ChronoUnit.DAYS.between(t.getDueDate(), t.getReturnDate());
         return days > 0 ? days * fineRatePerDay : 0;
     }
+
+    /**
+     * Calculates the fine a loan has run up by a given day, whether or not it has been returned.
+     *
+     * @param t    The transaction to calculate the fine for.
+     * @param asOf The day to count overdue days up to, for loans that are still out.
+     * @return The fine so far, or 0 if not overdue.
+     */
+    public double calculateFine(Transaction t, LocalDate asOf) {
+        if (t.getDueDate() == null) {
+            return 0;
+        }
+        LocalDate end = t.getReturnDate() != null ? t.getReturnDate() : asOf;
+        long days = ChronoUnit.DAYS.between(t.getDueDate(), end);
+        return days > 0 ? days * fineRatePerDay : 0;
+    }
 }
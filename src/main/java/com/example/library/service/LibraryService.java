@@ -1,38 +1,114 @@
 package com.example.library.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.example.library.dao.BookDao;
+import com.example.library.dao.Page;
 import com.example.library.dao.TransactionDao;
-import com.example.library.interfaces.Searchable;
+import com.example.library.db.DataAccessException;
+import com.example.library.db.TransactionRunner;
+import com.example.library.interfaces.AutocompleteSearchable;
 import com.example.library.model.Book;
 import com.example.library.model.Student;
 import com.example.library.model.Transaction;
+import com.example.library.model.TrendingBook;
 import com.example.library.model.User;
+import com.example.library.search.PrefixCompleter;
+import com.example.library.search.TrigramIndex;
 
 /**
  * Core service for library operations.
  */
-public class LibraryService implements Searchable {
+public class LibraryService implements AutocompleteSearchable {
 
     private static final Logger logger = LoggerFactory.getLogger(LibraryService.class);
     private static final int BORROW_DURATION_DAYS = 14;
+    private static final int FUZZY_RESULT_LIMIT = 20;
 
     private final BookDao bookDao;
     private final TransactionDao transactionDao;
     private final FineManager fineManager;
     private final NotificationService notificationService;
+    private final TransactionRunner transactionRunner;
+    private final List<LoanListener> loanListeners = new CopyOnWriteArrayList<>();
+    private ActiveLoanCounter activeLoanCounter;
+    private PrefixCompleter prefixCompleter;
+    private TrigramIndex trigramIndex;
+    private TrendingTracker trendingTracker;
 
     public LibraryService(BookDao bookDao, TransactionDao transactionDao, FineManager fineManager, NotificationService notificationService) {
+        this(bookDao, transactionDao, fineManager, notificationService, TransactionRunner.NONE);
+    }
+
+    /**
+     * Constructs a LibraryService whose borrow and return writes each commit as one database transaction.
+     *
+     * @param transactionRunner Runs the writes of a borrow or return as a single unit of work.
+     */
+    public LibraryService(BookDao bookDao, TransactionDao transactionDao, FineManager fineManager,
+                          NotificationService notificationService, TransactionRunner transactionRunner) {
         this.bookDao = bookDao;
         this.transactionDao = transactionDao;
         this.fineManager = fineManager;
         this.notificationService = notificationService;
+        this.transactionRunner = transactionRunner;
+    }
+
+    /**
+     * Sets an in-memory counter of active loans to use for borrow-limit checks
+     * instead of counting loans in the database on every borrow.
+     *
+     * @param activeLoanCounter The counter, or null to count in the database.
+     */
+    public void setActiveLoanCounter(ActiveLoanCounter activeLoanCounter) {
+        this.activeLoanCounter = activeLoanCounter;
+    }
+
+    /**
+     * Registers a listener that is told about every borrow and return inside its unit of work.
+     *
+     * @param listener The listener.
+     */
+    public void addLoanListener(LoanListener listener) {
+        loanListeners.add(listener);
+    }
+
+    /**
+     * Sets the prefix index used for title and author completions.
+     *
+     * @param prefixCompleter The completer, or null to derive completions from a title/author search.
+     */
+    public void setPrefixCompleter(PrefixCompleter prefixCompleter) {
+        this.prefixCompleter = prefixCompleter;
+    }
+
+    /**
+     * Sets the trigram index used for typo-tolerant searches.
+     *
+     * @param trigramIndex The index, or null to fall back to exact searches.
+     */
+    public void setTrigramIndex(TrigramIndex trigramIndex) {
+        this.trigramIndex = trigramIndex;
+    }
+
+    /**
+     * Sets the tracker that answers trending-book queries. It is not registered as a
+     * loan listener here; pass it to {@link #addLoanListener(LoanListener)} as well.
+     *
+     * @param trendingTracker The tracker, or null to report no trending books.
+     */
+    public void setTrendingTracker(TrendingTracker trendingTracker) {
+        this.trendingTracker = trendingTracker;
     }
 
     /**
@@ -43,32 +119,42 @@ public class LibraryService implements Searchable {
      * @return true if the borrow operation is successful, false otherwise.
      */
     public boolean borrowBook(User user, Book book) {
-        if (!book.isAvailable()) {
-            logger.warn("Attempted to borrow an unavailable book: {}", book.getTitle());
-            System.out.println("Sorry, this book is currently unavailable.");
+        if (user instanceof Student && !reserveLoan(user)) {
+            logger.warn("Student {} has reached their borrow limit.", user.getName());
+            System.out.println("You have reached your borrow limit of " + Student.BORROW_LIMIT + " books.");
             return false;
         }
 
-        if (user instanceof Student) {
-            long borrowedCount = transactionDao.findByUserId(user.getUserId()).stream()
-                    .filter(t -> t.getReturnDate() == null)
-                    .count();
-            if (borrowedCount >= Student.BORROW_LIMIT) {
-                logger.warn("Student {} has reached their borrow limit.", user.getName());
-                System.out.println("You have reached your borrow limit of " + Student.BORROW_LIMIT + " books.");
-                return false;
-            }
-        }
-
-        // Create transaction
+        // Claim the book and record the transaction in one commit. The claim is a conditional
+        // update in the database, so two users borrowing the same copy cannot both succeed,
+        // whatever the in-memory Book says.
         LocalDate borrowDate = LocalDate.now();
         LocalDate dueDate = borrowDate.plusDays(BORROW_DURATION_DAYS);
         Transaction transaction = new Transaction(0, user.getUserId(), book.getBookId(), borrowDate, dueDate);
-        transactionDao.addTransaction(transaction);
+        boolean claimed;
+        try {
+            claimed = transactionRunner.inTransaction(() -> {
+                if (!bookDao.compareAndSetAvailability(book.getBookId(), true, false)) {
+                    return false;
+                }
+                transactionDao.addTransaction(transaction);
+                loanListeners.forEach(listener -> listener.onBorrow(transaction, book));
+                return true;
+            });
+        } catch (DataAccessException e) {
+            logger.error("Failed to record borrow of book {} by user {}", book.getTitle(), user.getName(), e);
+            releaseLoan(user);
+            System.out.println("Sorry, the book could not be borrowed. Please try again.");
+            return false;
+        }
 
-        // Mark book as unavailable
         book.setAvailable(false);
-        bookDao.updateBook(book);
+        if (!claimed) {
+            releaseLoan(user);
+            logger.warn("Attempted to borrow an unavailable book: {}", book.getTitle());
+            System.out.println("Sorry, this book is currently unavailable.");
+            return false;
+        }
 
         logger.info("User {} borrowed book {}", user.getName(), book.getTitle());
         notificationService.sendReminder(user, "You have successfully borrowed '" + book.getTitle() + "'. Due date: " + dueDate);
@@ -82,31 +168,71 @@ public class LibraryService implements Searchable {
      * @return true if the return operation is successful, false otherwise.
      */
     public boolean returnBook(Book book) {
-        AtomicBoolean success = new AtomicBoolean(false);
-        transactionDao.findActiveTransactionByBookId(book.getBookId()).ifPresentOrElse(transaction -> {
-            // Calculate fine
-            transaction.setReturnDate(LocalDate.now());
-            double fine = fineManager.calculateFine(transaction);
-            transaction.setFineAmount(fine);
-            transactionDao.updateTransaction(transaction);
-
-            // Mark book as available
-            book.setAvailable(true);
-            bookDao.updateBook(book);
-
-            logger.info("Book {} returned.", book.getTitle());
-            if (fine > 0) {
-                System.out.printf("Book returned successfully. A fine of $%.2f has been applied for the overdue return.%n", fine);
-            } else {
-                System.out.println("Book returned successfully.");
-            }
-            success.set(true);
-        }, () -> {
+        // Find and close the loan, and mark the book available, in one commit. The close only
+        // applies to a loan that is still open, so of two concurrent returns only one goes through.
+        Transaction transaction;
+        try {
+            transaction = transactionRunner.inTransaction(() -> {
+                Optional<Transaction> active = transactionDao.findActiveTransactionByBookId(book.getBookId());
+                if (active.isEmpty()) {
+                    return null;
+                }
+                Transaction loan = active.get();
+                loan.setReturnDate(LocalDate.now());
+                loan.setFineAmount(fineManager.calculateFine(loan));
+                if (!transactionDao.closeTransaction(loan)) {
+                    return null;
+                }
+                if (!bookDao.compareAndSetAvailability(book.getBookId(), false, true)) {
+                    // Throwing rolls back the close, so the loan stays open
+                    throw new DataAccessException("Book " + book.getBookId() + " had an open loan but was already marked available");
+                }
+                loanListeners.forEach(listener -> listener.onReturn(loan, book));
+                return loan;
+            });
+        } catch (DataAccessException e) {
+            logger.error("Failed to record return of book {}", book.getTitle(), e);
+            System.out.println("Could not process return. Please try again.");
+            return false;
+        }
+        if (transaction == null) {
             logger.warn("No active transaction found for book {}", book.getTitle());
             System.out.println("Could not process return: No active borrow record found for this book.");
-            success.set(false);
-        });
-        return success.get();
+            return false;
+        }
+
+        double fine = transaction.getFineAmount();
+        book.setAvailable(true);
+        if (activeLoanCounter != null) {
+            activeLoanCounter.release(transaction.getUserId());
+        }
+
+        logger.info("Book {} returned.", book.getTitle());
+        if (fine > 0) {
+            System.out.printf("Book returned successfully. A fine of $%.2f has been applied for the overdue return.%n", fine);
+        } else {
+            System.out.println("Book returned successfully.");
+        }
+        return true;
+    }
+
+    /**
+     * Checks the borrow limit and, when an in-memory counter is set, reserves the new loan in it.
+     */
+    private boolean reserveLoan(User user) {
+        if (activeLoanCounter != null) {
+            return activeLoanCounter.tryAcquire(user.getUserId(), Student.BORROW_LIMIT);
+        }
+        return transactionDao.countActiveByUserId(user.getUserId()) < Student.BORROW_LIMIT;
+    }
+
+    /**
+     * Gives back a loan reserved by {@link #reserveLoan(User)} for a borrow that did not go through.
+     */
+    private void releaseLoan(User user) {
+        if (activeLoanCounter != null && user instanceof Student) {
+            activeLoanCounter.release(user.getUserId());
+        }
     }
 
     @Override
@@ -119,6 +245,72 @@ public class LibraryService implements Searchable {
         return bookDao.findByAuthor(author);
     }
 
+    /**
+     * Searches for one page of books by title.
+     *
+     * @param title    The title to search for.
+     * @param cursor   The cursor from the previous page, or null for the first page.
+     * @param pageSize The number of books per page.
+     * @return The page of books, ordered by ID.
+     */
+    public Page<Book> searchByTitle(String title, String cursor, int pageSize) {
+        return Page.of(bookDao.findByTitle(title, Page.decodeCursor(cursor), pageSize + 1), pageSize, Book::getBookId);
+    }
+
+    /**
+     * Searches for one page of books by author.
+     *
+     * @param author   The author to search for.
+     * @param cursor   The cursor from the previous page, or null for the first page.
+     * @param pageSize The number of books per page.
+     * @return The page of books, ordered by ID.
+     */
+    public Page<Book> searchByAuthor(String author, String cursor, int pageSize) {
+        return Page.of(bookDao.findByAuthor(author, Page.decodeCursor(cursor), pageSize + 1), pageSize, Book::getBookId);
+    }
+
+    @Override
+    public List<Book> fuzzySearchByTitle(String title) {
+        if (trigramIndex == null) {
+            return searchByTitle(title);
+        }
+        return loadInOrder(trigramIndex.searchTitle(title, FUZZY_RESULT_LIMIT));
+    }
+
+    @Override
+    public List<Book> fuzzySearchByAuthor(String author) {
+        if (trigramIndex == null) {
+            return searchByAuthor(author);
+        }
+        return loadInOrder(trigramIndex.searchAuthor(author, FUZZY_RESULT_LIMIT));
+    }
+
+    @Override
+    public List<String> completeTitle(String prefix, int limit) {
+        if (prefixCompleter != null) {
+            return prefixCompleter.completeTitle(prefix, limit);
+        }
+        return completeFromSearch(bookDao.findByTitle(prefix).stream().map(Book::getTitle).collect(Collectors.toList()), prefix, limit);
+    }
+
+    @Override
+    public List<String> completeAuthor(String prefix, int limit) {
+        if (prefixCompleter != null) {
+            return prefixCompleter.completeAuthor(prefix, limit);
+        }
+        return completeFromSearch(bookDao.findByAuthor(prefix).stream().map(Book::getAuthor).collect(Collectors.toList()), prefix, limit);
+    }
+
+    private static List<String> completeFromSearch(List<String> candidates, String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase();
+        return candidates.stream()
+                .filter(text -> text.toLowerCase().startsWith(lowerPrefix))
+                .distinct()
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Lists all available books.
      *
@@ -128,6 +320,40 @@ public class LibraryService implements Searchable {
         return bookDao.findAvailableBooks();
     }
 
+    /**
+     * Lists one page of available books.
+     *
+     * @param cursor   The cursor from the previous page, or null for the first page.
+     * @param pageSize The number of books per page.
+     * @return The page of available books, ordered by ID.
+     */
+    public Page<Book> listAvailableBooks(String cursor, int pageSize) {
+        return Page.of(bookDao.findAvailableBooks(Page.decodeCursor(cursor), pageSize + 1), pageSize, Book::getBookId);
+    }
+
+    /**
+     * Lists one page of the books in a category.
+     *
+     * @param categoryId The ID of the category.
+     * @param cursor     The cursor from the previous page, or null for the first page.
+     * @param pageSize   The number of books per page.
+     * @return The page of books, ordered by ID.
+     */
+    public Page<Book> listBooksByCategory(int categoryId, String cursor, int pageSize) {
+        return Page.of(bookDao.findByCategory(categoryId, Page.decodeCursor(cursor), pageSize + 1), pageSize, Book::getBookId);
+    }
+
+    /**
+     * Gets the books borrowed most often in a recent window, as approximate counts.
+     *
+     * @param window How far back to look.
+     * @param limit  The number of books to return.
+     * @return The trending books, or an empty list if trending is not tracked.
+     */
+    public List<TrendingBook> getTrendingBooks(Duration window, int limit) {
+        return trendingTracker == null ? List.of() : trendingTracker.getTrending(window, limit);
+    }
+
     /**
      * Lists all books borrowed by a specific user.
      *
@@ -135,10 +361,20 @@ public class LibraryService implements Searchable {
      * @return A list of books currently borrowed by the user.
      */
     public List<Book> getBorrowedBooks(int userId) {
-        return transactionDao.findByUserId(userId).stream()
+        return loadInOrder(transactionDao.findByUserId(userId).stream()
                 .filter(t -> t.getReturnDate() == null)
-                .map(t -> bookDao.findById(t.getBookId()))
-                .flatMap(java.util.Optional::stream)
-                .collect(java.util.stream.Collectors.toList());
+                .map(Transaction::getBookId)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Loads books with one multi-get, keeping the order of the IDs and skipping missing books.
+     */
+    private List<Book> loadInOrder(List<Integer> bookIds) {
+        Map<Integer, Book> books = bookDao.findByIds(bookIds);
+        return bookIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,32 @@
+package com.example.library.service;
+
+import com.example.library.model.Book;
+import com.example.library.model.Transaction;
+
+/**
+ * Receives borrow and return events from {@link LibraryService}.
+ * <p>
+ * Both methods are called inside the unit of work that records the loan, so database writes
+ * made by a listener commit or roll back with it. Listeners that keep state outside the
+ * database should defer it with {@link com.example.library.db.TransactionRunner#afterCommit(Runnable)}.
+ */
+public interface LoanListener {
+
+    /**
+     * Called when a book has been borrowed.
+     *
+     * @param loan The new transaction, with its ID set.
+     * @param book The borrowed book.
+     */
+    default void onBorrow(Transaction loan, Book book) {
+    }
+
+    /**
+     * Called when a book has been returned.
+     *
+     * @param loan The closed transaction, with its return date and fine set.
+     * @param book The returned book.
+     */
+    default void onReturn(Transaction loan, Book book) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.library.service;
+
+import com.example.library.dao.TransactionDao;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+import com.example.library.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the active loans in memory, grouped by due date, so overdue and due-soon lookups
+ * only touch the loans they return instead of the whole loan history.
+ * <p>
+ * The loans are loaded from the database by {@link #load()} and then kept up to date by
+ * {@link LibraryService} through the {@link LoanListener} callbacks, applied after commit.
+ */
+public class OverdueTracker implements LoanListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueTracker.class);
+
+    private final TransactionDao transactionDao;
+    private final TransactionRunner transactionRunner;
+    // Guarded by this. Loans per due date, each date's loans keyed and sorted by transaction ID
+    // whatever order they were loaded or borrowed in, and the due date of each loan.
+    private final NavigableMap<LocalDate, NavigableMap<Integer, Transaction>> loansByDueDate = new TreeMap<>();
+    private final Map<Integer, LocalDate> dueDates = new HashMap<>();
+
+    public OverdueTracker(TransactionDao transactionDao, TransactionRunner transactionRunner) {
+        this.transactionDao = transactionDao;
+        this.transactionRunner = transactionRunner;
+    }
+
+    /**
+     * Replaces the tracked loans with the active loans in the database. Run it before loans are
+     * recorded; a loan recorded while it runs may be missed.
+     */
+    public void load() {
+        long start = System.currentTimeMillis();
+        NavigableMap<LocalDate, NavigableMap<Integer, Transaction>> loaded = new TreeMap<>();
+        Map<Integer, LocalDate> loadedDueDates = new HashMap<>();
+        try (Stream<Transaction> active = transactionDao.streamActive()) {
+            active.forEach(loan -> {
+                loaded.computeIfAbsent(loan.getDueDate(), d -> new TreeMap<>()).put(loan.getTransactionId(), loan);
+                loadedDueDates.put(loan.getTransactionId(), loan.getDueDate());
+            });
+        }
+        synchronized (this) {
+            loansByDueDate.clear();
+            loansByDueDate.putAll(loaded);
+            dueDates.clear();
+            dueDates.putAll(loadedDueDates);
+        }
+        logger.info("Loaded {} active loans into the overdue tracker in {} ms.",
+                loadedDueDates.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void onBorrow(Transaction loan, Book book) {
+        transactionRunner.afterCommit(() -> track(loan));
+    }
+
+    @Override
+    public void onReturn(Transaction loan, Book book) {
+        transactionRunner.afterCommit(() -> untrack(loan.getTransactionId()));
+    }
+
+    /**
+     * Finds the loans that are overdue.
+     *
+     * @param today Loans due before this date are overdue.
+     * @return The overdue loans, earliest due date first.
+     */
+    public synchronized List<Transaction> findOverdue(LocalDate today) {
+        return collect(loansByDueDate.headMap(today, false));
+    }
+
+    /**
+     * Finds the loans that fall due soon.
+     *
+     * @param today The first due date to include.
+     * @param days  How many days after today to include.
+     * @return The loans due from today to {@code today + days}, earliest first.
+     */
+    public synchronized List<Transaction> findDueWithin(LocalDate today, int days) {
+        return collect(loansByDueDate.subMap(today, true, today.plusDays(days), true));
+    }
+
+    /**
+     * Gets the number of tracked active loans.
+     *
+     * @return The number of loans.
+     */
+    public synchronized int size() {
+        return dueDates.size();
+    }
+
+    private synchronized void track(Transaction loan) {
+        untrack(loan.getTransactionId());
+        loansByDueDate.computeIfAbsent(loan.getDueDate(), d -> new TreeMap<>()).put(loan.getTransactionId(), copyOf(loan));
+        dueDates.put(loan.getTransactionId(), loan.getDueDate());
+    }
+
+    private synchronized void untrack(int transactionId) {
+        LocalDate dueDate = dueDates.remove(transactionId);
+        if (dueDate == null) {
+            return;
+        }
+        Map<Integer, Transaction> loans = loansByDueDate.get(dueDate);
+        loans.remove(transactionId);
+        if (loans.isEmpty()) {
+            loansByDueDate.remove(dueDate);
+        }
+    }
+
+    private static List<Transaction> collect(Map<LocalDate, ? extends Map<Integer, Transaction>> range) {
+        List<Transaction> loans = new ArrayList<>();
+        range.values().forEach(byId -> byId.values().forEach(loan -> loans.add(copyOf(loan))));
+        return loans;
+    }
+
+    /**
+     * Loans are mutable, so the tracker never shares its own instances.
+     */
+    private static Transaction copyOf(Transaction loan) {
+        Transaction copy = new Transaction(loan.getTransactionId(), loan.getUserId(), loan.getBookId(),
+                loan.getBorrowDate(), loan.getDueDate());
+        copy.setReturnDate(loan.getReturnDate());
+        copy.setFineAmount(loan.getFineAmount());
+        return copy;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.library.service;
+
+import com.example.library.dao.TransactionDao;
+import com.example.library.db.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Runs queries over the {@code transactions} table in parallel, one transaction ID range at a time.
+ * <p>
+ * The ID range is split into partitions up front and each is scanned on a fixed pool of
+ * {@code parallelism} threads, each on its own pooled connection; the partial results are merged
+ * on the calling thread. Scans block on JDBC, so a fixed pool is used rather than fork/join, which
+ * may add threads while tasks wait and so take more connections than asked for. Parallelism
+ * should stay below the connection pool size, or scans wait for connections.
+ */
+public class PartitionedReportEngine implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedReportEngine.class);
+    private static final int PARTITIONS_PER_THREAD = 4;
+    private static final AtomicInteger ENGINE_COUNT = new AtomicInteger();
+
+    /** The default smallest ID range worth scanning as its own partition. */
+    public static final int DEFAULT_MIN_PARTITION_SIZE = 10_000;
+
+    /**
+     * Scans one inclusive range of transaction IDs.
+     *
+     * @param <A> The type of the partial result.
+     */
+    @FunctionalInterface
+    public interface RangeScan<A> {
+        A scan(int fromTransactionId, int toTransactionId);
+    }
+
+    private final TransactionDao transactionDao;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int minPartitionSize;
+
+    /**
+     * Constructs a PartitionedReportEngine that scans at least {@link #DEFAULT_MIN_PARTITION_SIZE} IDs per partition.
+     *
+     * @param transactionDao Used to find the transaction ID range.
+     * @param parallelism    The number of ranges scanned at once; 0 or less uses one per CPU.
+     */
+    public PartitionedReportEngine(TransactionDao transactionDao, int parallelism) {
+        this(transactionDao, parallelism, DEFAULT_MIN_PARTITION_SIZE);
+    }
+
+    /**
+     * Constructs a PartitionedReportEngine.
+     *
+     * @param transactionDao   Used to find the transaction ID range.
+     * @param parallelism      The number of ranges scanned at once; 0 or less uses one per CPU.
+     * @param minPartitionSize The smallest ID range scanned as its own partition; smaller tables are scanned in one go.
+     */
+    public PartitionedReportEngine(TransactionDao transactionDao, int parallelism, int minPartitionSize) {
+        this.transactionDao = transactionDao;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.minPartitionSize = Math.max(1, minPartitionSize);
+        String name = "lms-partition-" + ENGINE_COUNT.incrementAndGet();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Scans all transactions in partitions and merges the partial results in ID order.
+     *
+     * @param scan  Scans one range; called concurrently from several threads.
+     * @param empty Supplies the result for an empty table.
+     * @param merge Combines two partial results; it may modify and return either argument.
+     * @param <A>   The type of the result.
+     * @return The merged result.
+     * @throws DataAccessException if a partition cannot be read.
+     */
+    public <A> A run(RangeScan<A> scan, Supplier<A> empty, BinaryOperator<A> merge) {
+        int[] range = transactionDao.findIdRange();
+        if (range[1] < range[0]) {
+            return empty.get();
+        }
+        long span = (long) range[1] - range[0] + 1;
+        long partitions = (long) parallelism * PARTITIONS_PER_THREAD;
+        long partitionSize = Math.max(minPartitionSize, (span + partitions - 1) / partitions);
+
+        long start = System.currentTimeMillis();
+        List<Future<A>> futures = new ArrayList<>();
+        try {
+            for (long from = range[0]; from <= range[1]; from += partitionSize) {
+                int partitionFrom = (int) from;
+                int partitionTo = (int) Math.min(range[1], from + partitionSize - 1);
+                futures.add(executor.submit(() -> scan.scan(partitionFrom, partitionTo)));
+            }
+            A result = futures.get(0).get();
+            for (int i = 1; i < futures.size(); i++) {
+                result = merge.apply(result, futures.get(i).get());
+            }
+            logger.debug("Scanned transactions {}..{} in {} partitions in {} ms with parallelism {}.",
+                    range[0], range[1], futures.size(), System.currentTimeMillis() - start, parallelism);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted while scanning transactions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new DataAccessException("Error scanning transactions", e.getCause());
+        } finally {
+            // Partitions still queued after a failure are not worth scanning
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Stops the scanning threads. Scans already running finish first.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
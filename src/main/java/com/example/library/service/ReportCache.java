@@ -0,0 +1,174 @@
+package com.example.library.service;
+
+import com.example.library.cache.CacheStats;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+import com.example.library.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches report results keyed by report name and parameters.
+ * <p>
+ * Each entry declares which loans can change it. After a borrow or return commits, only the
+ * entries it affects are dropped, so repeat runs of unaffected reports are served from memory.
+ * Entries also expire after a maximum age, which covers changes made outside
+ * {@link LibraryService}. A result computed while a loan changed is returned but not cached,
+ * since it may predate the change.
+ * <p>
+ * In the statistics, evictions count entries dropped because of loan events or the size limit,
+ * and loads time the recomputation of missed reports.
+ */
+public class ReportCache implements LoanListener {
+
+    private static final int MAX_ENTRIES = 256;
+
+    /**
+     * Decides whether a committed borrow or return can change a cached report.
+     */
+    @FunctionalInterface
+    public interface Dependency {
+        boolean affectedBy(Transaction loan, Book book, boolean returned);
+    }
+
+    private final TransactionRunner transactionRunner;
+    private final long maxAgeMillis;
+    private final AtomicLong loanEvents = new AtomicLong();
+    // Guarded by itself.
+    private final Map<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    /**
+     * Constructs a ReportCache.
+     *
+     * @param transactionRunner Defers invalidation until the loan's transaction commits.
+     * @param maxAgeMillis      How long an entry may be served; 0 or less keeps entries until a loan affects them.
+     */
+    public ReportCache(TransactionRunner transactionRunner, long maxAgeMillis) {
+        this.transactionRunner = transactionRunner;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Gets a cached report result, computing and caching it on a miss.
+     *
+     * @param report     The name of the report.
+     * @param parameters The report parameters; together with the name they form the key.
+     * @param dependency Which loans invalidate the result.
+     * @param compute    Computes the result on a miss; it should not be modified by callers afterwards.
+     * @param <T>        The type of the result.
+     * @return The cached or freshly computed result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String report, List<?> parameters, Dependency dependency, Supplier<T> compute) {
+        // Parameters may be null, which List.of does not allow.
+        List<Object> key = new ArrayList<>(parameters.size() + 1);
+        key.add(report);
+        key.addAll(parameters);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (maxAgeMillis <= 0 || now - entry.createdAt <= maxAgeMillis) {
+                    hits.increment();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+        }
+
+        misses.increment();
+        long eventsBefore = loanEvents.get();
+        long start = System.nanoTime();
+        T value = compute.get();
+        loads.increment();
+        totalLoadNanos.add(System.nanoTime() - start);
+
+        synchronized (entries) {
+            if (loanEvents.get() == eventsBefore) {
+                entries.put(key, new Entry(value, dependency, now));
+                if (entries.size() > MAX_ENTRIES) {
+                    Iterator<Entry> eldest = entries.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evictions.increment();
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void onBorrow(Transaction loan, Book book) {
+        transactionRunner.afterCommit(() -> invalidate(loan, book, false));
+    }
+
+    @Override
+    public void onReturn(Transaction loan, Book book) {
+        transactionRunner.afterCommit(() -> invalidate(loan, book, true));
+    }
+
+    /**
+     * Drops every cached report.
+     */
+    public void clear() {
+        synchronized (entries) {
+            evictions.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the cache statistics.
+     *
+     * @return The current statistics.
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                loads.sum(), totalLoadNanos.sum());
+    }
+
+    private void invalidate(Transaction loan, Book book, boolean returned) {
+        synchronized (entries) {
+            loanEvents.incrementAndGet();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().dependency.affectedBy(loan, book, returned)) {
+                    iterator.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final Dependency dependency;
+        private final long createdAt;
+
+        private Entry(Object value, Dependency dependency, long createdAt) {
+            this.value = value;
+            this.dependency = dependency;
+            this.createdAt = createdAt;
+        }
+    }
+}
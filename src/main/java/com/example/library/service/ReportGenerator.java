@@ -1,18 +1,35 @@
 package com.example.library.service;
 
+import com.example.library.cache.CacheStats;
 import com.example.library.dao.BookDao;
 import com.example.library.dao.TransactionDao;
 import com.example.library.dao.UserDao;
 import com.example.library.model.Book;
+import com.example.library.model.BookBorrowCount;
 import com.example.library.model.Transaction;
 import com.example.library.model.User;
+import com.example.library.report.ConsoleReportSink;
+import com.example.library.report.Report;
+import com.example.library.report.ReportSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service for generating various reports.
@@ -20,10 +37,16 @@ import java.util.stream.Collectors;
 public class ReportGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportGenerator.class);
+    private static final int LOOKUP_BATCH_SIZE = 500;
+    private static final int MOST_BORROWED_LIMIT = 10;
 
     private final BookDao bookDao;
     private final UserDao userDao;
     private final TransactionDao transactionDao;
+    private BorrowStatistics borrowStatistics;
+    private PartitionedReportEngine reportEngine;
+    private ReportCache reportCache;
+    private OverdueTracker overdueTracker;
 
     public ReportGenerator(BookDao bookDao, UserDao userDao, TransactionDao transactionDao) {
         this.bookDao = bookDao;
@@ -32,24 +55,191 @@ public class ReportGenerator {
     }
 
     /**
-     * Generates a report of the most borrowed books.
+     * Sets the maintained borrow counts used for all-time popularity reports.
+     *
+     * @param borrowStatistics The statistics, or null to count the loan history on every report.
+     */
+    public void setBorrowStatistics(BorrowStatistics borrowStatistics) {
+        this.borrowStatistics = borrowStatistics;
+    }
+
+    /**
+     * Sets the engine that scans the loan history in parallel partitions for reports.
+     *
+     * @param reportEngine The engine, or null to scan on the calling thread.
+     */
+    public void setReportEngine(PartitionedReportEngine reportEngine) {
+        this.reportEngine = reportEngine;
+    }
+
+    /**
+     * Sets the cache for the most borrowed and overdue report results. The cache must also be
+     * registered as a loan listener after the borrow statistics and overdue tracker, so it drops
+     * entries only once those have seen the loan; otherwise it only expires entries by age.
+     *
+     * @param reportCache The cache, or null to recompute every report.
+     */
+    public void setReportCache(ReportCache reportCache) {
+        this.reportCache = reportCache;
+    }
+
+    /**
+     * Sets the in-memory index of active loans by due date used for overdue and due-soon reports.
+     *
+     * @param overdueTracker The tracker, or null to find those loans in the loan history.
+     */
+    public void setOverdueTracker(OverdueTracker overdueTracker) {
+        this.overdueTracker = overdueTracker;
+    }
+
+    /**
+     * Gets the statistics of the report cache.
+     *
+     * @return The statistics, or null if no cache is set.
+     */
+    public CacheStats getReportCacheStats() {
+        return reportCache == null ? null : reportCache.getStats();
+    }
+
+    /**
+     * Gets the most borrowed books. All-time rankings come from the maintained borrow statistics
+     * when they are set; filtered rankings, and all-time rankings without statistics, are counted
+     * per partition by the report engine when it is set, and by a single database query otherwise. Rankings are cached until a borrow
+     * they would count is recorded.
+     *
+     * @param from       The first borrow date to count, or null for no lower bound.
+     * @param to         The last borrow date to count, or null for no upper bound.
+     * @param categoryId Only count books in this category; 0 for all categories.
+     * @param limit      The number of books to return.
+     * @return At most {@code limit} rows, most borrowed first.
+     */
+    public List<BookBorrowCount> getMostBorrowedBooks(LocalDate from, LocalDate to, int categoryId, int limit) {
+        if (reportCache != null) {
+            return reportCache.get("most-borrowed", Arrays.asList(from, to, categoryId, limit),
+                    (loan, book, returned) -> !returned
+                            && (from == null || !loan.getBorrowDate().isBefore(from))
+                            && (to == null || !loan.getBorrowDate().isAfter(to))
+                            && (categoryId == 0 || book.getCategoryId() == categoryId),
+                    () -> List.copyOf(countMostBorrowed(from, to, categoryId, limit)));
+        }
+        return countMostBorrowed(from, to, categoryId, limit);
+    }
+
+    private List<BookBorrowCount> countMostBorrowed(LocalDate from, LocalDate to, int categoryId, int limit) {
+        if (borrowStatistics != null && from == null && to == null && categoryId == 0) {
+            return borrowStatistics.getTopBooks(limit);
+        }
+        if (reportEngine != null) {
+            return countMostBorrowedInPartitions(from, to, categoryId, limit);
+        }
+        return transactionDao.findMostBorrowedBooks(from, to, categoryId, limit);
+    }
+
+    private List<BookBorrowCount> countMostBorrowedInPartitions(LocalDate from, LocalDate to, int categoryId, int limit) {
+        Map<Integer, Long> counts = reportEngine.run(
+                (first, last) -> transactionDao.countBorrowsByBook(first, last, from, to, categoryId),
+                HashMap::new,
+                (left, right) -> {
+                    Map<Integer, Long> larger = left.size() >= right.size() ? left : right;
+                    Map<Integer, Long> smaller = larger == left ? right : left;
+                    smaller.forEach((bookId, count) -> larger.merge(bookId, count, Long::sum));
+                    return larger;
+                });
+        List<Map.Entry<Integer, Long>> top = counts.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(Collectors.toList());
+
+        Map<Integer, Book> books = bookDao.findByIds(top.stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+        List<BookBorrowCount> rows = new ArrayList<>(top.size());
+        for (Map.Entry<Integer, Long> entry : top) {
+            Book book = books.get(entry.getKey());
+            if (book != null) {
+                rows.add(new BookBorrowCount(book.getBookId(), book.getTitle(), book.getAuthor(),
+                        book.getCategoryId(), entry.getValue()));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Builds the report of the most borrowed books of all time.
+     *
+     * @param limit The number of books to include.
+     * @return The report, most borrowed first.
+     */
+    public Report mostBorrowedBooksReport(int limit) {
+        List<BookBorrowCount> rows = getMostBorrowedBooks(null, null, 0, limit);
+        return new Report("Most Borrowed Books Report", List.of("book_id", "title", "author", "borrow_count"),
+                rows.stream().map(row -> Arrays.<Object>asList(row.getBookId(), row.getTitle(), row.getAuthor(), row.getBorrowCount())));
+    }
+
+    /**
+     * Builds the report of loans that are overdue, with the user and book of each. Rows are
+     * produced while the report is written, loading users and books one batch at a time. With
+     * the overdue tracker the loans are already in memory, so the list is also cached until a
+     * loan changes it; without the tracker they are streamed from the database and not cached.
+     *
+     * @param today Loans due before this date that are not returned are overdue.
+     * @return The report, which holds a database connection until it is closed.
+     */
+    public Report overdueUsersReport(LocalDate today) {
+        Stream<Transaction> overdue;
+        if (overdueTracker != null && reportCache != null) {
+            // Only a loan that is already past due can join or leave the overdue list.
+            overdue = reportCache.get("overdue", List.of(today),
+                    (loan, book, returned) -> loan.getDueDate().isBefore(today),
+                    () -> overdueTracker.findOverdue(today)).stream();
+        } else {
+            overdue = findOverdue(today);
+        }
+        return new Report("Overdue Users Report", List.of("user_id", "user_name", "book_id", "title", "due_date"),
+                withUsersAndBooks(overdue));
+    }
+
+    /**
+     * Builds the report of active loans that fall due soon, with the user and book of each.
+     *
+     * @param today The first due date to include.
+     * @param days  How many days after today to include.
+     * @return The report, earliest due date first.
+     */
+    public Report dueSoonReport(LocalDate today, int days) {
+        Stream<Transaction> dueSoon;
+        if (overdueTracker != null) {
+            dueSoon = overdueTracker.findDueWithin(today, days).stream();
+        } else {
+            LocalDate last = today.plusDays(days);
+            try (Stream<Transaction> active = transactionDao.streamActive()) {
+                dueSoon = active.filter(t -> !t.getDueDate().isBefore(today) && !t.getDueDate().isAfter(last))
+                        .sorted(Comparator.comparing(Transaction::getDueDate).thenComparingInt(Transaction::getTransactionId))
+                        .toList()
+                        .stream();
+            }
+        }
+        return new Report("Loans Due Soon Report", List.of("user_id", "user_name", "book_id", "title", "due_date"),
+                withUsersAndBooks(dueSoon));
+    }
+
+    /**
+     * Gets the overdue loans from the tracker, or streams them through one forward-only cursor
+     * over the active loans. The partitioned engine is not used here: merging its partitions
+     * would hold every overdue loan in memory before the first row is written.
+     */
+    private Stream<Transaction> findOverdue(LocalDate today) {
+        if (overdueTracker != null) {
+            return overdueTracker.findOverdue(today).stream();
+        }
+        return transactionDao.streamActive().filter(t -> t.getDueDate().isBefore(today));
+    }
+
+    /**
+     * Generates a report of the most borrowed books of all time.
      */
     public void generateMostBorrowedBooksReport() {
         logger.info("Generating 'Most Borrowed Books' report...");
-        List<Transaction> transactions = transactionDao.findAll();
-        Map<Integer, Long> bookBorrowCounts = transactions.stream()
-                .collect(Collectors.groupingBy(Transaction::getBookId, Collectors.counting()));
-
-        System.out.println("\n--- Most Borrowed Books Report ---");
-        bookBorrowCounts.entrySet().stream()
-                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
-                .forEach(entry -> {
-                    bookDao.findById(entry.getKey())
-                            .ifPresent(book -> 
-                                System.out.printf("'%s' by %s - Borrowed %d times%n", 
-                                book.getTitle(), book.getAuthor(), entry.getValue()));
-                });
-        System.out.println("------------------------------------\n");
+        writeReport(mostBorrowedBooksReport(MOST_BORROWED_LIMIT), new ConsoleReportSink());
     }
 
     /**
@@ -57,20 +247,81 @@ public class ReportGenerator {
      */
     public void generateOverdueUsersReport() {
         logger.info("Generating 'Overdue Users' report...");
-        List<Transaction> transactions = transactionDao.findAll();
-        LocalDate today = LocalDate.now();
-
-        System.out.println("\n--- Overdue Users Report ---");
-        transactions.stream()
-                .filter(t -> t.getReturnDate() == null && t.getDueDate().isBefore(today))
-                .forEach(t -> {
-                    userDao.findById(t.getUserId()).ifPresent(user -> {
-                        bookDao.findById(t.getBookId()).ifPresent(book -> {
-                            System.out.printf("User: %s, Book: '%s', Due Date: %s%n", 
-                            user.getName(), book.getTitle(), t.getDueDate());
-                        });
-                    });
-                });
-        System.out.println("----------------------------\n");
+        writeReport(overdueUsersReport(LocalDate.now()), new ConsoleReportSink());
+    }
+
+    /**
+     * Generates a report of loans due within the next few days.
+     *
+     * @param days How many days ahead to look.
+     */
+    public void generateDueSoonReport(int days) {
+        logger.info("Generating 'Loans Due Soon' report...");
+        writeReport(dueSoonReport(LocalDate.now(), days), new ConsoleReportSink());
+    }
+
+    /**
+     * Writes a report to a sink, closing both afterwards.
+     *
+     * @param report The report to write.
+     * @param sink   The sink to write it to.
+     * @return The number of rows written, or -1 if the sink could not be written.
+     */
+    public long writeReport(Report report, ReportSink sink) {
+        try (report) {
+            return report.writeTo(sink);
+        } catch (IOException e) {
+            logger.error("Error writing report '{}'", report.getTitle(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * Turns loans into report rows lazily, one lookup batch at a time.
+     */
+    private Stream<List<Object>> withUsersAndBooks(Stream<Transaction> loans) {
+        Iterator<Transaction> source = loans.iterator();
+        Iterator<List<Object>> rows = new Iterator<>() {
+            private Iterator<List<Object>> batch = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext() && source.hasNext()) {
+                    batch = nextLoanBatch(source);
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public List<Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                .onClose(loans::close);
+    }
+
+    /**
+     * Reads the next batch of loans, loading their users and books with one multi-get each.
+     */
+    private Iterator<List<Object>> nextLoanBatch(Iterator<Transaction> source) {
+        List<Transaction> batch = new ArrayList<>(LOOKUP_BATCH_SIZE);
+        while (batch.size() < LOOKUP_BATCH_SIZE && source.hasNext()) {
+            batch.add(source.next());
+        }
+        Map<Integer, User> users = userDao.findByIds(batch.stream().map(Transaction::getUserId).collect(Collectors.toSet()));
+        Map<Integer, Book> books = bookDao.findByIds(batch.stream().map(Transaction::getBookId).collect(Collectors.toSet()));
+        List<List<Object>> rows = new ArrayList<>(batch.size());
+        for (Transaction t : batch) {
+            User user = users.get(t.getUserId());
+            Book book = books.get(t.getBookId());
+            if (user != null && book != null) {
+                rows.add(Arrays.asList(user.getUserId(), user.getName(), book.getBookId(), book.getTitle(), t.getDueDate()));
+            }
+        }
+        return rows.iterator();
     }
 }
@@ -0,0 +1,80 @@
+package com.example.library.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A Space-Saving summary of the most frequent book IDs in a stream, in a fixed number of counters.
+ * <p>
+ * While there are free counters, counts are exact. Once all are taken, an unseen ID replaces the
+ * smallest counter and inherits its count plus one, remembering the inherited part as its error.
+ * With m counters and N events, every count overestimates the true count by at most N/m, and
+ * every ID that occurred more than N/m times holds a counter. Not thread-safe.
+ */
+class SpaceSavingSummary {
+
+    private final int capacity;
+    private final Map<Integer, long[]> counters;
+    private long total;
+
+    SpaceSavingSummary(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1.");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void add(int bookId) {
+        total++;
+        long[] counter = counters.get(bookId);
+        if (counter != null) {
+            counter[0]++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(bookId, new long[]{1, 0});
+            return;
+        }
+        // Replace the smallest counter; a linear scan is cheap at the few dozen counters used here.
+        Map.Entry<Integer, long[]> smallest = null;
+        for (Map.Entry<Integer, long[]> entry : counters.entrySet()) {
+            if (smallest == null || entry.getValue()[0] < smallest.getValue()[0]) {
+                smallest = entry;
+            }
+        }
+        long min = smallest.getValue()[0];
+        counters.remove(smallest.getKey());
+        counters.put(bookId, new long[]{min + 1, min});
+    }
+
+    /**
+     * Gets the counters, as {estimated count, maximum overestimate} keyed by book ID.
+     */
+    Map<Integer, long[]> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Gets the largest number of times an ID without a counter can have occurred.
+     */
+    long getMissingBound() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        for (long[] counter : counters.values()) {
+            min = Math.min(min, counter[0]);
+        }
+        return min;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    void clear() {
+        counters.clear();
+        total = 0;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.library.service;
+
+import com.example.library.dao.BookDao;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+import com.example.library.model.Transaction;
+import com.example.library.model.TrendingBook;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the most borrowed books over sliding time windows, approximately and in bounded memory.
+ * <p>
+ * Borrows are counted in rings of time buckets: 60 one-minute buckets, 168 one-hour buckets
+ * and 90 one-day buckets (UTC days). Each bucket is a {@link SpaceSavingSummary} with a fixed
+ * number of counters, so memory does not grow with traffic or catalog size. A window query
+ * merges the buckets of the finest ring that covers it; the current, partly elapsed bucket is
+ * included, so "the last hour" means the current minute and the 59 before it.
+ * <p>
+ * Error bound: with m counters per bucket, a bucket holding N borrows misstates a book's count
+ * by at most N/m, so a window's estimate is within (borrows in the window)/m of the true count.
+ * Each result carries its own, usually tighter, bound. State is in memory only and starts
+ * empty when the application starts.
+ */
+public class TrendingTracker implements LoanListener {
+
+    private final BookDao bookDao;
+    private final TransactionRunner transactionRunner;
+    private final Clock clock;
+    // Finest first; guarded by this.
+    private final List<Ring> rings;
+
+    public TrendingTracker(BookDao bookDao, TransactionRunner transactionRunner, int countersPerBucket) {
+        this(bookDao, transactionRunner, countersPerBucket, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a TrendingTracker.
+     *
+     * @param bookDao           Used to look up the titles of trending books.
+     * @param transactionRunner Defers counting a borrow until its transaction commits.
+     * @param countersPerBucket The number of Space-Saving counters per bucket.
+     * @param clock             The clock that places borrows into buckets.
+     */
+    public TrendingTracker(BookDao bookDao, TransactionRunner transactionRunner, int countersPerBucket, Clock clock) {
+        this.bookDao = bookDao;
+        this.transactionRunner = transactionRunner;
+        this.clock = clock;
+        this.rings = List.of(
+                new Ring(60, Duration.ofMinutes(1), countersPerBucket),
+                new Ring(24 * 7, Duration.ofHours(1), countersPerBucket),
+                new Ring(90, Duration.ofDays(1), countersPerBucket));
+    }
+
+    @Override
+    public void onBorrow(Transaction loan, Book book) {
+        transactionRunner.afterCommit(() -> record(book.getBookId()));
+    }
+
+    /**
+     * Counts one borrow of a book at the current time.
+     *
+     * @param bookId The ID of the borrowed book.
+     */
+    public synchronized void record(int bookId) {
+        long now = clock.millis();
+        for (Ring ring : rings) {
+            ring.add(now, bookId);
+        }
+    }
+
+    /**
+     * Gets the books borrowed most often in a recent window.
+     *
+     * @param window How far back to look; windows longer than 90 days are cut to 90 days.
+     * @param limit  The number of books to return.
+     * @return At most {@code limit} books, highest estimate first.
+     */
+    public List<TrendingBook> getTrending(Duration window, int limit) {
+        List<long[]> top = topCounts(window, limit);
+        List<Integer> bookIds = new ArrayList<>(top.size());
+        top.forEach(entry -> bookIds.add((int) entry[0]));
+        Map<Integer, Book> books = bookDao.findByIds(bookIds);
+
+        List<TrendingBook> trending = new ArrayList<>(top.size());
+        for (long[] entry : top) {
+            Book book = books.get((int) entry[0]);
+            if (book != null) {
+                trending.add(new TrendingBook(book.getBookId(), book.getTitle(), book.getAuthor(), entry[1], entry[2]));
+            }
+        }
+        return trending;
+    }
+
+    /**
+     * Merges the buckets of a window into {bookId, estimate, maxError} entries, best first.
+     */
+    private synchronized List<long[]> topCounts(Duration window, int limit) {
+        Ring ring = rings.get(rings.size() - 1);
+        for (Ring candidate : rings) {
+            if (candidate.span().compareTo(window) >= 0) {
+                ring = candidate;
+                break;
+            }
+        }
+        List<SpaceSavingSummary> buckets = ring.bucketsCovering(clock.millis(), window);
+
+        Map<Integer, long[]> merged = new HashMap<>();
+        for (SpaceSavingSummary bucket : buckets) {
+            bucket.getCounters().forEach((bookId, counter) -> {
+                long[] sum = merged.computeIfAbsent(bookId, id -> new long[3]);
+                sum[0] += counter[0];
+                sum[1] += counter[1];
+            });
+        }
+        // A book missing from a full bucket may still have been borrowed there, up to the bucket's smallest count.
+        for (SpaceSavingSummary bucket : buckets) {
+            long missingBound = bucket.getMissingBound();
+            if (missingBound > 0) {
+                merged.forEach((bookId, sum) -> {
+                    if (!bucket.getCounters().containsKey(bookId)) {
+                        sum[2] += missingBound;
+                    }
+                });
+            }
+        }
+
+        List<long[]> entries = new ArrayList<>(merged.size());
+        merged.forEach((bookId, sum) -> entries.add(new long[]{bookId, sum[0], Math.max(sum[1], sum[2])}));
+        entries.sort(Comparator.<long[]>comparingLong(e -> -e[1]).thenComparingLong(e -> e[0]));
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    /**
+     * A ring of equally wide time buckets; a slot is reset when the clock moves into a new bucket for it.
+     */
+    private static final class Ring {
+
+        private final SpaceSavingSummary[] buckets;
+        private final long[] epochs;
+        private final long widthMillis;
+
+        private Ring(int slots, Duration width, int countersPerBucket) {
+            this.buckets = new SpaceSavingSummary[slots];
+            this.epochs = new long[slots];
+            this.widthMillis = width.toMillis();
+            for (int i = 0; i < slots; i++) {
+                buckets[i] = new SpaceSavingSummary(countersPerBucket);
+            }
+            Arrays.fill(epochs, -1);
+        }
+
+        private Duration span() {
+            return Duration.ofMillis(widthMillis * buckets.length);
+        }
+
+        private void add(long nowMillis, int bookId) {
+            long epoch = nowMillis / widthMillis;
+            int slot = (int) (epoch % buckets.length);
+            if (epochs[slot] != epoch) {
+                buckets[slot].clear();
+                epochs[slot] = epoch;
+            }
+            buckets[slot].add(bookId);
+        }
+
+        private List<SpaceSavingSummary> bucketsCovering(long nowMillis, Duration window) {
+            long current = nowMillis / widthMillis;
+            long count = Math.min(buckets.length, Math.max(1, (window.toMillis() + widthMillis - 1) / widthMillis));
+            List<SpaceSavingSummary> covering = new ArrayList<>();
+            for (long epoch = current - count + 1; epoch <= current; epoch++) {
+                int slot = (int) (epoch % buckets.length);
+                if (epochs[slot] == epoch) {
+                    covering.add(buckets[slot]);
+                }
+            }
+            return covering;
+        }
+    }
+}
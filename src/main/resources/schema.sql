@@ -1,12 +1,24 @@
 -- Drop tables if they exist to ensure a clean slate
+DROP TABLE IF EXISTS fine_accrual_checkpoints;
+DROP TABLE IF EXISTS daily_loan_stats;
+DROP TABLE IF EXISTS category_borrow_stats;
+DROP TABLE IF EXISTS book_borrow_stats;
 DROP TABLE IF EXISTS transactions;
 DROP TABLE IF EXISTS books;
 DROP TABLE IF EXISTS categories;
 DROP TABLE IF EXISTS users;
+DROP SEQUENCE IF EXISTS transactions_seq;
+DROP SEQUENCE IF EXISTS books_seq;
+DROP SEQUENCE IF EXISTS users_seq;
+
+-- IDs are allocated by the application in blocks of INCREMENT BY values (see IdAllocator)
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE books_seq START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 100;
 
 -- Users Table
 CREATE TABLE users (
-    user_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     user_type VARCHAR(50) NOT NULL, -- 'STUDENT' or 'LIBRARIAN'
     department VARCHAR(255),
@@ -23,7 +35,7 @@ CREATE TABLE categories (
 
 -- Books Table
 CREATE TABLE books (
-    book_id INT AUTO_INCREMENT PRIMARY KEY,
+    book_id INT PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
     author VARCHAR(255) NOT NULL,
     is_available BOOLEAN DEFAULT TRUE,
@@ -33,7 +45,7 @@ CREATE TABLE books (
 
 -- Transactions Table
 CREATE TABLE transactions (
-    transaction_id INT AUTO_INCREMENT PRIMARY KEY,
+    transaction_id INT PRIMARY KEY,
     user_id INT NOT NULL,
     book_id INT NOT NULL,
     borrow_date DATE NOT NULL,
@@ -43,3 +55,48 @@ CREATE TABLE transactions (
     FOREIGN KEY (user_id) REFERENCES users(user_id),
     FOREIGN KEY (book_id) REFERENCES books(book_id)
 );
+
+-- Running borrow counts, updated in each loan's transaction (see BorrowStatistics). Category and
+-- day counts are spread over slot rows, summed on read, so concurrent loans rarely share a row.
+CREATE TABLE book_borrow_stats (
+    book_id INT PRIMARY KEY,
+    borrow_count BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE category_borrow_stats (
+    category_id INT NOT NULL,
+    slot INT NOT NULL,
+    borrow_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (category_id, slot)
+);
+
+CREATE TABLE daily_loan_stats (
+    stat_date DATE NOT NULL,
+    slot INT NOT NULL,
+    borrow_count BIGINT NOT NULL DEFAULT 0,
+    return_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_date, slot)
+);
+
+-- Progress of each nightly fine accrual run, so an interrupted run can resume (see FineAccrualJob)
+CREATE TABLE fine_accrual_checkpoints (
+    run_date DATE PRIMARY KEY,
+    last_transaction_id INT NOT NULL,
+    loans_processed BIGINT NOT NULL,
+    completed BOOLEAN NOT NULL
+);
+
+-- Borrow-limit checks count a user's unreturned loans
+CREATE INDEX idx_transactions_user_return ON transactions (user_id, return_date);
+
+-- Popularity reports count loans over a borrow date range
+CREATE INDEX idx_transactions_borrow_date ON transactions (borrow_date, book_id);
+
+-- The overdue tracker loads all unreturned loans at startup
+CREATE INDEX idx_transactions_return_due ON transactions (return_date, due_date);
+
+-- Fine accrual pages through unreturned loans in ID order, resuming after the last ID seen
+CREATE INDEX idx_transactions_return_id ON transactions (return_date, transaction_id);
+
+-- Category listings page through a category's books in ID order
+CREATE INDEX idx_books_category ON books (category_id, book_id);
@@ -0,0 +1,97 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.db.PoolStats;
+import com.example.library.model.Book;
+import com.example.library.model.Student;
+import com.example.library.model.User;
+import com.example.library.service.FineManager;
+import com.example.library.service.LibraryService;
+import com.example.library.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchLookupTest {
+
+    private DatabaseManager dbManager;
+    private BookDao bookDao;
+    private UserDao userDao;
+    private LibraryService libraryService;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager();
+        bookDao = new JdbcBookDao(dbManager);
+        userDao = new JdbcUserDao(dbManager);
+        TransactionDao transactionDao = new JdbcTransactionDao(dbManager);
+        libraryService = new LibraryService(bookDao, transactionDao, new FineManager(0.50),
+                new NotificationService(), dbManager);
+    }
+
+    /**
+     * Counts statements prepared so far. Each DAO method prepares one statement per call,
+     * and all of them go through the pool's statement cache.
+     */
+    private long statementsPrepared() {
+        PoolStats stats = dbManager.getPoolStats();
+        return stats.getStatementCacheHits() + stats.getStatementCacheMisses();
+    }
+
+    @Test
+    void testGetBorrowedBooks_UsesConstantNumberOfQueries() {
+        Student student = new Student("batch_reader", "Test Dept", 2);
+        userDao.addUser(student);
+        for (int i = 0; i < Student.BORROW_LIMIT; i++) {
+            Book book = new Book(0, "Batch Book " + i, "Batcher", true, 1);
+            bookDao.addBook(book);
+            assertTrue(libraryService.borrowBook(student, book));
+        }
+
+        long before = statementsPrepared();
+        List<Book> borrowed = libraryService.getBorrowedBooks(student.getUserId());
+        long queries = statementsPrepared() - before;
+
+        assertEquals(Student.BORROW_LIMIT, borrowed.size());
+        assertEquals(2, queries, "One query for the loans and one for all of their books.");
+    }
+
+    @Test
+    void testFindByIds_ChunksLargeIdLists() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            Book book = new Book(0, "Chunked Book " + i, "Chunker", true, 1);
+            bookDao.addBook(book);
+            ids.add(book.getBookId());
+        }
+        ids.add(ids.get(0)); // duplicates are ignored
+        ids.add(-1);         // missing IDs are left out of the result
+
+        long before = statementsPrepared();
+        Map<Integer, Book> books = bookDao.findByIds(ids);
+        long queries = statementsPrepared() - before;
+
+        assertEquals(150, books.size());
+        assertEquals("Chunked Book 0", books.get(ids.get(0)).getTitle());
+        assertEquals(1, queries, "Both chunks run on a single prepared statement.");
+    }
+
+    @Test
+    void testUserFindByIds() {
+        User first = new Student("batch_user_a", "Test Dept", 1);
+        User second = new Student("batch_user_b", "Test Dept", 1);
+        userDao.addUser(first);
+        userDao.addUser(second);
+
+        Map<Integer, User> users = userDao.findByIds(List.of(first.getUserId(), second.getUserId()));
+
+        assertEquals(2, users.size());
+        assertEquals("batch_user_b", users.get(second.getUserId()).getName());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.library;
+
+import com.example.library.model.Book;
+import com.example.library.search.BookSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.add(new Book(1, "The Hobbit", "J.R.R. Tolkien", true, 1));
+        index.add(new Book(2, "The Fellowship of the Ring", "J.R.R. Tolkien", true, 1));
+        index.add(new Book(3, "Wuthering Heights", "Emily Brontë", true, 2));
+    }
+
+    @Test
+    void testSearchTitle_MatchesWordPrefixesCaseInsensitively() {
+        assertArrayEquals(new int[]{1}, index.searchTitle("hobb"));
+        assertArrayEquals(new int[]{1, 2}, index.searchTitle("THE"));
+        assertArrayEquals(new int[]{2}, index.searchTitle("the ring"));
+        assertArrayEquals(new int[]{}, index.searchTitle("hobbit ring"));
+    }
+
+    @Test
+    void testSearchTitle_PrefixMergesPostingsOfEveryMatchingWord() {
+        index.add(new Book(4, "There and Back Again", "J.R.R. Tolkien", true, 1));
+        index.add(new Book(5, "Theory of Rings", "A. Mathematician", true, 3));
+
+        assertArrayEquals(new int[]{1, 2, 4, 5}, index.searchTitle("the"));
+        assertArrayEquals(new int[]{2, 5}, index.searchTitle("the ring"));
+    }
+
+    @Test
+    void testSearchAuthor_IgnoresAccentsAndPunctuation() {
+        assertArrayEquals(new int[]{3}, index.searchAuthor("bronte"));
+        assertArrayEquals(new int[]{1, 2}, index.searchAuthor("tolkien"));
+    }
+
+    @Test
+    void testUpdateAndRemove_KeepIndexCurrent() {
+        index.add(new Book(1, "There and Back Again", "J.R.R. Tolkien", true, 1));
+        index.remove(2);
+
+        assertArrayEquals(new int[]{}, index.searchTitle("hobbit"));
+        assertArrayEquals(new int[]{1}, index.searchTitle("back"));
+        assertArrayEquals(new int[]{1}, index.searchAuthor("tolkien"));
+    }
+}
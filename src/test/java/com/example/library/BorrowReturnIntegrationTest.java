@@ -30,7 +30,7 @@ public class BorrowReturnIntegrationTest {
         // Services
         FineManager fineManager = new FineManager(0.50);
         NotificationService notificationService = new NotificationService(); // Mock or simple version
-        libraryService = new LibraryService(bookDao, transactionDao, fineManager, notificationService);
+        libraryService = new LibraryService(bookDao, transactionDao, fineManager, notificationService, dbManager);
 
         // Test data
         testUser = new Student("integration_tester", "Test Dept", 1);
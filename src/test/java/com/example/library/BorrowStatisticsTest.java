@@ -0,0 +1,114 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.Category;
+import com.example.library.model.DailyLoanCount;
+import com.example.library.model.Student;
+import com.example.library.model.Transaction;
+import com.example.library.service.BorrowStatistics;
+import com.example.library.service.FineManager;
+import com.example.library.service.LibraryService;
+import com.example.library.service.NotificationService;
+import com.example.library.service.PartitionedReportEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BorrowStatisticsTest {
+
+    private BookDao bookDao;
+    private UserDao userDao;
+    private CategoryDao categoryDao;
+    private DatabaseManager dbManager;
+    private BorrowStatistics statistics;
+    private LibraryService libraryService;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager();
+        categoryDao = new JdbcCategoryDao(dbManager);
+        bookDao = new JdbcBookDao(dbManager, categoryDao);
+        userDao = new JdbcUserDao(dbManager);
+        statistics = new BorrowStatistics(new JdbcBorrowStatisticsDao(dbManager), bookDao, dbManager);
+        statistics.load();
+        libraryService = new LibraryService(bookDao, new JdbcTransactionDao(dbManager), new FineManager(0.50),
+                new NotificationService(), dbManager);
+        libraryService.addLoanListener(statistics);
+    }
+
+    @Test
+    void testBorrowAndReturn_UpdateCountersAndMirror() {
+        Category category = new Category(0, "Stats Category " + System.nanoTime(), null);
+        categoryDao.addCategory(category);
+        Student student = new Student("stats_reader", "Maths", 1);
+        userDao.addUser(student);
+        Book book = new Book(0, "Counted Book", "Stat Author", true, category.getCategoryId());
+        bookDao.addBook(book);
+        long dailyBefore = borrowsToday();
+
+        assertTrue(libraryService.borrowBook(student, book));
+        assertTrue(libraryService.returnBook(book));
+        assertTrue(libraryService.borrowBook(student, book));
+
+        assertEquals(2, statistics.getBookBorrowCount(book.getBookId()));
+        assertEquals(2, statistics.getCategoryBorrowCount(category.getCategoryId()));
+        assertEquals(dailyBefore + 2, borrowsToday());
+
+        // The counts were written with the loans, so a fresh instance loads them from the summary tables
+        BorrowStatistics reloaded = new BorrowStatistics(new JdbcBorrowStatisticsDao(dbManager), bookDao, dbManager);
+        reloaded.load();
+        assertEquals(2, reloaded.getBookBorrowCount(book.getBookId()));
+        assertEquals(2, reloaded.getCategoryBorrowCount(category.getCategoryId()));
+    }
+
+    @Test
+    void testRolledBackBorrow_IsNotCounted() {
+        Student student = new Student("rollback_reader", "Maths", 1);
+        userDao.addUser(student);
+        Book book = new Book(0, "Uncounted Book", "Stat Author", true, 1);
+        bookDao.addBook(book);
+        long dailyBefore = borrowsToday();
+        Transaction loan = new Transaction(0, student.getUserId(), book.getBookId(), LocalDate.now(), LocalDate.now().plusDays(14));
+
+        assertThrows(IllegalStateException.class, () -> dbManager.inTransaction(() -> {
+            statistics.onBorrow(loan, book);
+            throw new IllegalStateException("loan insert failed");
+        }));
+
+        assertEquals(0, statistics.getBookBorrowCount(book.getBookId()));
+        assertEquals(dailyBefore, borrowsToday());
+        BorrowStatistics reloaded = new BorrowStatistics(new JdbcBorrowStatisticsDao(dbManager), bookDao, dbManager);
+        reloaded.load();
+        assertEquals(0, reloaded.getBookBorrowCount(book.getBookId()));
+    }
+
+    @Test
+    void testRebuild_MatchesIncrementalCounts() {
+        Student student = new Student("rebuild_reader", "Maths", 1);
+        userDao.addUser(student);
+        Book book = new Book(0, "Rebuilt Book", "Stat Author", true, 1);
+        bookDao.addBook(book);
+        assertTrue(libraryService.borrowBook(student, book));
+        assertTrue(libraryService.returnBook(book));
+        assertTrue(libraryService.borrowBook(student, book));
+        long incremental = statistics.getBookBorrowCount(book.getBookId());
+
+        try (PartitionedReportEngine engine = new PartitionedReportEngine(new JdbcTransactionDao(dbManager), 3, 1)) {
+            statistics.rebuild(engine);
+        }
+
+        assertEquals(incremental, statistics.getBookBorrowCount(book.getBookId()));
+        assertTrue(statistics.getTopBooks(Integer.MAX_VALUE).stream().anyMatch(row -> row.getBookId() == book.getBookId()));
+    }
+
+    private long borrowsToday() {
+        List<DailyLoanCount> today = statistics.getDailyCounts(LocalDate.now(), LocalDate.now());
+        return today.isEmpty() ? 0 : today.get(0).getBorrowCount();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.dao.JdbcUserDao;
+import com.example.library.dao.UserDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.importer.CsvBookImporter;
+import com.example.library.importer.ImportResult;
+import com.example.library.model.Book;
+import com.example.library.model.Librarian;
+import com.example.library.model.Student;
+import com.example.library.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkImportTest {
+
+    private BookDao bookDao;
+    private UserDao userDao;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        bookDao = new JdbcBookDao(dbManager);
+        userDao = new JdbcUserDao(dbManager);
+    }
+
+    @Test
+    void testAddBooks_AssignsIdsAcrossBatches() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            books.add(new Book(0, "Batched Book " + i, "Batch Author", true, 1));
+        }
+
+        assertEquals(2500, bookDao.addBooks(books));
+
+        assertTrue(books.stream().allMatch(b -> b.getBookId() > 0));
+        assertEquals(2500, books.stream().mapToInt(Book::getBookId).distinct().count());
+        assertEquals("Batched Book 2499", bookDao.findById(books.get(2499).getBookId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void testAddUsers_InsertsStudentsAndLibrarians() {
+        List<User> users = List.of(new Student("bulk_student", "Physics", 1), new Librarian("bulk_librarian", "EMP900"));
+
+        assertEquals(2, userDao.addUsers(users));
+
+        assertInstanceOf(Student.class, userDao.findById(users.get(0).getUserId()).orElseThrow());
+        assertInstanceOf(Librarian.class, userDao.findById(users.get(1).getUserId()).orElseThrow());
+    }
+
+    @Test
+    void testCsvImport_ParsesQuotedFieldsAndRejectsBadRows(@TempDir Path dir) throws Exception {
+        String author = "Csv Author " + System.nanoTime();
+        List<String> lines = new ArrayList<>();
+        lines.add("title,author,category_id");
+        for (int i = 0; i < 99; i++) {
+            lines.add("Csv Book " + i + "," + author + ",1");
+        }
+        lines.add("\"Quoted, \"\"Comma\"\" Title\"," + author + ",");
+        lines.add("Missing Author Only");
+        lines.add("Bad Category," + author + ",abc");
+        Path file = dir.resolve("books.csv");
+        Files.write(file, lines);
+
+        ImportResult result = new CsvBookImporter(bookDao, 7, 3).importFile(file);
+
+        assertEquals(102, result.getRowsRead());
+        assertEquals(100, result.getRowsImported());
+        assertEquals(2, result.getRowsRejected());
+        List<Book> imported = bookDao.findByAuthor(author);
+        assertEquals(100, imported.size());
+        assertTrue(imported.stream().anyMatch(b -> b.getTitle().equals("Quoted, \"Comma\" Title")));
+    }
+
+    @Test
+    void testCsvImport_SkipsHeaderAfterByteOrderMarkOnly(@TempDir Path dir) throws Exception {
+        String author = "Bom Author " + System.nanoTime();
+        Path withHeader = dir.resolve("with-header.csv");
+        Files.write(withHeader, List.of("\uFEFF\"Title\",Author", "Bom Book," + author));
+        Path withoutHeader = dir.resolve("without-header.csv");
+        Files.write(withoutHeader, List.of("Titles of the Night," + author));
+
+        assertEquals(1, new CsvBookImporter(bookDao, 10, 1).importFile(withHeader).getRowsImported());
+        assertEquals(1, new CsvBookImporter(bookDao, 10, 1).importFile(withoutHeader).getRowsImported());
+        List<Book> imported = bookDao.findByAuthor(author);
+        assertEquals(2, imported.size());
+        assertTrue(imported.stream().anyMatch(b -> b.getTitle().equals("Titles of the Night")));
+    }
+}
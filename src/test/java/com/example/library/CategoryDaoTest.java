@@ -0,0 +1,78 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.CategoryDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.dao.JdbcCategoryDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryDaoTest {
+
+    private DatabaseManager dbManager;
+    private CategoryDao categoryDao;
+    private BookDao bookDao;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager();
+        categoryDao = new JdbcCategoryDao(dbManager);
+        bookDao = new JdbcBookDao(dbManager, categoryDao);
+    }
+
+    @Test
+    void testAddCategory_IsVisibleWithoutRefresh() {
+        Category category = new Category(0, "Poetry " + System.nanoTime(), "Verse");
+        categoryDao.addCategory(category);
+
+        assertTrue(category.getCategoryId() > 0);
+        assertTrue(categoryDao.exists(category.getCategoryId()));
+        assertEquals(category.getCategoryId(), categoryDao.findByName(category.getName().toUpperCase()).orElseThrow().getCategoryId());
+    }
+
+    @Test
+    void testAddCategory_RolledBackIsNotKept() {
+        Category category = new Category(0, "Folklore " + System.nanoTime(), "Tales");
+
+        assertThrows(IllegalStateException.class, () -> dbManager.inTransaction(() -> {
+            categoryDao.addCategory(category);
+            throw new IllegalStateException("import failed");
+        }));
+
+        assertTrue(category.getCategoryId() > 0);
+        assertFalse(categoryDao.exists(category.getCategoryId()));
+        assertTrue(categoryDao.findByName(category.getName()).isEmpty());
+    }
+
+    @Test
+    void testCategoryAddedElsewhere_IsFoundOnRefresh() {
+        Category category = new Category(0, "Drama " + System.nanoTime(), "Plays");
+        new JdbcCategoryDao(dbManager).addCategory(category);
+
+        categoryDao.refresh();
+
+        assertTrue(categoryDao.findById(category.getCategoryId()).isPresent());
+    }
+
+    @Test
+    void testBookWrites_ValidateCategoryAndListByCategory() {
+        Category category = new Category(0, "Maps " + System.nanoTime(), "Atlases");
+        categoryDao.addCategory(category);
+        Book inCategory = new Book(0, "World Atlas", "Cartographer", true, category.getCategoryId());
+        Book unknownCategory = new Book(0, "Lost Atlas", "Cartographer", true, 999_999);
+        bookDao.addBook(inCategory);
+        bookDao.addBook(unknownCategory);
+
+        assertEquals(0, bookDao.findById(unknownCategory.getBookId()).orElseThrow().getCategoryId());
+        List<Book> listed = bookDao.findByCategory(category.getCategoryId(), 0, 10);
+        assertEquals(List.of(inCategory.getBookId()), listed.stream().map(Book::getBookId).toList());
+        assertTrue(bookDao.findByCategory(category.getCategoryId(), inCategory.getBookId(), 10).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.Librarian;
+import com.example.library.model.User;
+import com.example.library.service.FineManager;
+import com.example.library.service.LibraryService;
+import com.example.library.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures borrow-and-return checkouts per second with several kiosks working in parallel,
+ * each on its own books. Run with {@code mvn test -Dbenchmark=true -Dtest=CheckoutThroughputBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CheckoutThroughputBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKS_PER_THREAD = 25;
+    private static final int ROUNDS = 20;
+
+    @Test
+    void benchmarkCheckouts_PerSecond() throws Exception {
+        DatabaseManager dbManager = new DatabaseManager();
+        BookDao bookDao = new JdbcBookDao(dbManager);
+        UserDao userDao = new JdbcUserDao(dbManager);
+        LibraryService libraryService = new LibraryService(bookDao, new JdbcTransactionDao(dbManager),
+                new FineManager(0.50), new NotificationService(), dbManager);
+
+        List<User> kiosks = new ArrayList<>();
+        List<List<Book>> shelves = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User kiosk = new Librarian("bench_kiosk_" + i, "BENCH" + i);
+            userDao.addUser(kiosk);
+            kiosks.add(kiosk);
+            List<Book> shelf = new ArrayList<>();
+            for (int j = 0; j < BOOKS_PER_THREAD; j++) {
+                Book book = new Book(0, "Checkout Benchmark " + i + "-" + j, "Benchmark Author", true, 1);
+                bookDao.addBook(book);
+                shelf.add(book);
+            }
+            shelves.add(shelf);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                User kiosk = kiosks.get(i);
+                List<Book> shelf = shelves.get(i);
+                results.add(executor.submit(() -> {
+                    int checkouts = 0;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (Book book : shelf) {
+                            assertTrue(libraryService.borrowBook(kiosk, book));
+                            assertTrue(libraryService.returnBook(book));
+                            checkouts++;
+                        }
+                    }
+                    return checkouts;
+                }));
+            }
+            int checkouts = 0;
+            for (Future<Integer> result : results) {
+                checkouts += result.get(10, TimeUnit.MINUTES);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d checkouts (borrow + return) in %.2f s: %.0f checkouts/s on %d threads%n",
+                    checkouts, seconds, checkouts / seconds, THREADS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
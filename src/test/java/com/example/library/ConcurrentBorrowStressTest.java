@@ -0,0 +1,143 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.Librarian;
+import com.example.library.model.Student;
+import com.example.library.model.User;
+import com.example.library.service.ActiveLoanCounter;
+import com.example.library.service.FineManager;
+import com.example.library.service.LibraryService;
+import com.example.library.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentBorrowStressTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    private LibraryService libraryService;
+    private BookDao bookDao;
+    private TransactionDao transactionDao;
+    private UserDao userDao;
+    private List<User> kiosks;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        bookDao = new JdbcBookDao(dbManager);
+        userDao = new JdbcUserDao(dbManager);
+        transactionDao = new JdbcTransactionDao(dbManager);
+        libraryService = new LibraryService(bookDao, transactionDao, new FineManager(0.50),
+                new NotificationService(), dbManager);
+
+        // Librarians have no borrow limit, so the same users can race for every round's book
+        kiosks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User user = new Librarian("stress_kiosk_" + i, "STRESS" + i);
+            userDao.addUser(user);
+            kiosks.add(user);
+        }
+    }
+
+    @Test
+    void testConcurrentBorrowsOfSameCopy_OnlyOneSucceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Book book = new Book(0, "Contended Book " + round, "Stress Tester", true, 1);
+                bookDao.addBook(book);
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (User kiosk : kiosks) {
+                    // Every kiosk holds its own stale copy that still says "available"
+                    Book staleCopy = new Book(book.getBookId(), book.getTitle(), book.getAuthor(), true, 1);
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return libraryService.borrowBook(kiosk, staleCopy);
+                    }));
+                }
+                start.countDown();
+
+                int successes = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(30, TimeUnit.SECONDS)) {
+                        successes++;
+                    }
+                }
+                assertEquals(1, successes, "Exactly one kiosk should win the race for book " + book.getBookId());
+
+                long activeLoans = transactionDao.findAll().stream()
+                        .filter(t -> t.getBookId() == book.getBookId() && t.getReturnDate() == null)
+                        .count();
+                assertEquals(1, activeLoans, "Book " + book.getBookId() + " should have exactly one active loan.");
+                assertFalse(bookDao.findById(book.getBookId()).orElseThrow().isAvailable());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentReturnsOfSameLoan_OnlyOneSucceeds() throws Exception {
+        ActiveLoanCounter counter = new ActiveLoanCounter(transactionDao);
+        libraryService.setActiveLoanCounter(counter);
+        User student = new Student("stress_returner", "Physics", 1);
+        userDao.addUser(student);
+        Book keptBook = new Book(0, "Kept Book", "Stress Tester", true, 1);
+        bookDao.addBook(keptBook);
+        assertTrue(libraryService.borrowBook(student, keptBook));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Book book = new Book(0, "Returned Book " + round, "Stress Tester", true, 1);
+                bookDao.addBook(book);
+                assertTrue(libraryService.borrowBook(student, book));
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    // Every desk holds its own stale copy that still says "borrowed"
+                    Book staleCopy = new Book(book.getBookId(), book.getTitle(), book.getAuthor(), false, 1);
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return libraryService.returnBook(staleCopy);
+                    }));
+                }
+                start.countDown();
+
+                int successes = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(30, TimeUnit.SECONDS)) {
+                        successes++;
+                    }
+                }
+                assertEquals(1, successes, "Exactly one desk should close the loan of book " + book.getBookId());
+
+                long closedLoans = transactionDao.findAll().stream()
+                        .filter(t -> t.getBookId() == book.getBookId() && t.getReturnDate() != null)
+                        .count();
+                assertEquals(1, closedLoans, "Book " + book.getBookId() + " should have exactly one closed loan.");
+                assertTrue(bookDao.findById(book.getBookId()).orElseThrow().isAvailable());
+                // Only the winning return gives the loan back, so the kept book still counts
+                assertEquals(1, counter.get(student.getUserId()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
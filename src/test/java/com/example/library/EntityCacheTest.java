@@ -0,0 +1,87 @@
+package com.example.library;
+
+import com.example.library.cache.EntityCache;
+import com.example.library.cache.EvictionPolicy;
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.Category;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityCacheTest {
+
+    private static void put(EntityCache<Integer, String> cache, int key) {
+        cache.put(key, "value" + key, cache.generation());
+    }
+
+    @Test
+    void testLru_EvictsLeastRecentlyRead() {
+        EntityCache<Integer, String> cache = new EntityCache<>(2, 0, EvictionPolicy.lru());
+        put(cache, 1);
+        put(cache, 2);
+        cache.get(1);
+        put(cache, 3);
+
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(3));
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void testLfu_EvictsLeastFrequentlyRead() {
+        EntityCache<Integer, String> cache = new EntityCache<>(2, 0, EvictionPolicy.lfu());
+        put(cache, 1);
+        put(cache, 2);
+        cache.get(1);
+        cache.get(1);
+        cache.get(2);
+        put(cache, 3);
+
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    void testTtl_ExpiresEntries() throws InterruptedException {
+        EntityCache<Integer, String> cache = new EntityCache<>(10, 1_000_000L, EvictionPolicy.lru());
+        put(cache, 1);
+        Thread.sleep(5);
+
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void testPut_IgnoredAfterConcurrentInvalidation() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10, 0, EvictionPolicy.lru());
+        long generation = cache.generation();
+        cache.invalidate(1);
+        cache.put(1, "stale", generation);
+
+        assertNull(cache.get(1));
+        assertEquals(0.0, cache.getStats().getHitRatio());
+    }
+
+    @Test
+    void testCachingBookDao_RollbackDropsUncommittedReread() {
+        DatabaseManager dbManager = new DatabaseManager();
+        CategoryDao categoryDao = new JdbcCategoryDao(dbManager);
+        Category category = new Category(0, "Cache Category " + System.nanoTime(), null);
+        categoryDao.addCategory(category);
+        CachingBookDao bookDao = new CachingBookDao(new JdbcBookDao(dbManager, categoryDao),
+                new EntityCache<>(10, 0, EvictionPolicy.lru()), dbManager);
+        Book book = new Book(0, "Rolled Back", "Cache Author", true, category.getCategoryId());
+        bookDao.addBook(book);
+
+        assertThrows(IllegalStateException.class, () -> dbManager.inTransaction(() -> {
+            bookDao.compareAndSetAvailability(book.getBookId(), true, false);
+            assertFalse(bookDao.findById(book.getBookId()).orElseThrow().isAvailable());
+            throw new IllegalStateException("loan insert failed");
+        }));
+
+        assertTrue(bookDao.findById(book.getBookId()).orElseThrow().isAvailable());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares findById latency through the connection pool with opening a connection per lookup.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=FindByIdBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class FindByIdBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int LOOKUPS = 20_000;
+
+    @Test
+    void benchmarkFindById_PooledVersusConnectionPerCall() throws Exception {
+        BookDao bookDao = new JdbcBookDao(new DatabaseManager());
+        Book book = new Book(0, "Benchmark Book", "Benchmark Author", true, 1);
+        bookDao.addBook(book);
+        int bookId = book.getBookId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            bookDao.findById(bookId);
+        }
+        long[] pooled = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            assertTrue(bookDao.findById(bookId).isPresent());
+            pooled[i] = System.nanoTime() - start;
+        }
+
+        Properties props = new Properties();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("application.properties")) {
+            props.load(in);
+        }
+        String url = props.getProperty("db.url");
+        String user = props.getProperty("db.user");
+        String pass = props.getProperty("db.pass");
+        long[] unpooled = new long[LOOKUPS / 10];
+        for (int i = 0; i < unpooled.length; i++) {
+            long start = System.nanoTime();
+            try (Connection conn = DriverManager.getConnection(url, user, pass);
+                 PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM books WHERE book_id = ?")) {
+                pstmt.setInt(1, bookId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    assertTrue(rs.next());
+                }
+            }
+            unpooled[i] = System.nanoTime() - start;
+        }
+
+        report("pooled", pooled);
+        report("connection per call", unpooled);
+    }
+
+    private static void report(String label, long[] nanos) {
+        Arrays.sort(nanos);
+        System.out.printf("findById %-20s p50=%6d us  p99=%6d us  (%d lookups)%n", label,
+                nanos[nanos.length / 2] / 1_000, nanos[nanos.length * 99 / 100] / 1_000, nanos.length);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.library;
+
+import com.example.library.dao.FineAccrualDao;
+import com.example.library.dao.JdbcFineAccrualDao;
+import com.example.library.dao.JdbcTransactionDao;
+import com.example.library.dao.TransactionDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.FineAccrualCheckpoint;
+import com.example.library.model.Transaction;
+import com.example.library.service.FineAccrualJob;
+import com.example.library.service.FineAccrualResult;
+import com.example.library.service.FineManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FineAccrualJobTest {
+
+    private TransactionDao transactionDao;
+    private FineAccrualDao fineAccrualDao;
+    private FineAccrualJob job;
+    private LoanFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        transactionDao = new JdbcTransactionDao(dbManager);
+        fineAccrualDao = new JdbcFineAccrualDao(dbManager);
+        job = new FineAccrualJob(transactionDao, fineAccrualDao, new FineManager(0.50), 2, 2);
+        fixture = LoanFixture.create(dbManager, "Fine");
+    }
+
+    private Transaction loan(LocalDate dueDate, LocalDate returnDate) {
+        Transaction t = new Transaction(0, fixture.userId, fixture.book.getBookId(), dueDate.minusDays(14), dueDate);
+        t.setReturnDate(returnDate);
+        transactionDao.addTransaction(t);
+        return t;
+    }
+
+    private double storedFine(Transaction t) {
+        return transactionDao.findById(t.getTransactionId()).orElseThrow().getFineAmount();
+    }
+
+    @Test
+    void testRun_AccruesOpenOverdueLoansOnce() {
+        LocalDate asOf = LocalDate.of(2031, 1, 31);
+        Transaction overdue = loan(asOf.minusDays(10), null);
+        Transaction notDue = loan(asOf.plusDays(3), null);
+        Transaction returned = loan(asOf.minusDays(20), asOf.minusDays(18));
+
+        job.run(asOf);
+
+        assertEquals(5.00, storedFine(overdue));
+        assertEquals(0, storedFine(notDue));
+        assertEquals(0, storedFine(returned));
+        assertTrue(fineAccrualDao.findCheckpoint(asOf).orElseThrow().isCompleted());
+
+        FineAccrualResult second = job.run(asOf);
+        assertEquals(0, second.getLoansProcessed());
+        assertEquals(5.00, storedFine(overdue));
+    }
+
+    @Test
+    void testRun_ResumesAfterCheckpoint() {
+        LocalDate asOf = LocalDate.of(2032, 6, 30);
+        Transaction done = loan(asOf.minusDays(4), null);
+        Transaction pending = loan(asOf.minusDays(6), null);
+        fineAccrualDao.saveCheckpoint(new FineAccrualCheckpoint(asOf, done.getTransactionId(), 1, false));
+
+        FineAccrualResult result = job.run(asOf);
+
+        assertEquals(done.getTransactionId(), result.getResumedAfterTransactionId());
+        assertEquals(0, storedFine(done));
+        assertEquals(3.00, storedFine(pending));
+    }
+}
@@ -49,4 +49,13 @@ public class FineManagerTest {
         // Return date is null
         assertEquals(0, fineManager.calculateFine(transaction));
     }
+
+    @Test
+    void testCalculateFine_OpenLoanCountsUpToDate() {
+        Transaction transaction = new Transaction();
+        transaction.setDueDate(LocalDate.of(2024, 1, 15));
+        // Not returned yet, so the fine runs up to the given date
+        assertEquals(2.50, fineManager.calculateFine(transaction, LocalDate.of(2024, 1, 20)));
+        assertEquals(0, fineManager.calculateFine(transaction, LocalDate.of(2024, 1, 10)));
+    }
 }
@@ -0,0 +1,51 @@
+package com.example.library;
+
+import com.example.library.model.Book;
+import com.example.library.search.TrigramIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures typo-tolerant title search latency on a synthetic in-memory catalog; set
+ * {@code -Dbenchmark.books} to change its size. Run with
+ * {@code mvn test -Dbenchmark=true -Dtest=FuzzySearchBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class FuzzySearchBenchmarkTest {
+
+    private static final String[] WORDS = {"river", "shadow", "garden", "empire", "winter", "silent",
+            "machine", "harbor", "crown", "letters", "forest", "mirror", "journey", "glass", "storm", "orchard"};
+    private static final String[] TYPOS = {"rivr shadw", "the gardn", "empir of wintr", "slient machin",
+            "harbr crwn", "leters", "forrest mirorr", "journy of glas"};
+    private static final int SEARCHES = 2_000;
+
+    @Test
+    void benchmarkFuzzyTitleSearch_Latency() {
+        int catalogSize = Integer.getInteger("benchmark.books", 200_000);
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex(0.5);
+        long start = System.nanoTime();
+        for (int i = 1; i <= catalogSize; i++) {
+            String title = "The " + WORDS[random.nextInt(WORDS.length)] + " of " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + Integer.toString(i, 36);
+            index.add(new Book(i, title, "Author " + random.nextInt(50_000), true, 1));
+        }
+        System.out.printf("Indexed %d books in %d ms%n", catalogSize, (System.nanoTime() - start) / 1_000_000);
+
+        for (int i = 0; i < SEARCHES / 10; i++) {
+            index.searchTitle(TYPOS[i % TYPOS.length], 10);
+        }
+        long[] nanos = new long[SEARCHES];
+        for (int i = 0; i < SEARCHES; i++) {
+            long searchStart = System.nanoTime();
+            index.searchTitle(TYPOS[i % TYPOS.length], 10);
+            nanos[i] = System.nanoTime() - searchStart;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("Fuzzy title search over %d books: p50=%d us  p99=%d us%n", catalogSize,
+                nanos[SEARCHES / 2] / 1_000, nanos[SEARCHES * 99 / 100] / 1_000);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdAllocatorTest {
+
+    @Test
+    void testNextId_IsUniqueAcrossThreadsAndBlocks() throws Exception {
+        DatabaseManager dbManager = new DatabaseManager();
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                try (Connection conn = dbManager.getConnection()) {
+                    for (int i = 0; i < 500; i++) {
+                        assertTrue(ids.add(dbManager.nextId(conn, "books_seq")));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(4000, ids.size());
+    }
+
+    @Test
+    void testAddBook_UsesAllocatedIdWithoutLookup() {
+        BookDao bookDao = new JdbcBookDao(new DatabaseManager());
+        Book first = new Book(0, "Same Title", "Same Author", true, 1);
+        Book second = new Book(0, "Same Title", "Same Author", true, 1);
+
+        bookDao.addBook(first);
+        bookDao.addBook(second);
+
+        assertTrue(first.getBookId() > 0);
+        assertNotEquals(first.getBookId(), second.getBookId());
+        assertTrue(bookDao.findById(second.getBookId()).isPresent());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.dao.JdbcTransactionDao;
+import com.example.library.dao.Page;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.service.FineManager;
+import com.example.library.service.LibraryService;
+import com.example.library.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetPaginationTest {
+
+    private BookDao bookDao;
+    private LibraryService libraryService;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        bookDao = new JdbcBookDao(dbManager);
+        libraryService = new LibraryService(bookDao, new JdbcTransactionDao(dbManager), new FineManager(0.50),
+                new NotificationService(), dbManager);
+    }
+
+    @Test
+    void testSearchByTitle_PagesVisitEveryMatchOnceInIdOrder() {
+        String title = "Paged Title " + System.nanoTime();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Book book = new Book(0, title + " " + i, "Pager", true, 1);
+            bookDao.addBook(book);
+            expected.add(book.getBookId());
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Book> page = libraryService.searchByTitle(title, cursor, 10);
+            page.getItems().forEach(b -> seen.add(b.getBookId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testLastFullPage_HasNoNextCursor() {
+        String author = "Exact Pager " + System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            bookDao.addBook(new Book(0, "Exact Page Book " + i, author, true, 1));
+        }
+
+        Page<Book> page = libraryService.searchByAuthor(author, null, 5);
+
+        assertEquals(5, page.getItems().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void testCursor_RoundTripsAndRejectsGarbage() {
+        assertEquals(42, Page.decodeCursor(Page.encodeCursor(42)));
+        assertEquals(0, Page.decodeCursor(null));
+        assertThrows(IllegalArgumentException.class, () -> Page.decodeCursor("not-a-cursor"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.Category;
+import com.example.library.model.Student;
+
+/**
+ * A freshly created category, student and book for tests that insert loans directly, so the
+ * loans satisfy the foreign keys on {@code transactions}.
+ */
+final class LoanFixture {
+
+    final int userId;
+    final Book book;
+
+    private LoanFixture(int userId, Book book) {
+        this.userId = userId;
+        this.book = book;
+    }
+
+    /**
+     * Creates the rows, named after the test that uses them.
+     *
+     * @param dbManager The database to create them in.
+     * @param name      A short name for the test, used in the user name and book title.
+     * @return The fixture.
+     */
+    static LoanFixture create(DatabaseManager dbManager, String name) {
+        CategoryDao categoryDao = new JdbcCategoryDao(dbManager);
+        Category category = new Category(0, name + " Category " + System.nanoTime(), null);
+        categoryDao.addCategory(category);
+        Student student = new Student(name.toLowerCase() + "_reader", "Testing", 1);
+        new JdbcUserDao(dbManager).addUser(student);
+        Book book = new Book(0, name + " Book", "Fixture Author", true, category.getCategoryId());
+        new JdbcBookDao(dbManager, categoryDao).addBook(book);
+        return new LoanFixture(student.getUserId(), book);
+    }
+}
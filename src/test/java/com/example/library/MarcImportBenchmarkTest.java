@@ -0,0 +1,53 @@
+package com.example.library;
+
+import com.example.library.dao.CategoryDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.dao.JdbcCategoryDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.importer.ImportResult;
+import com.example.library.importer.MarcBookImporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures MARC21 import throughput in records per second against the 50,000 records/s target.
+ * Set {@code -Dbenchmark.records} to change the file size. Run with
+ * {@code mvn test -Dbenchmark=true -Dtest=MarcImportBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MarcImportBenchmarkTest {
+
+    private static final int TARGET_RECORDS_PER_SECOND = 50_000;
+
+    @Test
+    void benchmarkMarcImport_RecordsPerSecond(@TempDir Path dir) throws Exception {
+        int records = Integer.getInteger("benchmark.records", 500_000);
+        Path marc = dir.resolve("benchmark.mrc");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(marc))) {
+            for (int i = 0; i < records; i++) {
+                out.write(MarcImportTest.marcRecord(new String[][]{
+                        {"100", "$aBenchmark, Author " + (i % 10_000) + ","},
+                        {"245", "$aBenchmark title " + i + " :$ba subtitle /"},
+                        {"650", "$aFiction."}}));
+            }
+        }
+
+        DatabaseManager dbManager = new DatabaseManager();
+        CategoryDao categoryDao = new JdbcCategoryDao(dbManager);
+        MarcBookImporter importer = new MarcBookImporter(new JdbcBookDao(dbManager, categoryDao), categoryDao, 5_000);
+        ImportResult result = importer.importFile(marc);
+
+        assertEquals(records, result.getRowsImported());
+        System.out.printf("Imported %d MARC records (%d MB) in %d ms: %.0f records/s (target %d)%n",
+                result.getRowsImported(), Files.size(marc) >> 20, result.getElapsedMillis(),
+                result.getRowsPerSecond(), TARGET_RECORDS_PER_SECOND);
+    }
+}
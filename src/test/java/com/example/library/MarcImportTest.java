@@ -0,0 +1,97 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.CategoryDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.dao.JdbcCategoryDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.importer.ImportResult;
+import com.example.library.importer.MarcBookImporter;
+import com.example.library.importer.SubjectCategoryMap;
+import com.example.library.model.Book;
+import com.example.library.model.Category;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarcImportTest {
+
+    /**
+     * Builds one ISO 2709 record from {tag, subfields} pairs, where subfields are written as
+     * "$aValue$bValue".
+     */
+    static byte[] marcRecord(String[][] fields) {
+        ByteArrayOutputStream directory = new ByteArrayOutputStream();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (String[] field : fields) {
+            byte[] body = ("  " + field[1].replace('$', '\u001F') + "\u001E").getBytes(StandardCharsets.UTF_8);
+            directory.writeBytes(String.format("%s%04d%05d", field[0], body.length, data.size()).getBytes(StandardCharsets.US_ASCII));
+            data.writeBytes(body);
+        }
+        directory.write(0x1E);
+        int baseAddress = 24 + directory.size();
+        int length = baseAddress + data.size() + 1;
+        String leader = String.format("%05dnam a22%05d   4500", length, baseAddress);
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        record.writeBytes(leader.getBytes(StandardCharsets.US_ASCII));
+        record.writeBytes(directory.toByteArray());
+        record.writeBytes(data.toByteArray());
+        record.write(0x1D);
+        return record.toByteArray();
+    }
+
+    @Test
+    void testImport_ExtractsTitleAuthorAndCategory(@TempDir Path dir) throws Exception {
+        DatabaseManager dbManager = new DatabaseManager();
+        CategoryDao categoryDao = new JdbcCategoryDao(dbManager);
+        BookDao bookDao = new JdbcBookDao(dbManager, categoryDao);
+        Category fantasy = categoryDao.findByName("Fantasy").orElseGet(() -> {
+            Category category = new Category(0, "Fantasy", "Imaginary worlds");
+            categoryDao.addCategory(category);
+            return category;
+        });
+        String author = "Marc Author " + System.nanoTime();
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.writeBytes(marcRecord(new String[][]{
+                {"100", "$a" + author + ","},
+                {"245", "$aThe hobbit :$bor, There and back again /"},
+                {"650", "$aFantasy fiction."}}));
+        file.writeBytes("garbage".getBytes(StandardCharsets.US_ASCII));
+        file.write(0x1D);
+        file.writeBytes(marcRecord(new String[][]{{"100", "$aNo Title"}}));
+        file.writeBytes(marcRecord(new String[][]{
+                {"100", "$a" + author},
+                {"245", "$aCafé stories."},
+                {"650", "$aUnknown subject."}}));
+        Path marc = dir.resolve("records.mrc");
+        Files.write(marc, file.toByteArray());
+
+        ImportResult result = new MarcBookImporter(bookDao, categoryDao, 2).importFile(marc);
+
+        assertEquals(4, result.getRowsRead());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(2, result.getRowsRejected());
+        List<Book> books = bookDao.findByAuthor(author);
+        assertEquals(List.of("The hobbit or, There and back again", "Café stories"),
+                books.stream().map(Book::getTitle).toList());
+        assertEquals(List.of(fantasy.getCategoryId(), 0), books.stream().map(Book::getCategoryId).toList());
+    }
+
+    @Test
+    void testSubjectCategoryMap_LongestSubjectWins() {
+        SubjectCategoryMap map = new SubjectCategoryMap(Map.of("Science", 1, "Science fiction", 2));
+
+        assertEquals(2, map.categoryFor(List.of("Science fiction, American")));
+        assertEquals(1, map.categoryFor(List.of("Poetry", "Science -- History")));
+        assertEquals(0, map.categoryFor(List.of("Poetry")));
+    }
+}
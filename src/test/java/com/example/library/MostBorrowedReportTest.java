@@ -0,0 +1,87 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.BookBorrowCount;
+import com.example.library.model.Category;
+import com.example.library.model.Student;
+import com.example.library.model.Transaction;
+import com.example.library.service.ReportGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MostBorrowedReportTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    private TransactionDao transactionDao;
+    private ReportGenerator reportGenerator;
+    private int categoryId;
+    private int userId;
+    private Book popular;
+    private Book middling;
+    private Book rare;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        CategoryDao categoryDao = new JdbcCategoryDao(dbManager);
+        BookDao bookDao = new JdbcBookDao(dbManager, categoryDao);
+        UserDao userDao = new JdbcUserDao(dbManager);
+        transactionDao = new JdbcTransactionDao(dbManager);
+        reportGenerator = new ReportGenerator(bookDao, userDao, transactionDao);
+
+        Category category = new Category(0, "Report Category " + System.nanoTime(), null);
+        categoryDao.addCategory(category);
+        categoryId = category.getCategoryId();
+        Student student = new Student("report_reader", "History", 2);
+        userDao.addUser(student);
+        userId = student.getUserId();
+
+        popular = new Book(0, "Popular", "Author A", true, categoryId);
+        middling = new Book(0, "Middling", "Author B", true, categoryId);
+        rare = new Book(0, "Rare", "Author C", true, categoryId);
+        bookDao.addBook(popular);
+        bookDao.addBook(middling);
+        bookDao.addBook(rare);
+    }
+
+    private void borrow(Book book, LocalDate date, int times) {
+        for (int i = 0; i < times; i++) {
+            Transaction t = new Transaction(0, userId, book.getBookId(), date, date.plusDays(14));
+            t.setReturnDate(date.plusDays(1));
+            transactionDao.addTransaction(t);
+        }
+    }
+
+    @Test
+    void testMostBorrowed_RanksWithinCategoryAndLimit() {
+        borrow(popular, JAN_1, 3);
+        borrow(middling, JAN_1, 2);
+        borrow(rare, JAN_1, 1);
+
+        List<BookBorrowCount> rows = reportGenerator.getMostBorrowedBooks(null, null, categoryId, 2);
+
+        assertEquals(List.of(popular.getBookId(), middling.getBookId()), rows.stream().map(BookBorrowCount::getBookId).toList());
+        assertEquals(3, rows.get(0).getBorrowCount());
+        assertEquals("Popular", rows.get(0).getTitle());
+    }
+
+    @Test
+    void testMostBorrowed_CountsOnlyTheDateRange() {
+        borrow(popular, JAN_1, 3);
+        borrow(rare, JAN_1.plusMonths(1), 2);
+
+        List<BookBorrowCount> rows = reportGenerator.getMostBorrowedBooks(JAN_1.plusDays(1), JAN_1.plusMonths(2), categoryId, 10);
+
+        assertEquals(1, rows.size());
+        assertEquals(rare.getBookId(), rows.get(0).getBookId());
+        assertEquals(2, rows.get(0).getBorrowCount());
+    }
+}
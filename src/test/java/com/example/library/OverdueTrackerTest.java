@@ -0,0 +1,96 @@
+package com.example.library;
+
+import com.example.library.dao.JdbcTransactionDao;
+import com.example.library.dao.TransactionDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+import com.example.library.model.Transaction;
+import com.example.library.service.OverdueTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverdueTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 3, 10);
+
+    private TransactionDao transactionDao;
+    private OverdueTracker tracker;
+    private int userId;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        transactionDao = new JdbcTransactionDao(dbManager);
+        tracker = new OverdueTracker(transactionDao, TransactionRunner.NONE);
+        LoanFixture fixture = LoanFixture.create(dbManager, "Tracker");
+        userId = fixture.userId;
+        book = fixture.book;
+    }
+
+    private Transaction loan(LocalDate dueDate) {
+        return new Transaction(0, userId, book.getBookId(), dueDate.minusDays(14), dueDate);
+    }
+
+    private static List<Integer> ids(List<Transaction> loans) {
+        return loans.stream().map(Transaction::getTransactionId).toList();
+    }
+
+    @Test
+    void testLoad_TracksOnlyActiveLoans() {
+        Transaction active = loan(TODAY.minusDays(1));
+        Transaction returned = loan(TODAY.minusDays(2));
+        returned.setReturnDate(TODAY.minusDays(3));
+        transactionDao.addTransaction(active);
+        transactionDao.addTransaction(returned);
+
+        tracker.load();
+
+        List<Integer> overdue = ids(tracker.findOverdue(TODAY));
+        assertTrue(overdue.contains(active.getTransactionId()));
+        assertFalse(overdue.contains(returned.getTransactionId()));
+    }
+
+    @Test
+    void testEvents_KeepDueDateIndexCurrent() {
+        Transaction late = loan(TODAY.minusDays(3));
+        late.setTransactionId(-1);
+        Transaction dueToday = loan(TODAY);
+        dueToday.setTransactionId(-2);
+        Transaction dueNextWeek = loan(TODAY.plusDays(7));
+        dueNextWeek.setTransactionId(-3);
+        Transaction dueLater = loan(TODAY.plusDays(30));
+        dueLater.setTransactionId(-4);
+
+        tracker.onBorrow(dueLater, book);
+        tracker.onBorrow(dueNextWeek, book);
+        tracker.onBorrow(dueToday, book);
+        tracker.onBorrow(late, book);
+
+        assertEquals(List.of(-1), ids(tracker.findOverdue(TODAY)));
+        assertEquals(List.of(-2, -3), ids(tracker.findDueWithin(TODAY, 7)));
+
+        late.setReturnDate(TODAY);
+        tracker.onReturn(late, book);
+
+        assertTrue(tracker.findOverdue(TODAY).isEmpty());
+        assertEquals(3, tracker.size());
+    }
+
+    @Test
+    void testFindOverdue_SameDueDateInTransactionIdOrder() {
+        for (int id : new int[]{-30, -10, -20}) {
+            Transaction late = loan(TODAY.minusDays(1));
+            late.setTransactionId(id);
+            tracker.onBorrow(late, book);
+        }
+
+        assertEquals(List.of(-30, -20, -10), ids(tracker.findOverdue(TODAY)));
+    }
+}
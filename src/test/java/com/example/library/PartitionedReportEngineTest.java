@@ -0,0 +1,146 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.BookBorrowCount;
+import com.example.library.model.Category;
+import com.example.library.model.Student;
+import com.example.library.model.Transaction;
+import com.example.library.service.PartitionedReportEngine;
+import com.example.library.service.ReportGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedReportEngineTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    private TransactionDao transactionDao;
+    private PartitionedReportEngine engine;
+    private ReportGenerator partitioned;
+    private ReportGenerator serial;
+    private int categoryId;
+    private int userId;
+    private Book first;
+    private Book second;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        CategoryDao categoryDao = new JdbcCategoryDao(dbManager);
+        BookDao bookDao = new JdbcBookDao(dbManager, categoryDao);
+        UserDao userDao = new JdbcUserDao(dbManager);
+        transactionDao = new JdbcTransactionDao(dbManager);
+        // Partitions of a single ID, so even a small table is split, scanned in parallel and merged.
+        engine = new PartitionedReportEngine(transactionDao, 3, 1);
+        partitioned = new ReportGenerator(bookDao, userDao, transactionDao);
+        partitioned.setReportEngine(engine);
+        serial = new ReportGenerator(bookDao, userDao, transactionDao);
+
+        Category category = new Category(0, "Partition Category " + System.nanoTime(), null);
+        categoryDao.addCategory(category);
+        categoryId = category.getCategoryId();
+        Student student = new Student("partition_reader", "Physics", 3);
+        userDao.addUser(student);
+        userId = student.getUserId();
+        first = new Book(0, "Partitioned One", "Author P", true, categoryId);
+        second = new Book(0, "Partitioned Two", "Author Q", true, categoryId);
+        bookDao.addBook(first);
+        bookDao.addBook(second);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void testMostBorrowed_MatchesSingleQuery() {
+        for (int i = 0; i < 5; i++) {
+            borrow(first, JAN_1.plusDays(i), true);
+        }
+        borrow(second, JAN_1, true);
+        borrow(second, JAN_1, true);
+
+        List<BookBorrowCount> expected = serial.getMostBorrowedBooks(JAN_1, JAN_1.plusDays(3), categoryId, 10);
+        List<BookBorrowCount> actual = partitioned.getMostBorrowedBooks(JAN_1, JAN_1.plusDays(3), categoryId, 10);
+
+        assertEquals(expected.stream().map(BookBorrowCount::getBookId).toList(), actual.stream().map(BookBorrowCount::getBookId).toList());
+        assertEquals(expected.stream().map(BookBorrowCount::getBorrowCount).toList(), actual.stream().map(BookBorrowCount::getBorrowCount).toList());
+        assertEquals(4, actual.get(0).getBorrowCount());
+    }
+
+    @Test
+    void testRun_CoversEveryTransactionOnce() {
+        borrow(first, JAN_1, false);
+        borrow(second, JAN_1, true);
+
+        long scanned = engine.run((from, to) -> transactionDao.findAll(from - 1, to - from + 1).stream()
+                        .filter(t -> t.getTransactionId() <= to).count(),
+                () -> 0L, Long::sum);
+
+        assertEquals(transactionDao.findAll().size(), scanned);
+    }
+
+    @Test
+    void testRun_PartitionsAreContiguousAndDisjoint() {
+        for (int i = 0; i < 20; i++) {
+            borrow(i % 2 == 0 ? first : second, JAN_1, i % 3 == 0);
+        }
+        int[] range = transactionDao.findIdRange();
+
+        List<int[]> partitions = engine.run((from, to) -> {
+                    List<int[]> scanned = new ArrayList<>();
+                    scanned.add(new int[]{from, to});
+                    return scanned;
+                },
+                ArrayList::new, (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                });
+        partitions.sort(Comparator.comparingInt(p -> p[0]));
+
+        assertTrue(partitions.size() > 1);
+        assertEquals(range[0], partitions.get(0)[0]);
+        assertEquals(range[1], partitions.get(partitions.size() - 1)[1]);
+        for (int i = 0; i < partitions.size(); i++) {
+            assertTrue(partitions.get(i)[0] <= partitions.get(i)[1]);
+            if (i > 0) {
+                assertEquals(partitions.get(i - 1)[1] + 1, partitions.get(i)[0]);
+            }
+        }
+    }
+
+    @Test
+    void testFindOverdue_OnlyOpenLoansPastDue() {
+        Transaction open = borrow(first, JAN_1, false);
+        borrow(second, JAN_1, true);
+
+        List<Transaction> overdue = engine.run((from, to) -> transactionDao.findOverdue(from, to, JAN_1.plusDays(30)),
+                ArrayList::new, (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                });
+
+        assertTrue(overdue.stream().anyMatch(t -> t.getTransactionId() == open.getTransactionId()));
+        assertTrue(overdue.stream().allMatch(t -> t.getReturnDate() == null));
+    }
+
+    private Transaction borrow(Book book, LocalDate date, boolean returned) {
+        Transaction t = new Transaction(0, userId, book.getBookId(), date, date.plusDays(14));
+        if (returned) {
+            t.setReturnDate(date.plusDays(1));
+        }
+        transactionDao.addTransaction(t);
+        return t;
+    }
+}
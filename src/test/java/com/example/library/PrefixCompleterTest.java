@@ -0,0 +1,64 @@
+package com.example.library;
+
+import com.example.library.model.Book;
+import com.example.library.search.PrefixCompleter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PrefixCompleterTest {
+
+    private PrefixCompleter completer;
+
+    @BeforeEach
+    void setUp() {
+        completer = new PrefixCompleter(1000);
+        completer.add(new Book(1, "The Hobbit", "J.R.R. Tolkien", true, 1));
+        completer.add(new Book(2, "The Hobbit", "J.R.R. Tolkien", true, 1));
+        completer.add(new Book(3, "Hobbies for Everyone", "Ann Author", true, 1));
+        completer.add(new Book(4, "Dune", "Frank Herbert", true, 1));
+    }
+
+    @Test
+    void testCompleteTitle_MatchesStartOfTitleAndOfLaterWords() {
+        assertEquals(List.of("Hobbies for Everyone", "The Hobbit"), completer.completeTitle("hobb", 10));
+        assertEquals(List.of("The Hobbit"), completer.completeTitle("the h", 10));
+        assertEquals(List.of("Hobbies for Everyone"), completer.completeTitle("hobb", 1));
+    }
+
+    @Test
+    void testRemove_KeepsTitleWhileOtherCopiesRemain() {
+        completer.remove(1);
+        assertEquals(List.of("The Hobbit"), completer.completeTitle("the", 10));
+
+        completer.remove(2);
+        assertEquals(List.of(), completer.completeTitle("the", 10));
+    }
+
+    @Test
+    void testMaxEntries_BoundsTheIndex() {
+        PrefixCompleter small = new PrefixCompleter(2);
+        small.add(new Book(1, "Dune", "Frank Herbert", true, 1));
+        small.add(new Book(2, "Emma", "Jane Austen", true, 1));
+
+        assertEquals(List.of("Dune"), small.completeTitle("d", 10));
+        assertEquals(List.of(), small.completeTitle("emma", 10));
+    }
+
+    @Test
+    void testRemove_OnlyReleasesKeysTheBookWasGiven() {
+        PrefixCompleter small = new PrefixCompleter(2);
+        small.add(new Book(1, "Dune", "Frank Herbert", true, 1));
+        small.add(new Book(2, "Emma", "Jane Austen", true, 1));
+        small.remove(1);
+        small.add(new Book(3, "Emma", "Jane Austen", true, 1));
+
+        // Book 2 arrived while the index was full, so removing it must not drop book 3's keys
+        small.remove(2);
+        assertEquals(List.of("Emma"), small.completeTitle("emma", 10));
+        assertEquals(List.of("Jane Austen"), small.completeAuthor("jane", 10));
+    }
+}
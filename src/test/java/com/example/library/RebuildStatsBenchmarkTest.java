@@ -0,0 +1,90 @@
+package com.example.library;
+
+import com.example.library.dao.*;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.BorrowTotals;
+import com.example.library.model.Student;
+import com.example.library.model.Transaction;
+import com.example.library.service.BorrowStatistics;
+import com.example.library.service.PartitionedReportEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures how the rebuild-stats command scales with the number of transaction ID ranges
+ * counted at once. Loads 500,000 transactions by default; set {@code -Dbenchmark.transactions}
+ * for a different size. Run with {@code mvn test -Dbenchmark=true -Dtest=RebuildStatsBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RebuildStatsBenchmarkTest {
+
+    private static final int BOOKS = 2_000;
+    private static final int INSERT_CHUNK = 10_000;
+    private static final int[] PARALLELISM = {1, 2, 4, 8};
+    private static final int RUNS = 3;
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @Test
+    void benchmarkRebuildStats_ByParallelism() {
+        int transactions = Integer.getInteger("benchmark.transactions", 500_000);
+        DatabaseManager dbManager = new DatabaseManager();
+        BookDao bookDao = new JdbcBookDao(dbManager);
+        UserDao userDao = new JdbcUserDao(dbManager);
+        TransactionDao transactionDao = new JdbcTransactionDao(dbManager);
+
+        Student reader = new Student("bench_reader_" + System.nanoTime(), "History", 2);
+        userDao.addUser(reader);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Book(0, "Rebuild Benchmark " + i, "Benchmark Author", true, 1));
+        }
+        bookDao.addBooks(books);
+
+        Random random = new Random(42);
+        for (int loaded = 0; loaded < transactions; loaded += INSERT_CHUNK) {
+            int chunk = Math.min(INSERT_CHUNK, transactions - loaded);
+            dbManager.inTransaction(() -> {
+                for (int i = 0; i < chunk; i++) {
+                    LocalDate borrowed = START.plusDays(random.nextInt(1_500));
+                    Transaction t = new Transaction(0, reader.getUserId(),
+                            books.get(random.nextInt(BOOKS)).getBookId(), borrowed, borrowed.plusDays(14));
+                    t.setReturnDate(borrowed.plusDays(7));
+                    transactionDao.addTransaction(t);
+                }
+                return null;
+            });
+        }
+
+        BorrowStatistics statistics = new BorrowStatistics(new JdbcBorrowStatisticsDao(dbManager), bookDao, dbManager);
+        long baselineMillis = 0;
+        BorrowTotals expected = null;
+        for (int parallelism : PARALLELISM) {
+            try (PartitionedReportEngine engine = new PartitionedReportEngine(transactionDao, parallelism)) {
+                BorrowTotals totals = statistics.rebuild(engine);
+                if (expected == null) {
+                    expected = totals;
+                }
+                assertEquals(expected.getBookCounts(), totals.getBookCounts());
+
+                long start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) {
+                    statistics.rebuild(engine);
+                }
+                long millis = (System.nanoTime() - start) / RUNS / 1_000_000;
+                if (parallelism == 1) {
+                    baselineMillis = millis;
+                }
+                System.out.printf("Parallelism %2d: %6d ms (%.2fx parallelism 1)%n",
+                        parallelism, millis, (double) baselineMillis / Math.max(1, millis));
+            }
+        }
+    }
+}
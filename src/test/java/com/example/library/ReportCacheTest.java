@@ -0,0 +1,128 @@
+package com.example.library;
+
+import com.example.library.dao.JdbcTransactionDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.db.TransactionRunner;
+import com.example.library.model.Book;
+import com.example.library.model.Transaction;
+import com.example.library.report.Report;
+import com.example.library.service.OverdueTracker;
+import com.example.library.service.ReportCache;
+import com.example.library.service.ReportGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private Integer categoryReport(ReportCache cache, int categoryId) {
+        return cache.get("category", List.of(categoryId),
+                (loan, book, returned) -> !returned && book.getCategoryId() == categoryId,
+                computations::incrementAndGet);
+    }
+
+    private static Transaction loan(LocalDate dueDate) {
+        return new Transaction(1, 1, 1, dueDate.minusDays(14), dueDate);
+    }
+
+    @Test
+    void testGet_ServesRepeatRunsFromCache() {
+        ReportCache cache = new ReportCache(TransactionRunner.NONE, 0);
+
+        assertEquals(1, categoryReport(cache, 7));
+        assertEquals(1, categoryReport(cache, 7));
+        assertEquals(2, categoryReport(cache, 8));
+
+        assertEquals(2, computations.get());
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(2, cache.getStats().getMisses());
+        assertEquals(2, cache.getStats().getLoads());
+    }
+
+    @Test
+    void testLoanEvents_InvalidateOnlyAffectedEntries() {
+        ReportCache cache = new ReportCache(TransactionRunner.NONE, 0);
+        categoryReport(cache, 7);
+        categoryReport(cache, 8);
+
+        cache.onBorrow(loan(TODAY.plusDays(14)), new Book(1, "T", "A", false, 7));
+        cache.onReturn(loan(TODAY), new Book(2, "T", "A", true, 8));
+
+        assertEquals(3, categoryReport(cache, 7));
+        assertEquals(2, categoryReport(cache, 8));
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void testGet_ExpiresEntriesPastMaxAge() throws InterruptedException {
+        ReportCache cache = new ReportCache(TransactionRunner.NONE, 1);
+        categoryReport(cache, 7);
+
+        Thread.sleep(20);
+
+        assertEquals(2, categoryReport(cache, 7));
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void testOverdueReport_ServedFromCacheUntilOverdueLoanReturned() {
+        ReportCache cache = new ReportCache(TransactionRunner.NONE, 0);
+        OverdueTracker tracker = new OverdueTracker(null, TransactionRunner.NONE);
+        ReportGenerator generator = new ReportGenerator(null, null, null);
+        generator.setOverdueTracker(tracker);
+        generator.setReportCache(cache);
+        Book book = new Book(1, "T", "A", false, 7);
+        Transaction late = loan(TODAY.minusDays(3));
+        tracker.onBorrow(late, book);
+
+        try (Report first = generator.overdueUsersReport(TODAY);
+             Report second = generator.overdueUsersReport(TODAY)) {
+            assertEquals(1, cache.getStats().getMisses());
+            assertEquals(1, cache.getStats().getHits());
+        }
+
+        late.setReturnDate(TODAY);
+        tracker.onReturn(late, book);
+        cache.onReturn(late, book);
+
+        try (Report third = generator.overdueUsersReport(TODAY)) {
+            assertEquals(2, cache.getStats().getMisses());
+            assertEquals(1, cache.getStats().getEvictions());
+        }
+    }
+
+    @Test
+    void testOverdueReport_WithoutTrackerIsStreamedUncached() {
+        ReportCache cache = new ReportCache(TransactionRunner.NONE, 0);
+        ReportGenerator generator = new ReportGenerator(null, null, new JdbcTransactionDao(new DatabaseManager()));
+        generator.setReportCache(cache);
+
+        try (Report first = generator.overdueUsersReport(TODAY);
+             Report second = generator.overdueUsersReport(TODAY)) {
+            assertEquals(0, cache.getStats().getMisses());
+            assertEquals(0, cache.getStats().getSize());
+        }
+    }
+
+    @Test
+    void testGet_DoesNotCacheResultComputedDuringLoanEvent() {
+        ReportCache cache = new ReportCache(TransactionRunner.NONE, 0);
+        Book unrelated = new Book(3, "T", "A", false, 99);
+
+        cache.get("racy", List.of(), (loan, book, returned) -> false, () -> {
+            cache.onBorrow(loan(TODAY.plusDays(14)), unrelated);
+            return computations.incrementAndGet();
+        });
+        cache.get("racy", List.of(), (loan, book, returned) -> false, computations::incrementAndGet);
+
+        assertEquals(2, computations.get());
+    }
+}
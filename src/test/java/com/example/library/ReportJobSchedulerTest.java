@@ -0,0 +1,107 @@
+package com.example.library;
+
+import com.example.library.report.Report;
+import com.example.library.report.ReportJob;
+import com.example.library.report.ReportJobScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportJobSchedulerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ReportJobScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ReportJobScheduler(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    private static Report numbers(int count) {
+        return new Report("Numbers", List.of("n"), IntStream.range(0, count).mapToObj(i -> Arrays.<Object>asList(i)));
+    }
+
+    @Test
+    void testSubmit_WritesFileAndReportsRows() throws Exception {
+        Path file = tempDir.resolve("numbers.csv");
+
+        ReportJob job = scheduler.submit("numbers", () -> numbers(1000), file);
+        awaitFinished(job);
+
+        assertEquals(ReportJob.Status.DONE, job.getStatus());
+        assertEquals(1000, job.getRowsWritten());
+        assertEquals(1001, Files.readAllLines(file).size());
+        assertEquals(List.of(job), scheduler.listJobs());
+    }
+
+    @Test
+    void testCancel_StopsRunningJobAndDeletesOutput() throws Exception {
+        Path file = tempDir.resolve("endless.jsonl");
+        CountDownLatch started = new CountDownLatch(1);
+        Report endless = new Report("Endless", List.of("n"), Stream.iterate(0, i -> i + 1).map(i -> {
+            started.countDown();
+            return Arrays.<Object>asList(i);
+        }));
+
+        ReportJob job = scheduler.submit("endless", () -> endless, file);
+        started.await();
+        assertTrue(job.cancel());
+        awaitFinished(job);
+
+        assertEquals(ReportJob.Status.CANCELLED, job.getStatus());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testMaxConcurrent_QueuesFurtherJobs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ReportJob blocking = scheduler.submit("blocking", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return numbers(1);
+        }, tempDir.resolve("blocking.csv"));
+        ReportJob queued = scheduler.submit("queued", () -> numbers(1), tempDir.resolve("queued.csv"));
+
+        Thread.sleep(100);
+        assertEquals(ReportJob.Status.QUEUED, queued.getStatus());
+
+        release.countDown();
+        awaitFinished(blocking);
+        awaitFinished(queued);
+        assertEquals(ReportJob.Status.DONE, queued.getStatus());
+    }
+
+    @Test
+    void testSubmit_RejectsUnsupportedFileType() {
+        assertThrows(IllegalArgumentException.class, () -> scheduler.submit("bad", () -> numbers(1), tempDir.resolve("x.txt")));
+    }
+
+    private static void awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "Job did not finish: " + job);
+    }
+}
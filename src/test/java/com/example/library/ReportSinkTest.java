@@ -0,0 +1,89 @@
+package com.example.library;
+
+import com.example.library.report.ConsoleReportSink;
+import com.example.library.report.CsvReportSink;
+import com.example.library.report.JsonLinesReportSink;
+import com.example.library.report.Report;
+import com.example.library.report.ReportSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Report sampleReport() {
+        return new Report("Sample", List.of("id", "title", "due"), Stream.of(
+                Arrays.<Object>asList(1, "Plain", LocalDate.of(2024, 1, 2)),
+                Arrays.<Object>asList(2, "Comma, \"quoted\"", null)));
+    }
+
+    @Test
+    void testCsv_QuotesFieldsWhenNeeded() throws IOException {
+        Path file = tempDir.resolve("report.csv");
+
+        long rows = sampleReport().writeTo(ReportSink.open(file));
+
+        assertEquals(2, rows);
+        assertEquals("id,title,due\r\n1,Plain,2024-01-02\r\n2,\"Comma, \"\"quoted\"\"\",\r\n",
+                Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testJsonLines_WritesOneObjectPerRow() throws IOException {
+        Path file = tempDir.resolve("report.jsonl");
+
+        sampleReport().writeTo(ReportSink.open(file));
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "{\"id\":1,\"title\":\"Plain\",\"due\":\"2024-01-02\"}",
+                "{\"id\":2,\"title\":\"Comma, \\\"quoted\\\"\",\"due\":null}"), lines);
+    }
+
+    @Test
+    void testSmallBuffer_WritesEveryRow() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Report report = new Report("Many", List.of("n", "text"),
+                IntStream.range(0, 10_000).mapToObj(i -> Arrays.<Object>asList(i, "été " + i)));
+
+        long rows = report.writeTo(new CsvReportSink(Channels.newChannel(bytes), true, 64));
+
+        assertEquals(10_000, rows);
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(10_001, lines.length);
+        assertEquals("9999,été 9999", lines[10_000]);
+    }
+
+    @Test
+    void testConsole_PrintsTitleAndRows() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        sampleReport().writeTo(new ConsoleReportSink(new PrintStream(bytes, true, StandardCharsets.UTF_8)));
+
+        String output = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("--- Sample ---"));
+        assertTrue(output.contains("id: 1, title: Plain, due: 2024-01-02"));
+    }
+
+    @Test
+    void testOpen_RejectsUnknownExtension() {
+        assertThrows(IllegalArgumentException.class, () -> ReportSink.open(tempDir.resolve("report.xml")));
+    }
+}
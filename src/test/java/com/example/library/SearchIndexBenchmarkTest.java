@@ -0,0 +1,71 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.search.BookSearchIndex;
+import com.example.library.search.IndexedBookDao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares title searches answered by the in-memory index with SQL {@code LIKE} scans over a
+ * large catalog. Loading the default one million books takes a while; set {@code -Dbenchmark.books}
+ * for a smaller run. Run with {@code mvn test -Dbenchmark=true -Dtest=SearchIndexBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SearchIndexBenchmarkTest {
+
+    private static final String[] WORDS = {"river", "shadow", "garden", "empire", "winter", "silent",
+            "machine", "harbor", "crown", "letters", "forest", "mirror", "journey", "glass", "storm", "orchard"};
+    private static final String[] QUERIES = {"river", "shad", "winter garden", "crown of", "glass storm"};
+    private static final int SEARCHES_PER_QUERY = 20;
+
+    @Test
+    void benchmarkTitleSearch_IndexVersusLike() {
+        int catalogSize = Integer.getInteger("benchmark.books", 1_000_000);
+        DatabaseManager dbManager = new DatabaseManager();
+        BookDao bookDao = new JdbcBookDao(dbManager);
+        Random random = new Random(42);
+        List<Book> chunk = new ArrayList<>();
+        for (int i = 0; i < catalogSize; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " of " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            chunk.add(new Book(0, title, "Author " + random.nextInt(50_000), true, 1));
+            if (chunk.size() == dbManager.getBatchSize() * 10) {
+                bookDao.addBooks(chunk);
+                chunk.clear();
+            }
+        }
+        bookDao.addBooks(chunk);
+
+        long start = System.nanoTime();
+        IndexedBookDao indexedBookDao = new IndexedBookDao(bookDao, new BookSearchIndex(), dbManager);
+        indexedBookDao.rebuild();
+        System.out.printf("Indexed the catalog in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+
+        for (String query : QUERIES) {
+            int indexHits = 0;
+            long indexStart = System.nanoTime();
+            for (int i = 0; i < SEARCHES_PER_QUERY; i++) {
+                indexHits = indexedBookDao.findByTitle(query, 0, 50).size();
+            }
+            long indexNanos = (System.nanoTime() - indexStart) / SEARCHES_PER_QUERY;
+
+            int likeHits = 0;
+            long likeStart = System.nanoTime();
+            for (int i = 0; i < SEARCHES_PER_QUERY; i++) {
+                likeHits = bookDao.findByTitle(query, 0, 50).size();
+            }
+            long likeNanos = (System.nanoTime() - likeStart) / SEARCHES_PER_QUERY;
+
+            System.out.printf("\"%s\": index %6d us (%d hits), LIKE %6d us (%d hits)%n",
+                    query, indexNanos / 1_000, indexHits, likeNanos / 1_000, likeHits);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.library;
+
+import com.example.library.dao.BookDao;
+import com.example.library.dao.JdbcBookDao;
+import com.example.library.db.DatabaseManager;
+import com.example.library.model.Book;
+import com.example.library.model.TrendingBook;
+import com.example.library.service.TrendingTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendingTrackerTest {
+
+    private BookDao bookDao;
+    private MutableClock clock;
+    private TrendingTracker tracker;
+    private Book popular;
+    private Book steady;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager dbManager = new DatabaseManager();
+        bookDao = new JdbcBookDao(dbManager);
+        clock = new MutableClock(Instant.parse("2024-03-01T10:00:00Z"));
+        tracker = new TrendingTracker(bookDao, dbManager, 4, clock);
+        popular = new Book(0, "Trending Popular", "Trend Author", true, 1);
+        steady = new Book(0, "Trending Steady", "Trend Author", true, 1);
+        bookDao.addBook(popular);
+        bookDao.addBook(steady);
+    }
+
+    @Test
+    void testGetTrending_RanksByWindow() {
+        record(steady, 5);
+        clock.advance(Duration.ofHours(3));
+        record(popular, 3);
+
+        List<TrendingBook> lastHour = tracker.getTrending(Duration.ofHours(1), 10);
+        assertEquals(1, lastHour.size());
+        assertEquals(popular.getBookId(), lastHour.get(0).getBookId());
+        assertEquals(3, lastHour.get(0).getEstimatedBorrows());
+        assertEquals(0, lastHour.get(0).getMaxError());
+
+        List<TrendingBook> lastDay = tracker.getTrending(Duration.ofDays(1), 10);
+        assertEquals(steady.getBookId(), lastDay.get(0).getBookId());
+        assertEquals(5, lastDay.get(0).getEstimatedBorrows());
+        assertEquals(popular.getBookId(), lastDay.get(1).getBookId());
+    }
+
+    @Test
+    void testGetTrending_ExpiresOldBuckets() {
+        record(popular, 2);
+        clock.advance(Duration.ofDays(8));
+
+        assertTrue(tracker.getTrending(Duration.ofDays(7), 10).isEmpty());
+        assertEquals(1, tracker.getTrending(Duration.ofDays(30), 10).size());
+    }
+
+    @Test
+    void testGetTrending_StaysWithinErrorBound() {
+        // 4 counters per bucket: the 30 one-off IDs keep evicting each other, the heavy hitter survives
+        for (int i = 0; i < 20; i++) {
+            tracker.record(popular.getBookId());
+            tracker.record(-1 - i);
+            tracker.record(-100 - i);
+        }
+
+        TrendingBook top = tracker.getTrending(Duration.ofMinutes(1), 1).get(0);
+        assertEquals(popular.getBookId(), top.getBookId());
+        assertTrue(top.getEstimatedBorrows() - top.getMaxError() <= 20);
+        assertTrue(top.getEstimatedBorrows() >= 20);
+        assertTrue(top.getMaxError() <= 60 / 4);
+    }
+
+    private void record(Book book, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(book.getBookId());
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
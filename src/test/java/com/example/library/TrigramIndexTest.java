@@ -0,0 +1,53 @@
+package com.example.library;
+
+import com.example.library.model.Book;
+import com.example.library.search.TrigramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex(0.5);
+        index.add(new Book(1, "The Hobbit", "J.R.R. Tolkien", true, 1));
+        index.add(new Book(2, "Hobbies for Everyone", "Ann Author", true, 1));
+        index.add(new Book(3, "Dune", "Frank Herbert", true, 1));
+    }
+
+    @Test
+    void testSearchTitle_ToleratesTypos() {
+        List<Integer> results = index.searchTitle("Hobit", 10);
+        assertEquals(1, results.get(0), "The closest title should rank first.");
+        assertFalse(results.contains(3));
+    }
+
+    @Test
+    void testSearchAuthor_ToleratesTransposedLetters() {
+        assertEquals(List.of(1), index.searchAuthor("Tolkein", 10));
+    }
+
+    @Test
+    void testRemove_DropsBookFromResults() {
+        index.remove(1);
+        assertFalse(index.searchTitle("Hobit", 10).contains(1));
+    }
+
+    @Test
+    void testMaxPostings_StillFindsBooksThroughRareGrams() {
+        TrigramIndex capped = new TrigramIndex(0.5, 2);
+        capped.add(new Book(1, "The Hobbit", "J.R.R. Tolkien", true, 1));
+        for (int i = 10; i < 30; i++) {
+            capped.add(new Book(i, "The Companion " + i, "Ann Author", true, 1));
+        }
+
+        assertEquals(List.of(1), capped.searchTitle("the hobit", 10).subList(0, 1));
+        assertEquals(List.of(1), capped.searchAuthor("Tolkein", 10));
+    }
+}